@@ -0,0 +1,437 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Arena com várias cobras e várias comidas no mesmo tabuleiro, sem
+ * dependências de interface gráfica.
+ * 
+ * Um {@link CellMap} compartilhado guarda o dono de cada célula ocupada e é
+ * atualizado pelos eventos {@link SnakeBody.CellListener} de cada cobra:
+ * cada movimento muda só a célula da cabeça e a da cauda. Assim a colisão da
+ * cabeça com o corpo de qualquer cobra custa O(1) por cobra, e o custo de um
+ * passo depende do número de cobras, e não da soma dos seus tamanhos. A
+ * comida é sorteada por um único {@link FoodSpawner}, que recebe os mesmos
+ * eventos e trata as células com comida como ocupadas. Cada cobra guarda
+ * as próprias células em um {@link CellSet} esparso, então a memória
+ * acompanha o tamanho das cobras, e não a área do tabuleiro vezes o número
+ * de cobras.
+ * 
+ * As cobras se movem em ordem de identificador; entrar na cauda de uma cobra
+ * que ainda vai se mover no mesmo passo é uma colisão. Duas cabeças na mesma
+ * célula eliminam as duas cobras. Entrar na cabeça de uma cobra que ainda não
+ * se moveu no passo elimina só quem entrou: a célula vira o pescoço dela, e o
+ * resultado não depende da ordem dos identificadores.
+ */
+public class Arena {
+    /**
+     * Recebe as mudanças da arena, na ordem em que acontecem. Reaplicar os
+     * eventos na mesma ordem reproduz o estado da arena (ver {@link ArenaMirror}).
+     */
+    public interface Listener {
+        /**
+         * Uma cobra foi colocada na arena, com 3 segmentos virada para a
+         * direita: cabeça na célula informada e o corpo nas duas à esquerda.
+         * 
+         * @param id Identificador da cobra
+         * @param head Célula compactada da cabeça (y * colunas + x)
+         */
+        void snakeSpawned(int id, int head);
+        
+        /**
+         * Uma cobra andou uma célula na sua direção atual.
+         * 
+         * @param id Identificador da cobra
+         * @param direction Direção do movimento
+         * @param grew true se a cauda ficou no lugar (a cobra cresceu)
+         */
+        void snakeMoved(int id, Direction direction, boolean grew);
+        
+        /**
+         * Uma cobra foi eliminada e suas células foram liberadas.
+         * 
+         * @param id Identificador da cobra
+         */
+        void snakeRemoved(int id);
+        
+        /**
+         * Uma comida apareceu.
+         * 
+         * @param cell Célula compactada da comida
+         */
+        void foodAdded(int cell);
+        
+        /**
+         * Uma comida foi comida.
+         * 
+         * @param cell Célula compactada da comida
+         */
+        void foodRemoved(int cell);
+    }
+    
+    private final int columns;
+    private final int rows;
+    private final int foodTarget;
+    private final Random random;
+    private final CellMap owners; // Célula -> identificador da cobra
+    private final CellMap foods; // Célula -> posição em foodCells
+    private final int[] foodCells;
+    private int foodCount;
+    private final FoodSpawner spawner; // Células livres: sem cobra e sem comida
+    private final List<Entry> snakes = new ArrayList<>();
+    private int aliveCount;
+    private long tick;
+    private Listener listener;
+    
+    /**
+     * Uma cobra da arena e o ouvinte que mantém o mapa de donos.
+     */
+    private class Entry implements SnakeBody.CellListener {
+        final int id;
+        SnakeBody body;
+        boolean alive;
+        boolean crashed; // Bateu em outra cobra neste passo
+        boolean ate; // Comeu neste passo
+        long movedTick = -1; // Último passo em que a cobra se moveu
+        int score;
+        
+        Entry(int id) {
+            this.id = id;
+        }
+        
+        @Override
+        public void cellOccupied(int cell) {
+            int owner = owners.get(cell);
+            if (owner != CellMap.NONE) {
+                crashed = true;
+                Entry other = snakes.get(owner);
+                if (other.movedTick == tick && other.body.isHeadAt(cell % columns, cell / columns)) {
+                    other.crashed = true; // Cabeça com cabeça: as duas entraram na célula neste passo
+                }
+                return;
+            }
+            owners.put(cell, id);
+            if (foods.get(cell) != CellMap.NONE) {
+                removeFood(cell); // A célula passa da comida para a cobra
+                ate = true;
+            } else {
+                spawner.cellOccupied(cell);
+            }
+        }
+        
+        @Override
+        public void cellFreed(int cell) {
+            if (owners.get(cell) == id) {
+                owners.remove(cell);
+                spawner.cellFreed(cell);
+            }
+        }
+    }
+    
+    /**
+     * Construtor da classe Arena.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param foodTarget Número de comidas mantidas no tabuleiro
+     * @param seed Semente usada para sortear a comida e as posições iniciais
+     */
+    public Arena(int columns, int rows, int foodTarget, long seed) {
+        if ((long) columns * rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tabuleiro grande demais: " + columns + "x" + rows);
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.foodTarget = foodTarget;
+        this.random = new Random(seed);
+        this.owners = new CellMap(columns * rows);
+        this.foods = new CellMap(columns * rows);
+        this.foodCells = new int[foodTarget];
+        this.spawner = new FoodSpawner(columns, rows, random,
+                cell -> owners.get(cell) != CellMap.NONE || foods.get(cell) != CellMap.NONE);
+        refillFood();
+    }
+    
+    /**
+     * Coloca uma nova cobra em uma posição livre sorteada.
+     * 
+     * @return Identificador da cobra, ou -1 se não houver espaço livre
+     */
+    public int spawnSnake() {
+        Entry entry = new Entry(snakes.size());
+        if (!place(entry)) {
+            return -1;
+        }
+        snakes.add(entry);
+        return entry.id;
+    }
+    
+    /**
+     * Coloca de volta na arena uma cobra eliminada, com pontuação zerada.
+     * 
+     * @param id Identificador da cobra
+     * @return true se a cobra foi colocada, false se ela está viva ou não há espaço livre
+     */
+    public boolean respawn(int id) {
+        Entry entry = snakes.get(id);
+        return !entry.alive && place(entry);
+    }
+    
+    /**
+     * Sorteia uma posição com 3 células livres em linha (cobra virada para a
+     * direita) e a célula à frente da cabeça também livre.
+     */
+    private boolean place(Entry entry) {
+        if (columns < 4) {
+            return false;
+        }
+        for (int attempt = 0; attempt < 100; attempt++) {
+            int x = 2 + random.nextInt(columns - 3);
+            int y = random.nextInt(rows);
+            if (isFree(x - 2, y) && isFree(x - 1, y) && isFree(x, y) && isFree(x + 1, y)) {
+                entry.body = new SnakeBody(columns, rows, x, y, new CellSet());
+                for (int i = 0; i < entry.body.getSize(); i++) {
+                    entry.cellOccupied(entry.body.getCell(i));
+                }
+                entry.body.setCellListener(entry);
+                entry.alive = true;
+                entry.crashed = false;
+                entry.ate = false;
+                entry.score = 0;
+                aliveCount++;
+                if (listener != null) {
+                    listener.snakeSpawned(entry.id, entry.body.getCell(0));
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean isFree(int x, int y) {
+        int cell = y * columns + x;
+        return owners.get(cell) == CellMap.NONE && foods.get(cell) == CellMap.NONE;
+    }
+    
+    /**
+     * Avança a arena em um passo: move cada cobra viva, elimina as que
+     * colidiram e repõe a comida comida.
+     * 
+     * @param turns Nova direção de cada cobra, pelo identificador (null ou
+     *              posições faltando mantêm a direção atual)
+     * @return Número de cobras vivas após o passo
+     */
+    public int step(Direction[] turns) {
+        for (Entry entry : snakes) {
+            if (!entry.alive) {
+                continue;
+            }
+            SnakeBody body = entry.body;
+            if (turns != null && entry.id < turns.length && turns[entry.id] != null) {
+                body.setDirection(turns[entry.id]);
+            }
+            int size = body.getSize();
+            entry.movedTick = tick;
+            body.move();
+            if (listener != null) {
+                listener.snakeMoved(entry.id, body.getDirection(), body.getSize() > size);
+            }
+            if (body.checkWallCollision() || body.checkSelfCollision()) {
+                entry.crashed = true;
+            } else if (entry.ate) {
+                entry.ate = false;
+                entry.score++;
+                body.grow();
+            }
+        }
+        
+        for (Entry entry : snakes) {
+            if (entry.alive && entry.crashed) {
+                remove(entry);
+            }
+        }
+        refillFood();
+        tick++;
+        return aliveCount;
+    }
+    
+    /**
+     * Tira do tabuleiro as células de uma cobra eliminada.
+     */
+    private void remove(Entry entry) {
+        SnakeBody body = entry.body;
+        body.setCellListener(null);
+        for (int i = 0; i < body.getSize(); i++) {
+            int cell = body.getCell(i);
+            if (cell >= 0) {
+                entry.cellFreed(cell); // Só libera as células de que ela é dona
+            }
+        }
+        entry.alive = false;
+        entry.crashed = false;
+        entry.ate = false;
+        aliveCount--;
+        if (listener != null) {
+            listener.snakeRemoved(entry.id);
+        }
+    }
+    
+    private void refillFood() {
+        while (foodCount < foodTarget && spawner.spawn()) {
+            int cell = spawner.getY() * columns + spawner.getX();
+            spawner.cellOccupied(cell);
+            foods.put(cell, foodCount);
+            foodCells[foodCount++] = cell;
+            if (listener != null) {
+                listener.foodAdded(cell);
+            }
+        }
+    }
+    
+    /**
+     * Remove uma comida com remoção por troca (swap-remove).
+     */
+    private void removeFood(int cell) {
+        int index = foods.remove(cell);
+        int last = foodCells[--foodCount];
+        foodCells[index] = last;
+        if (last != cell) {
+            foods.put(last, index);
+        }
+        if (listener != null) {
+            listener.foodRemoved(cell);
+        }
+    }
+    
+    /**
+     * Define quem recebe as mudanças da arena. As cobras e comidas já
+     * presentes não são notificadas.
+     * 
+     * @param listener Ouvinte das mudanças, ou null para remover
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Retorna o dono de uma célula.
+     * 
+     * @param x Coluna
+     * @param y Linha
+     * @return Identificador da cobra que ocupa a célula, ou -1 se estiver livre
+     */
+    public int getOwner(int x, int y) {
+        if (x < 0 || x >= columns || y < 0 || y >= rows) {
+            return -1;
+        }
+        return owners.get(y * columns + x);
+    }
+    
+    /**
+     * Verifica se há comida em uma célula.
+     * 
+     * @param x Coluna
+     * @param y Linha
+     * @return true se há comida na célula, false caso contrário
+     */
+    public boolean isFood(int x, int y) {
+        if (x < 0 || x >= columns || y < 0 || y >= rows) {
+            return false;
+        }
+        return foods.get(y * columns + x) != CellMap.NONE;
+    }
+    
+    /**
+     * Retorna o número de comidas no tabuleiro.
+     * 
+     * @return Número de comidas
+     */
+    public int getFoodCount() {
+        return foodCount;
+    }
+    
+    /**
+     * Retorna a célula compactada (y * colunas + x) de uma comida.
+     * 
+     * @param index Índice da comida, entre 0 e {@link #getFoodCount()} - 1
+     * @return Célula da comida
+     */
+    public int getFoodCell(int index) {
+        return foodCells[index];
+    }
+    
+    /**
+     * Retorna o número de cobras já colocadas na arena, vivas ou não.
+     * 
+     * @return Número de cobras
+     */
+    public int getSnakeCount() {
+        return snakes.size();
+    }
+    
+    /**
+     * Retorna o número de cobras vivas.
+     * 
+     * @return Número de cobras vivas
+     */
+    public int getAliveCount() {
+        return aliveCount;
+    }
+    
+    /**
+     * Verifica se uma cobra está viva.
+     * 
+     * @param id Identificador da cobra
+     * @return true se a cobra está viva, false caso contrário
+     */
+    public boolean isAlive(int id) {
+        return snakes.get(id).alive;
+    }
+    
+    /**
+     * Retorna o modelo de uma cobra.
+     * 
+     * @param id Identificador da cobra
+     * @return Modelo da cobra (o último, se ela foi eliminada)
+     */
+    public SnakeBody getSnake(int id) {
+        return snakes.get(id).body;
+    }
+    
+    /**
+     * Retorna a pontuação de uma cobra.
+     * 
+     * @param id Identificador da cobra
+     * @return Comidas comidas desde que a cobra foi colocada
+     */
+    public int getScore(int id) {
+        return snakes.get(id).score;
+    }
+    
+    /**
+     * Retorna o número de passos já executados.
+     * 
+     * @return Número de passos
+     */
+    public long getTick() {
+        return tick;
+    }
+    
+    /**
+     * Retorna o número de colunas do tabuleiro.
+     * 
+     * @return Número de colunas
+     */
+    public int getColumns() {
+        return columns;
+    }
+    
+    /**
+     * Retorna o número de linhas do tabuleiro.
+     * 
+     * @return Número de linhas
+     */
+    public int getRows() {
+        return rows;
+    }
+}
\ No newline at end of file
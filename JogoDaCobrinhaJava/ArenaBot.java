@@ -0,0 +1,47 @@
+/**
+ * Bot simples para a {@link Arena}: cada cobra persegue uma das comidas,
+ * escolhida pelo seu identificador, evitando apenas as colisões do próximo
+ * passo. Consulta só as células vizinhas da cabeça, então o custo por cobra
+ * é O(1). Não guarda estado, então uma mesma instância serve para todas as
+ * cobras.
+ */
+public class ArenaBot {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    /**
+     * Escolhe, entre as direções seguras, a que mais aproxima a cabeça da comida perseguida.
+     * 
+     * @param arena Arena onde a cobra está
+     * @param id Identificador da cobra
+     * @return Direção escolhida, ou null se não houver saída segura
+     */
+    public Direction nextDirection(Arena arena, int id) {
+        SnakeBody snake = arena.getSnake(id);
+        int targetX = -1;
+        int targetY = -1;
+        if (arena.getFoodCount() > 0) {
+            int food = arena.getFoodCell(id % arena.getFoodCount());
+            targetX = food % arena.getColumns();
+            targetY = food / arena.getColumns();
+        }
+        
+        Direction best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Direction direction : DIRECTIONS) {
+            if (direction.isOpposite(snake.getDirection())) {
+                continue;
+            }
+            int x = snake.getHeadX() + direction.getDx();
+            int y = snake.getHeadY() + direction.getDy();
+            if (x < 0 || x >= arena.getColumns() || y < 0 || y >= arena.getRows() || arena.getOwner(x, y) >= 0) {
+                continue;
+            }
+            int distance = targetX < 0 ? 0 : Math.abs(targetX - x) + Math.abs(targetY - y);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = direction;
+            }
+        }
+        return best;
+    }
+}
\ No newline at end of file
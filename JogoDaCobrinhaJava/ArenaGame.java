@@ -0,0 +1,170 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Modo arena: o jogador controla uma cobra em um tabuleiro compartilhado
+ * com várias cobras controladas pelo {@link ArenaBot}.
+ * 
+ * O desenho percorre só as células dentro da área de recorte, consultando o
+ * dono de cada uma na arena, então o custo por quadro não depende do número
+ * nem do tamanho das cobras. Cobras eliminadas voltam à arena; o jogador
+ * volta com ESPAÇO.
+ */
+public class ArenaGame extends JPanel {
+    private static final long serialVersionUID = 1L;
+    
+    private static final int COLUMNS = 60;
+    private static final int ROWS = 60;
+    private static final int UNIT_SIZE = 10;
+    private static final int DELAY = 100;
+    private static final int DEFAULT_BOTS = 30;
+    private static final int INPUT_CAPACITY = 4;
+    private static final Color PLAYER_HEAD_COLOR = new Color(0, 153, 0);
+    private static final Color PLAYER_BODY_COLOR = new Color(0, 204, 0);
+    private static final Color FOOD_COLOR = Color.RED;
+    private static final Font SCORE_FONT = new Font("Arial", Font.BOLD, 16);
+    
+    private final Arena arena;
+    private final ArenaBot bot = new ArenaBot();
+    private final int player;
+    private final Direction[] turns;
+    private final Color[] colors; // Cor do corpo de cada bot
+    private final InputQueue input = new InputQueue(INPUT_CAPACITY);
+    
+    /**
+     * Construtor da classe ArenaGame.
+     * 
+     * @param bots Número de cobras controladas pelo computador
+     */
+    public ArenaGame(int bots) {
+        setPreferredSize(new Dimension(COLUMNS * UNIT_SIZE, ROWS * UNIT_SIZE));
+        setBackground(Color.BLACK);
+        setFocusable(true);
+        
+        arena = new Arena(COLUMNS, ROWS, Math.max(1, bots / 2), System.nanoTime());
+        player = arena.spawnSnake();
+        for (int i = 0; i < bots; i++) {
+            arena.spawnSnake();
+        }
+        turns = new Direction[arena.getSnakeCount()];
+        colors = new Color[turns.length];
+        for (int id = 0; id < colors.length; id++) {
+            colors[id] = Color.getHSBColor((id * 0.618034f) % 1, 0.6f, 0.9f);
+        }
+        
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_LEFT:
+                        input.offer(Direction.LEFT);
+                        break;
+                    case KeyEvent.VK_RIGHT:
+                        input.offer(Direction.RIGHT);
+                        break;
+                    case KeyEvent.VK_UP:
+                        input.offer(Direction.UP);
+                        break;
+                    case KeyEvent.VK_DOWN:
+                        input.offer(Direction.DOWN);
+                        break;
+                    case KeyEvent.VK_SPACE:
+                        if (!arena.isAlive(player) && arena.respawn(player)) {
+                            input.clear();
+                        }
+                        break;
+                }
+            }
+        });
+        new Timer(DELAY, e -> tick()).start();
+    }
+    
+    /**
+     * Avança a arena um passo e traz de volta os bots eliminados.
+     */
+    private void tick() {
+        for (int id = 0; id < turns.length; id++) {
+            if (!arena.isAlive(id)) {
+                turns[id] = null;
+                if (id != player) {
+                    arena.respawn(id);
+                }
+            } else if (id == player) {
+                turns[id] = input.nextTurn(arena.getSnake(id).getDirection());
+            } else {
+                turns[id] = bot.nextDirection(arena, id);
+            }
+        }
+        arena.step(turns);
+        repaint();
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int minX = Math.max(0, clip.x / UNIT_SIZE);
+        int minY = Math.max(0, clip.y / UNIT_SIZE);
+        int maxX = Math.min(COLUMNS - 1, (clip.x + clip.width - 1) / UNIT_SIZE);
+        int maxY = Math.min(ROWS - 1, (clip.y + clip.height - 1) / UNIT_SIZE);
+        
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                int owner = arena.getOwner(x, y);
+                if (owner >= 0) {
+                    boolean head = arena.getSnake(owner).isHeadAt(x, y);
+                    if (owner == player) {
+                        g.setColor(head ? PLAYER_HEAD_COLOR : PLAYER_BODY_COLOR);
+                    } else {
+                        g.setColor(head ? colors[owner].darker() : colors[owner]);
+                    }
+                    g.fillRect(x * UNIT_SIZE, y * UNIT_SIZE, UNIT_SIZE, UNIT_SIZE);
+                } else if (arena.isFood(x, y)) {
+                    g.setColor(FOOD_COLOR);
+                    g.fillOval(x * UNIT_SIZE, y * UNIT_SIZE, UNIT_SIZE, UNIT_SIZE);
+                }
+            }
+        }
+        
+        g.setColor(Color.WHITE);
+        g.setFont(SCORE_FONT);
+        String text = arena.isAlive(player)
+                ? "Pontuação: " + arena.getScore(player) + "   Cobras: " + arena.getAliveCount()
+                : "Eliminado com " + arena.getScore(player) + " pontos - ESPAÇO para voltar";
+        g.drawString(text, 10, SCORE_FONT.getSize() + 4);
+    }
+    
+    /**
+     * Abre a janela da arena.
+     * 
+     * Uso: ArenaGame [bots]
+     * 
+     * @param args Número de bots (padrão 30)
+     */
+    public static void main(String[] args) {
+        int bots = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_BOTS;
+        SwingUtilities.invokeLater(() -> {
+            JFrame frame = new JFrame("Jogo da Cobrinha - Arena");
+            ArenaGame game = new ArenaGame(bots);
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setResizable(false);
+            frame.add(game);
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+            game.requestFocusInWindow();
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,389 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cópia de uma {@link Arena} no cliente, mantida pelos quadros do
+ * {@link NetProtocol}.
+ * 
+ * O estado completo chega uma vez, no {@link NetProtocol#WELCOME}; depois
+ * cada {@link NetProtocol#TICK} traz só os eventos do passo, na ordem em
+ * que aconteceram no servidor, e a cópia os reaplica com as mesmas regras
+ * de ocupação da arena. A classe também tem o lado do servidor: a escrita
+ * do estado completo e o {@link Encoder}, que transforma os eventos da
+ * arena em operações de um TICK.
+ */
+public class ArenaMirror {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    private int columns;
+    private int rows;
+    private long tick = -1;
+    private int playerId = -1;
+    private final List<ArrayDeque<Integer>> bodies = new ArrayList<>(); // Cabeça primeiro; null se eliminada
+    private CellMap owners;
+    private CellMap foods;
+    private int aliveCount;
+    
+    /**
+     * Transforma os eventos de uma arena nas operações de um quadro TICK.
+     * Um mesmo quadro é enviado a todos os clientes da sala.
+     */
+    public static class Encoder implements Arena.Listener {
+        private final NetProtocol.FrameWriter out = new NetProtocol.FrameWriter();
+        
+        /**
+         * Começa o quadro de um passo.
+         * 
+         * @param tick Número do passo
+         */
+        public void begin(long tick) {
+            out.begin(NetProtocol.TICK);
+            out.writeVarLong(tick);
+        }
+        
+        /**
+         * @return Quadro com as operações registradas desde {@link #begin(long)}
+         */
+        public ByteBuffer toFrame() {
+            return out.toFrame();
+        }
+        
+        private void op(int code, long argument) {
+            out.writeVarLong(argument << 3 | code);
+        }
+        
+        @Override
+        public void snakeSpawned(int id, int head) {
+            op(NetProtocol.OP_SPAWN, id);
+            out.writeVarLong(head);
+        }
+        
+        @Override
+        public void snakeMoved(int id, Direction direction, boolean grew) {
+            op(NetProtocol.OP_MOVE, (long) id << 3 | direction.ordinal() << 1 | (grew ? 1 : 0));
+        }
+        
+        @Override
+        public void snakeRemoved(int id) {
+            op(NetProtocol.OP_REMOVE, id);
+        }
+        
+        @Override
+        public void foodAdded(int cell) {
+            op(NetProtocol.OP_FOOD_ADDED, cell);
+        }
+        
+        @Override
+        public void foodRemoved(int cell) {
+            op(NetProtocol.OP_FOOD_REMOVED, cell);
+        }
+    }
+    
+    /**
+     * Escreve o estado completo de uma arena em um quadro WELCOME: tamanho do
+     * tabuleiro, passo, cada cobra viva (identificador, tamanho, célula da
+     * cabeça e a direção de cada segmento para o seguinte, 4 por byte) e as
+     * comidas.
+     * 
+     * @param arena Arena de origem
+     * @param out Escritor do quadro
+     */
+    public static void writeWelcome(Arena arena, NetProtocol.FrameWriter out) {
+        int columns = arena.getColumns();
+        out.begin(NetProtocol.WELCOME);
+        out.writeVarLong(columns);
+        out.writeVarLong(arena.getRows());
+        out.writeVarLong(arena.getTick());
+        out.writeVarLong(arena.getAliveCount());
+        for (int id = 0; id < arena.getSnakeCount(); id++) {
+            if (!arena.isAlive(id)) {
+                continue;
+            }
+            SnakeBody body = arena.getSnake(id);
+            out.writeVarLong(id);
+            out.writeVarLong(body.getSize());
+            out.writeVarLong(body.getCell(0));
+            int packed = 0;
+            for (int i = 1; i < body.getSize(); i++) {
+                int from = body.getCell(i - 1);
+                int to = body.getCell(i);
+                packed |= directionBetween(from, to, columns).ordinal() << (2 * ((i - 1) & 3));
+                if (((i - 1) & 3) == 3 || i == body.getSize() - 1) {
+                    out.writeByte(packed);
+                    packed = 0;
+                }
+            }
+        }
+        out.writeVarLong(arena.getFoodCount());
+        for (int i = 0; i < arena.getFoodCount(); i++) {
+            out.writeVarLong(arena.getFoodCell(i));
+        }
+    }
+    
+    private static Direction directionBetween(int from, int to, int columns) {
+        if (to == from - columns) {
+            return Direction.UP;
+        } else if (to == from + columns) {
+            return Direction.DOWN;
+        } else if (to == from - 1) {
+            return Direction.LEFT;
+        }
+        return Direction.RIGHT;
+    }
+    
+    /**
+     * Substitui o estado pelo de um quadro WELCOME.
+     * 
+     * @param payload Conteúdo do quadro, depois do byte de tipo
+     */
+    public void applyWelcome(ByteBuffer payload) {
+        columns = NetProtocol.readVarInt(payload);
+        rows = NetProtocol.readVarInt(payload);
+        if ((long) columns * rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tabuleiro grande demais: " + columns + "x" + rows);
+        }
+        tick = NetProtocol.readVarLong(payload);
+        owners = new CellMap(columns * rows);
+        foods = new CellMap(columns * rows);
+        bodies.clear();
+        aliveCount = 0;
+        
+        int alive = NetProtocol.readVarInt(payload);
+        for (int n = 0; n < alive; n++) {
+            int id = NetProtocol.readVarInt(payload);
+            int length = NetProtocol.readVarInt(payload);
+            int cell = NetProtocol.readVarInt(payload);
+            ArrayDeque<Integer> body = new ArrayDeque<>(length);
+            body.addLast(cell);
+            owners.put(cell, id);
+            int packed = 0;
+            for (int i = 1; i < length; i++) {
+                if (((i - 1) & 3) == 0) {
+                    packed = payload.get() & 0xFF;
+                }
+                Direction direction = DIRECTIONS[(packed >>> (2 * ((i - 1) & 3))) & 3];
+                cell += direction.getDy() * columns + direction.getDx();
+                body.addLast(cell);
+                owners.put(cell, id);
+            }
+            setBody(id, body);
+        }
+        
+        int foodCount = NetProtocol.readVarInt(payload);
+        for (int i = 0; i < foodCount; i++) {
+            foods.put(NetProtocol.readVarInt(payload), 0);
+        }
+    }
+    
+    /**
+     * Define a cobra do jogador a partir de um quadro ASSIGN.
+     * 
+     * @param payload Conteúdo do quadro, depois do byte de tipo
+     */
+    public void applyAssign(ByteBuffer payload) {
+        playerId = NetProtocol.readVarInt(payload) - 1;
+    }
+    
+    /**
+     * Aplica os eventos de um quadro TICK.
+     * 
+     * @param payload Conteúdo do quadro, depois do byte de tipo
+     */
+    public void applyTick(ByteBuffer payload) {
+        if (owners == null) {
+            throw new IllegalStateException("TICK recebido antes do WELCOME");
+        }
+        long next = NetProtocol.readVarLong(payload);
+        if (next != tick + 1) {
+            throw new IllegalStateException("Passo fora de ordem: " + next + " depois de " + tick);
+        }
+        tick = next;
+        
+        while (payload.hasRemaining()) {
+            long value = NetProtocol.readVarLong(payload);
+            int code = (int) (value & 7);
+            long argument = value >>> 3;
+            switch (code) {
+                case NetProtocol.OP_MOVE:
+                    move((int) (argument >>> 3), DIRECTIONS[(int) (argument >>> 1) & 3], (argument & 1) != 0);
+                    break;
+                case NetProtocol.OP_SPAWN:
+                    spawn((int) argument, NetProtocol.readVarInt(payload));
+                    break;
+                case NetProtocol.OP_REMOVE:
+                    remove((int) argument);
+                    break;
+                case NetProtocol.OP_FOOD_ADDED:
+                    foods.put((int) argument, 0);
+                    break;
+                case NetProtocol.OP_FOOD_REMOVED:
+                    foods.remove((int) argument);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Operação desconhecida: " + code);
+            }
+        }
+    }
+    
+    /**
+     * Move uma cobra com as regras do {@link SnakeBody}: primeiro libera a
+     * cauda, depois ocupa a célula da cabeça, se estiver livre.
+     */
+    private void move(int id, Direction direction, boolean grew) {
+        ArrayDeque<Integer> body = bodies.get(id);
+        int head = body.peekFirst();
+        if (!grew) {
+            int tail = body.pollLast();
+            if (tail >= 0 && owners.get(tail) == id) {
+                owners.remove(tail);
+            }
+        }
+        int x = head % columns + direction.getDx();
+        int y = head / columns + direction.getDy();
+        if (x < 0 || x >= columns || y < 0 || y >= rows) {
+            body.addFirst(-1); // Bateu na parede; a remoção vem em seguida
+            return;
+        }
+        int cell = y * columns + x;
+        body.addFirst(cell);
+        if (owners.get(cell) == CellMap.NONE) {
+            owners.put(cell, id);
+        }
+    }
+    
+    private void spawn(int id, int head) {
+        ArrayDeque<Integer> body = new ArrayDeque<>();
+        for (int i = 0; i < 3; i++) {
+            body.addLast(head - i);
+            owners.put(head - i, id);
+        }
+        setBody(id, body);
+    }
+    
+    private void remove(int id) {
+        for (int cell : bodies.get(id)) {
+            if (cell >= 0 && owners.get(cell) == id) {
+                owners.remove(cell);
+            }
+        }
+        bodies.set(id, null);
+        aliveCount--;
+    }
+    
+    private void setBody(int id, ArrayDeque<Integer> body) {
+        while (bodies.size() <= id) {
+            bodies.add(null);
+        }
+        bodies.set(id, body);
+        aliveCount++;
+    }
+    
+    /**
+     * Retorna o dono de uma célula.
+     * 
+     * @param x Coluna
+     * @param y Linha
+     * @return Identificador da cobra que ocupa a célula, ou -1 se estiver livre
+     */
+    public int getOwner(int x, int y) {
+        if (x < 0 || x >= columns || y < 0 || y >= rows) {
+            return -1;
+        }
+        return owners.get(y * columns + x);
+    }
+    
+    /**
+     * Verifica se há comida em uma célula.
+     * 
+     * @param x Coluna
+     * @param y Linha
+     * @return true se há comida na célula, false caso contrário
+     */
+    public boolean isFood(int x, int y) {
+        if (x < 0 || x >= columns || y < 0 || y >= rows) {
+            return false;
+        }
+        return foods.get(y * columns + x) != CellMap.NONE;
+    }
+    
+    /**
+     * Verifica se uma cobra está viva.
+     * 
+     * @param id Identificador da cobra
+     * @return true se a cobra está viva, false caso contrário
+     */
+    public boolean isAlive(int id) {
+        return id >= 0 && id < bodies.size() && bodies.get(id) != null;
+    }
+    
+    /**
+     * Retorna o tamanho de uma cobra viva.
+     * 
+     * @param id Identificador da cobra
+     * @return Número de segmentos
+     */
+    public int getSnakeLength(int id) {
+        return bodies.get(id).size();
+    }
+    
+    /**
+     * Retorna a célula da cabeça de uma cobra viva.
+     * 
+     * @param id Identificador da cobra
+     * @return Célula compactada (y * colunas + x) da cabeça
+     */
+    public int getHeadCell(int id) {
+        return bodies.get(id).peekFirst();
+    }
+    
+    /**
+     * @return Número de identificadores de cobra já vistos
+     */
+    public int getSnakeCount() {
+        return bodies.size();
+    }
+    
+    /**
+     * @return Número de cobras vivas
+     */
+    public int getAliveCount() {
+        return aliveCount;
+    }
+    
+    /**
+     * @return Número de comidas no tabuleiro
+     */
+    public int getFoodCount() {
+        return foods == null ? 0 : foods.size();
+    }
+    
+    /**
+     * @return Identificador da cobra do jogador, ou -1 se ainda não tem
+     */
+    public int getPlayerId() {
+        return playerId;
+    }
+    
+    /**
+     * @return Último passo aplicado
+     */
+    public long getTick() {
+        return tick;
+    }
+    
+    /**
+     * @return Número de colunas do tabuleiro
+     */
+    public int getColumns() {
+        return columns;
+    }
+    
+    /**
+     * @return Número de linhas do tabuleiro
+     */
+    public int getRows() {
+        return rows;
+    }
+}
\ No newline at end of file
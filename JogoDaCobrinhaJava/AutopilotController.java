@@ -0,0 +1,890 @@
+import java.util.Arrays;
+
+/**
+ * Piloto automático que planeja o caminho até a comida.
+ * 
+ * A cada passo procura, com A* e distância de Manhattan, o caminho mais curto
+ * da cabeça até a comida. Os segmentos do corpo são obstáculos só até o
+ * momento em que a cauda os libera: o segmento i (0 é a cabeça) de uma cobra
+ * com n segmentos sai do tabuleiro no movimento n - i (um a mais se a cobra
+ * acabou de comer). Antes de seguir o caminho, uma busca em largura parte da
+ * posição final da cobra virtual que o percorreu e verifica se ela ainda
+ * alcança o próprio corpo depois que ele é liberado, ou seja, se pode seguir a
+ * cauda para sempre. Sem caminho seguro até a comida, escolhe o movimento
+ * seguro que demora mais para encostar no corpo (segue a cauda pelo caminho
+ * mais longo) e, sem nenhum movimento seguro, o que deixa a maior região livre.
+ * A verificação simula o crescimento: se a continuação passa pela comida, a
+ * cauda fica parada um passo, e só aceita o caminho com {@value #SLACK} passos
+ * de folga, já que a próxima comida pode nascer em qualquer lugar.
+ * 
+ * Com metade do tabuleiro ocupada, ou depois de columns * rows passos sem
+ * comer (também em tabuleiros maiores que a janela), passa ao modo ciclo: a
+ * cobra segue um ciclo hamiltoniano do tabuleiro, o que garante que ela nunca
+ * colide e que passa por todas as células, então sempre alcança a comida. O
+ * ciclo tem 16 variantes (transposto, espelhado e invertido); é escolhida uma
+ * em que o corpo já esteja em ordem ao longo dele e, se nenhuma serve, a cobra
+ * entra no ciclo quando todo o percurso até lá fica livre a tempo, ou se
+ * aproxima dele pelo passo seguro que menos avança. Com a cobra curta, pega
+ * atalhos que não passam da comida nem chegam perto da cauda. Se ainda assim
+ * ficar 2 * columns * rows passos sem comer, abandona o ciclo e volta à busca
+ * comum até comer de novo.
+ * 
+ * Com colunas e linhas ímpares não existe ciclo por todas as células: o canto
+ * que sobra divide a posição do vizinho na diagonal e só é visitado quando tem
+ * comida. Como vencer exige entrar na última célula livre logo depois de comer
+ * a penúltima comida, nesses tabuleiros a vitória depende de onde ela nasce; se
+ * não der, a cobra come a última comida e a partida termina com o tabuleiro
+ * cheio, em vez de girar para sempre.
+ * 
+ * As buscas usam só vetores primitivos alocados uma vez: marcas de geração no
+ * lugar de limpar os vetores, uma fila circular de células e um heap binário
+ * de {@code long}. O índice de cada segmento vem de um {@link CellMap} com o
+ * número do movimento em que a célula virou cabeça, atualizado em O(1) por
+ * passo. Em tabuleiros grandes as buscas ficam em uma janela de no máximo
+ * {@value #MAX_WINDOW}x{@value #MAX_WINDOW} células centrada na cabeça, e
+ * chegar à borda da janela conta como saída segura; assim o custo de uma
+ * decisão não depende do tamanho do tabuleiro nem do comprimento da cobra.
+ * 
+ * Guarda estado entre os passos, então cada partida precisa da sua instância.
+ */
+public class AutopilotController implements SnakeController {
+    /** Lado máximo, em células, da janela de busca. */
+    public static final int MAX_WINDOW = 512;
+    
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int FIELD_MASK = 0xFFFFF; // 20 bits por campo na chave do heap
+    private static final int CYCLE_FILL = 2; // Entra no modo ciclo com 1/CYCLE_FILL do tabuleiro ocupado
+    private static final int SLACK = 4; // Passos de folga exigidos ao contato com o corpo depois de comer
+    private static final int ENTRY_MARGIN = 6; // Passos de folga exigidos ao entrar no ciclo
+    private static final int CYCLE_MARGIN = 3; // Células livres mantidas antes da cauda ao pegar atalhos
+    
+    // Janela de busca
+    private int columns;
+    private int rows;
+    private int windowX;
+    private int windowY;
+    private int windowWidth;
+    private int windowHeight;
+    private boolean cropped; // A janela não cobre o tabuleiro inteiro
+    
+    // Vetores das buscas, indexados pela célula local da janela
+    private int[] seen; // Geração em que dist foi definida
+    private int[] closed; // Geração em que a célula saiu do heap
+    private int[] dist; // Passos desde a cabeça
+    private byte[] from; // Direção do último passo até a célula
+    private int[] pathMark; // Geração do caminho que passa pela célula
+    private int[] pathIndex; // Índice do segmento virtual sobre a célula
+    private int[] trailMark; // Geração da continuação que leva à comida
+    private int[] trailIndex; // Índice do segmento virtual sobre a célula da continuação
+    private int[] queue; // Fila circular da busca em largura
+    private long[] heap = new long[1024];
+    private int heapSize;
+    private int generation;
+    private int pathGeneration;
+    private int trailGeneration;
+    
+    // Índice dos segmentos: célula -> número do movimento em que virou cabeça
+    private CellMap sequence;
+    private int headSequence;
+    private SnakeBody lastSnake;
+    private long lastTick;
+    private int lastSize;
+    private int lastTail;
+    private int hungryTicks; // Passos desde a última vez que a cobra cresceu
+    
+    // Modo ciclo: segue um ciclo hamiltoniano quando a cobra trava ou fica longa
+    private boolean cycleMode;
+    private boolean aligned; // O corpo está em ordem ao longo do ciclo
+    private int cycleVariant; // Bits: transposto, espelhado em x, espelhado em y, invertido
+    private int cycleLength; // Posições do ciclo (o canto que sobra nos lados ímpares divide uma)
+    private int cycleCorner; // Canto fora do ciclo nos lados ímpares, ou -1
+    private int cycleFood; // Comida para a qual a variante foi escolhida
+    
+    // Cobra no passo atual
+    private int length;
+    private int growth;
+    private int foodLocal; // Célula local da comida, ou -1 se ela está fora da janela
+    private int foodTime; // Movimento em que a última busca de contato chegou à comida, ou -1
+    
+    /**
+     * Escolhe a direção do próximo passo.
+     * 
+     * @param state Estado atual da partida
+     * @return Direção escolhida, ou null se nenhum movimento evita a colisão
+     */
+    @Override
+    public Direction nextDirection(GameState state) {
+        SnakeBody snake = state.getSnake();
+        FoodSpawner food = state.getFood();
+        if (snake.getCell(0) < 0) {
+            return null;
+        }
+        prepare(snake);
+        syncSegments(snake, state.getTick());
+        length = snake.getSize();
+        growth = snake.isGrowing() ? 1 : 0;
+        
+        int head = toLocal(snake.getHeadX(), snake.getHeadY());
+        foodLocal = food.getX() >= 0 && isInWindow(food.getX(), food.getY()) ? toLocal(food.getX(), food.getY()) : -1;
+        int cells = columns * rows;
+        if (!cycleMode && cycleLength > 0 && ((!cropped && CYCLE_FILL * length >= cells) || hungryTicks >= cells)) {
+            cycleMode = true;
+            aligned = false;
+        }
+        int foodCell = food.getX() >= 0 ? food.getY() * columns + food.getX() : -1;
+        if (cycleMode && (!aligned || (foodCell != cycleFood && 2 * length < cells))) {
+            // Comida nova: entre as variantes em que o corpo está em ordem, a que a deixa mais perto
+            aligned = selectCycle(snake, foodCell);
+            cycleFood = foodCell;
+        }
+        if (cycleMode && aligned && hungryTicks < 2 * cells) {
+            Direction direction = followCycle(head);
+            if (direction != null) {
+                return direction;
+            }
+        }
+        if (cycleMode && !aligned) {
+            Direction direction = enterCycle(snake, head, foodCell);
+            if (direction != null) {
+                return direction;
+            }
+        }
+        boolean stuck = hungryTicks >= 2 * cells;
+        if (cycleMode && !stuck && (2 * length >= cells || hungryTicks >= cells)) {
+            // Cobra longa ou travada: volta ao ciclo antes de buscar a comida
+            Direction direction = approachCycle(snake, head);
+            if (direction != null) {
+                return direction;
+            }
+        }
+        if (food.getX() >= 0) {
+            // Comida fora da janela: mira a célula da janela mais próxima dela
+            int targetX = Math.max(windowX, Math.min(windowX + windowWidth - 1, food.getX()));
+            int targetY = Math.max(windowY, Math.min(windowY + windowHeight - 1, food.getY()));
+            boolean eats = targetX == food.getX() && targetY == food.getY();
+            int target = toLocal(targetX, targetY);
+            int steps = findPath(head, target);
+            if (steps > 0) {
+                Direction first = markPath(head, target);
+                if (contactTime(target, steps, eats, SLACK) >= 0) {
+                    return first;
+                }
+            }
+        }
+        
+        if (cycleMode && !stuck) {
+            Direction direction = approachCycle(snake, head);
+            if (direction != null) {
+                return direction;
+            }
+        }
+        
+        // Sem caminho seguro até a comida: segue a cauda pelo caminho mais longo
+        Direction best = null;
+        int bestContact = -1;
+        for (Direction direction : DIRECTIONS) {
+            int next = neighbour(head, direction);
+            if (direction.isOpposite(snake.getDirection()) || next < 0 || !isPassable(next, 1)) {
+                continue;
+            }
+            pathGeneration = nextGeneration();
+            pathMark[next] = pathGeneration;
+            pathIndex[next] = 0;
+            boolean eats = next == foodLocal;
+            int contact = contactTime(next, 1, eats, 0);
+            if (contact > bestContact) {
+                bestContact = contact;
+                best = direction;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        
+        // Nenhum movimento seguro: adia a colisão indo para a maior região livre
+        int bestArea = -1;
+        for (Direction direction : DIRECTIONS) {
+            int next = neighbour(head, direction);
+            if (direction.isOpposite(snake.getDirection()) || next < 0 || !isPassable(next, 1)) {
+                continue;
+            }
+            int area = floodArea(next);
+            if (area > bestArea) {
+                bestArea = area;
+                best = direction;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Escolhe o passo no modo ciclo com o corpo em ordem ao longo do ciclo.
+     * Nesse caso a parte do ciclo entre a cabeça e a cauda está livre; o passo
+     * segue o ciclo ou pula adiante (atalho) sem passar da comida nem chegar
+     * perto da cauda, e o corpo continua em ordem.
+     * 
+     * @return Direção escolhida, ou null se a cauda está colada na cabeça
+     */
+    private Direction followCycle(int head) {
+        int cells = columns * rows;
+        int headCell = toGlobal(head);
+        int gap = cycleDistance(headCell, lastTail);
+        int foodCell = foodLocal >= 0 ? toGlobal(foodLocal) : -1;
+        int food = foodCell >= 0 ? cycleDistance(headCell, foodCell) : cycleLength;
+        boolean corner = foodCell >= 0 && foodCell == cycleCorner;
+        if (corner && food == 0) {
+            food = cycleLength; // A cabeça está na célula que divide a posição com o canto
+        }
+        // Atalhos só com a cobra curta e folga para crescer antes de alcançar a cauda
+        int reach = 2 * length < cells ? Math.max(1, gap - growth - CYCLE_MARGIN) : 1;
+        // O canto fora do ciclo é um desvio que deixa um buraco: só com folga, ou para destravar
+        boolean detour = gap - growth - CYCLE_MARGIN >= 2 || hungryTicks >= cells;
+        if (food < gap && !corner && 2 * length < cells) {
+            Direction planned = planShortcut(head, foodLocal, food);
+            if (planned != null && cycleDistance(headCell, toGlobal(neighbour(head, planned))) <= reach) {
+                return planned;
+            }
+        }
+        Direction best = null;
+        int bestSkip = 0;
+        for (Direction direction : DIRECTIONS) {
+            int next = neighbour(head, direction);
+            if (next < 0 || !isPassable(next, 1)) {
+                continue;
+            }
+            int cell = toGlobal(next);
+            if (cell == foodCell && (length + growth == cells || length - growth == cells - 1)) {
+                // Comida na última célula livre: comer completa o tabuleiro ou, sem ciclo que passe
+                // por todas as células (lados ímpares), encerra a partida em vez de girar para sempre
+                return direction;
+            }
+            int skip = cycleDistance(headCell, cell);
+            if (skip == 0 || skip > reach || skip > gap || (skip == gap && (cell != lastTail || growth > 0))) {
+                continue;
+            }
+            if (cell == cycleCorner ? cell != foodCell || !detour
+                    : food < gap && (skip > food || (corner && skip == food))) {
+                continue;
+            }
+            if (skip > bestSkip || (skip == bestSkip && cell == foodCell)) {
+                bestSkip = skip;
+                best = direction;
+            }
+        }
+        if (best == null) {
+            aligned = false;
+        }
+        return best;
+    }
+    
+    /**
+     * Busca em largura do caminho mais curto até a comida que só avança no
+     * ciclo, sem passar dela. Com o corpo em ordem, todas as células desse
+     * caminho estão livres e o corpo continua em ordem ao segui-lo.
+     * 
+     * @return Direção do primeiro passo, ou null se não há caminho
+     */
+    private Direction planShortcut(int start, int target, int limit) {
+        int startCell = toGlobal(start);
+        int current = nextGeneration();
+        int head = 0;
+        int tail = 0;
+        seen[start] = current;
+        dist[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int local = queue[head++];
+            if (local == target) {
+                Direction first = null;
+                while (local != start) {
+                    first = DIRECTIONS[from[local]];
+                    local -= first.getDx() + first.getDy() * windowWidth;
+                }
+                return first;
+            }
+            for (Direction direction : DIRECTIONS) {
+                int next = neighbour(local, direction);
+                if (next < 0 || seen[next] == current) {
+                    continue;
+                }
+                int position = cycleDistance(startCell, toGlobal(next));
+                if (position > dist[local] && position <= limit) {
+                    seen[next] = current;
+                    dist[next] = position;
+                    from[next] = (byte) direction.ordinal();
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Leva a cobra para o ciclo: procura uma variante em que, seguindo o
+     * ciclo a partir da cabeça, cada célula já foi liberada pela cauda
+     * {@value #CYCLE_MARGIN} passos antes de a cabeça chegar (folga para
+     * crescer). Seguindo o ciclo por um comprimento da cobra, o corpo fica em
+     * ordem. A variante atual é tentada primeiro, para a cobra não trocar de
+     * ciclo no meio do caminho.
+     * 
+     * @return Direção do passo no ciclo, ou null se nenhuma variante é segura
+     */
+    private Direction enterCycle(SnakeBody snake, int head, int foodCell) {
+        int current = cycleVariant;
+        for (int i = 0; i < 16; i++) {
+            if (!setCycleVariant((current + i) % 16)) {
+                continue;
+            }
+            Direction first = cycleStep(toGlobal(head));
+            if (first.isOpposite(snake.getDirection())) {
+                continue;
+            }
+            int cell = toGlobal(head);
+            int delay = ENTRY_MARGIN;
+            boolean free = true;
+            for (int time = 1; time <= length + delay && free; time++) {
+                Direction step = cycleStep(cell);
+                cell += step.getDx() + step.getDy() * columns;
+                int x = cell % columns;
+                int y = cell / columns;
+                free = !isInWindow(x, y) || isPassable(toLocal(x, y), time - delay);
+                if (cell == foodCell) {
+                    // Ao comer no caminho a cauda fica parada um passo
+                    delay++;
+                }
+            }
+            if (free) {
+                return first;
+            }
+        }
+        setCycleVariant(current);
+        return null;
+    }
+    
+    /**
+     * Retorna a direção que segue o ciclo a partir de uma célula.
+     */
+    private Direction cycleStep(int cell) {
+        int next = (cycleOrder(cell) + 1) % cycleLength;
+        int x = cell % columns;
+        int y = cell / columns;
+        for (Direction direction : DIRECTIONS) {
+            int nx = x + direction.getDx();
+            int ny = y + direction.getDy();
+            int neighbour = ny * columns + nx;
+            if (nx >= 0 && nx < columns && ny >= 0 && ny < rows && neighbour != cycleCorner
+                    && cycleOrder(neighbour) == next) {
+                return direction;
+            }
+        }
+        throw new IllegalStateException("Célula fora do ciclo: " + cell);
+    }
+    
+    /**
+     * Escolhe o passo no modo ciclo com o corpo fora de ordem: entre os passos
+     * seguros, o que menos avança no ciclo, até que o corpo entre em ordem.
+     * 
+     * @return Direção escolhida, ou null se nenhum passo é seguro
+     */
+    private Direction approachCycle(SnakeBody snake, int head) {
+        int headCell = toGlobal(head);
+        Direction best = null;
+        int bestSkip = cycleLength;
+        for (Direction direction : DIRECTIONS) {
+            int next = neighbour(head, direction);
+            if (next < 0 || direction.isOpposite(snake.getDirection()) || !isPassable(next, 1)) {
+                continue;
+            }
+            int skip = cycleDistance(headCell, toGlobal(next));
+            if (skip >= bestSkip) {
+                continue;
+            }
+            pathGeneration = nextGeneration();
+            pathMark[next] = pathGeneration;
+            pathIndex[next] = 0;
+            boolean eats = next == foodLocal;
+            if (contactTime(next, 1, eats, eats ? SLACK : 0) >= 0) {
+                bestSkip = skip;
+                best = direction;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Procura a variante do ciclo (transposta, espelhada ou invertida) em que
+     * o corpo esteja em ordem e a comida fique mais perto à frente da cabeça.
+     * 
+     * @return true se alguma variante deixa o corpo em ordem
+     */
+    private boolean selectCycle(SnakeBody snake, int foodCell) {
+        int headCell = snake.getCell(0);
+        int current = cycleVariant;
+        int best = -1;
+        long bestDistance = Long.MAX_VALUE;
+        for (int variant = 0; variant < 16; variant++) {
+            if (!setCycleVariant(variant) || !isAligned(snake)) {
+                continue;
+            }
+            long distance = 0;
+            if (foodCell >= 0) {
+                distance = cycleDistance(headCell, foodCell);
+                if (distance >= cycleDistance(headCell, lastTail)) {
+                    distance += cycleLength; // Comida atrás da cauda: só na volta seguinte
+                }
+            }
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = variant;
+            }
+        }
+        return setCycleVariant(best >= 0 ? best : current) && best >= 0;
+    }
+    
+    /**
+     * Ativa uma variante do ciclo.
+     * 
+     * @return false se a variante não existe neste tabuleiro
+     */
+    private boolean setCycleVariant(int variant) {
+        int height = (variant & 1) != 0 ? columns : rows;
+        int width = (variant & 1) != 0 ? rows : columns;
+        if (height % 2 != 0 && width % 2 == 0) {
+            return false;
+        }
+        cycleVariant = variant;
+        cycleCorner = -1;
+        if (height % 2 != 0) {
+            int a = (variant & 2) != 0 ? 0 : width - 1;
+            int b = (variant & 4) != 0 ? 0 : height - 1;
+            cycleCorner = (variant & 1) != 0 ? a * columns + b : b * columns + a;
+        }
+        return true;
+    }
+    
+    /**
+     * Verifica se os segmentos, da cauda até a cabeça, avançam no ciclo sem
+     * completar uma volta.
+     */
+    private boolean isAligned(SnakeBody snake) {
+        long total = 0;
+        for (int i = length - 1; i > 0; i--) {
+            total += cycleDistance(snake.getCell(i), snake.getCell(i - 1));
+        }
+        return total < cycleLength;
+    }
+    
+    /**
+     * Passos ao longo do ciclo de uma célula do tabuleiro até outra.
+     */
+    private int cycleDistance(int from, int to) {
+        return (cycleOrder(to) - cycleOrder(from) + cycleLength) % cycleLength;
+    }
+    
+    /**
+     * Posição da célula do tabuleiro no ciclo. O ciclo percorre a primeira
+     * linha para a direita, desce em zigue-zague pelas colunas 1 em diante e
+     * volta pela coluna 0, o que pede um número par de linhas (ou de colunas,
+     * na variante transposta). Com os dois lados ímpares, as duas últimas
+     * linhas são percorridas em pares de colunas que descem e sobem, e o canto
+     * que sobra divide a posição com a célula vizinha ao par do canto, de modo
+     * que a cobra passe por um ou pela outra.
+     */
+    private int cycleOrder(int cell) {
+        int a = cell % columns;
+        int b = cell / columns;
+        int width = columns;
+        int height = rows;
+        if ((cycleVariant & 1) != 0) {
+            a = cell / columns;
+            b = cell % columns;
+            width = rows;
+            height = columns;
+        }
+        if ((cycleVariant & 2) != 0) {
+            a = width - 1 - a;
+        }
+        if ((cycleVariant & 4) != 0) {
+            b = height - 1 - b;
+        }
+        int zigzag = height % 2 == 0 ? height : height - 2; // Linhas do zigue-zague simples
+        int pairs = height % 2 == 0 ? 0 : 2 * width - 1; // Células das duas últimas linhas
+        int order;
+        if (b == 0) {
+            order = a;
+        } else if (b >= zigzag) {
+            int base = width + (zigzag - 1) * (width - 1);
+            if (a == width - 1) {
+                order = base + (b == zigzag ? 0 : 1);
+            } else if ((width - 2 - a) % 2 == 0) {
+                order = base + 2 * (width - 2 - a) + (b == zigzag ? 1 : 2);
+            } else {
+                order = base + 2 * (width - 3 - a) + (b == zigzag ? 4 : 3);
+            }
+        } else if (a == 0) {
+            order = width + (zigzag - 1) * (width - 1) + pairs + zigzag - 1 - b;
+        } else {
+            int base = width + (b - 1) * (width - 1);
+            order = b % 2 == 1 ? base + width - 1 - a : base + a - 1;
+        }
+        return (cycleVariant & 8) != 0 ? (cycleLength - order) % cycleLength : order;
+    }
+    
+    /**
+     * Posiciona a janela de busca na cabeça e aloca os vetores na primeira
+     * vez (ou quando o tabuleiro muda).
+     */
+    private void prepare(SnakeBody snake) {
+        if (snake.getColumns() != columns || snake.getRows() != rows || seen == null) {
+            columns = snake.getColumns();
+            rows = snake.getRows();
+            windowWidth = Math.min(columns, MAX_WINDOW);
+            windowHeight = Math.min(rows, MAX_WINDOW);
+            cropped = windowWidth < columns || windowHeight < rows;
+            // Tabuleiro de uma linha ou coluna não tem ciclo
+            cycleLength = columns < 2 || rows < 2 ? 0 : columns * rows - (columns % 2 != 0 && rows % 2 != 0 ? 1 : 0);
+            int cells = windowWidth * windowHeight;
+            seen = new int[cells];
+            trailMark = new int[cells];
+            trailIndex = new int[cells];
+            closed = new int[cells];
+            dist = new int[cells];
+            from = new byte[cells];
+            pathMark = new int[cells];
+            pathIndex = new int[cells];
+            queue = new int[cells];
+            generation = 0;
+            // Mapa denso só quando o tabuleiro cabe na janela; senão acompanha o tamanho da cobra
+            sequence = cropped ? new CellMap() : new CellMap(columns * rows);
+            lastSnake = null;
+        }
+        windowX = Math.max(0, Math.min(columns - windowWidth, snake.getHeadX() - windowWidth / 2));
+        windowY = Math.max(0, Math.min(rows - windowHeight, snake.getHeadY() - windowHeight / 2));
+    }
+    
+    /**
+     * Atualiza o índice dos segmentos. Se a mesma cobra andou um passo desde
+     * a última chamada, basta tirar a cauda antiga (quando não cresceu) e pôr
+     * a cabeça nova; caso contrário o índice é refeito a partir do corpo.
+     */
+    private void syncSegments(SnakeBody snake, long tick) {
+        int size = snake.getSize();
+        if (snake == lastSnake && tick == lastTick) {
+            return;
+        }
+        if (snake == lastSnake && tick == lastTick + 1 && (size == lastSize || size == lastSize + 1)
+                && headSequence < Integer.MAX_VALUE) {
+            if (size == lastSize) {
+                sequence.remove(lastTail);
+                hungryTicks++;
+            } else {
+                hungryTicks = 0;
+            }
+            sequence.put(snake.getCell(0), ++headSequence);
+        } else {
+            sequence.clear();
+            headSequence = size;
+            hungryTicks = 0;
+            cycleMode = false;
+            for (int i = size - 1; i >= 0; i--) {
+                int cell = snake.getCell(i);
+                if (cell >= 0) {
+                    sequence.put(cell, headSequence - i);
+                }
+            }
+        }
+        lastSnake = snake;
+        lastTick = tick;
+        lastSize = size;
+        lastTail = snake.getCell(size - 1);
+    }
+    
+    /**
+     * Retorna o índice do segmento sobre uma célula local.
+     * 
+     * @return Índice do segmento (0 é a cabeça), ou -1 se a célula está livre
+     */
+    private int segmentAt(int local) {
+        int value = sequence.get(toGlobal(local));
+        return value == CellMap.NONE ? -1 : headSequence - value;
+    }
+    
+    /**
+     * Verifica se a cabeça pode entrar na célula no movimento informado,
+     * isto é, se a célula está livre ou a cauda já passou por ela.
+     */
+    private boolean isPassable(int local, int time) {
+        int segment = segmentAt(local);
+        return segment < 0 || time >= length - segment + growth;
+    }
+    
+    /**
+     * Busca A* da cabeça até o alvo, com obstáculos que dependem do tempo.
+     * 
+     * @return Número de passos do caminho, ou -1 se o alvo é inalcançável
+     */
+    private int findPath(int start, int target) {
+        int current = nextGeneration();
+        int targetX = target % windowWidth;
+        int targetY = target / windowWidth;
+        heapSize = 0;
+        seen[start] = current;
+        dist[start] = 0;
+        push(start, 0, 0);
+        
+        while (heapSize > 0) {
+            long key = pop();
+            int local = (int) (key & FIELD_MASK);
+            int steps = FIELD_MASK - (int) ((key >>> 20) & FIELD_MASK);
+            if (closed[local] == current || steps != dist[local]) {
+                continue; // Entrada obsoleta
+            }
+            closed[local] = current;
+            if (local == target) {
+                return steps;
+            }
+            for (Direction direction : DIRECTIONS) {
+                int next = neighbour(local, direction);
+                if (next < 0 || closed[next] == current || (seen[next] == current && dist[next] <= steps + 1)
+                        || !isPassable(next, steps + 1)) {
+                    continue;
+                }
+                seen[next] = current;
+                dist[next] = steps + 1;
+                from[next] = (byte) direction.ordinal();
+                int estimate = Math.abs(next % windowWidth - targetX) + Math.abs(next / windowWidth - targetY);
+                push(next, steps + 1, steps + 1 + estimate);
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Marca as células do caminho encontrado por {@link #findPath} com o
+     * índice que terão na cobra virtual (0 no alvo).
+     * 
+     * @return Direção do primeiro passo
+     */
+    private Direction markPath(int start, int target) {
+        pathGeneration = generation;
+        Direction first = null;
+        int local = target;
+        int index = 0;
+        while (local != start) {
+            pathMark[local] = pathGeneration;
+            pathIndex[local] = index++;
+            first = DIRECTIONS[from[local]];
+            local -= first.getDx() + first.getDy() * windowWidth;
+        }
+        return first;
+    }
+    
+    /**
+     * Verifica se a cobra virtual que percorreu o caminho marcado ainda
+     * alcança o próprio corpo depois que ele é liberado pela cauda.
+     * 
+     * A continuação não pode passar pela comida sem crescer: primeiro procura
+     * uma saída que não a coma. Se só há saída passando por ela (um beco com
+     * a comida no fundo, por exemplo), a cobra virtual vai até a comida pelo
+     * caminho mais curto da busca, cresce ali, e a verificação é refeita a
+     * partir da comida, com esse trecho fazendo parte do corpo.
+     * 
+     * @param start Célula local da cabeça virtual (fim do caminho)
+     * @param steps Comprimento do caminho
+     * @param eats Se o fim do caminho é a comida (a cobra virtual vai crescer)
+     * @return Movimento em que a cabeça virtual alcança o corpo liberado (ou a
+     *         borda de uma janela menor que o tabuleiro), ou -1 se fica presa
+     */
+    private int contactTime(int start, int steps, boolean eats, int slack) {
+        int food = eats ? -1 : foodLocal;
+        int contact = searchContact(start, steps, eats, food, 0, slack);
+        if (contact >= 0 || food < 0 || foodTime < 0) {
+            return contact;
+        }
+        
+        // Só escapa comendo: marca o trecho até a comida como corpo da cobra virtual
+        int trail = foodTime;
+        trailGeneration = nextGeneration();
+        int local = food;
+        int index = 0;
+        while (local != start) {
+            trailMark[local] = trailGeneration;
+            trailIndex[local] = index++;
+            Direction direction = DIRECTIONS[from[local]];
+            local -= direction.getDx() + direction.getDy() * windowWidth;
+        }
+        contact = searchContact(food, steps + trail, true, -1, trail, slack);
+        return contact < 0 ? -1 : trail + contact;
+    }
+    
+    /**
+     * Busca em largura a partir da cabeça da cobra virtual, até encostar em
+     * um segmento já liberado pela cauda. Guarda em {@link #foodTime} o
+     * movimento em que a busca chegou à comida, que ela não atravessa.
+     * 
+     * @param start Célula local da cabeça virtual
+     * @param steps Comprimento total do caminho virtual até start
+     * @param eats Se a cobra virtual cresce ao chegar em start
+     * @param food Célula local da comida a evitar, ou -1
+     * @param trail Comprimento do trecho marcado com {@link #trailGeneration}
+     *              no fim do caminho (0 se não há)
+     * @return Movimento do contato, ou -1 se a cabeça virtual fica presa
+     */
+    private int searchContact(int start, int steps, boolean eats, int food, int trail, int slack) {
+        int current = nextGeneration();
+        int virtualLength = length + growth; // O crescimento pendente acontece no primeiro passo
+        int release = virtualLength + (eats ? 1 : 0) + (trail > 0 ? 1 : 0) + slack;
+        int head = 0;
+        int tail = 0;
+        seen[start] = current;
+        queue[tail++] = start;
+        foodTime = -1;
+        
+        for (int time = 1; head < tail; time++) {
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int local = queue[head++];
+                for (Direction direction : DIRECTIONS) {
+                    int next = neighbour(local, direction);
+                    if (next < 0) {
+                        if (cropped && isOnBoard(local, direction)) {
+                            return time;
+                        }
+                        continue;
+                    }
+                    if (seen[next] == current) {
+                        continue;
+                    }
+                    int index;
+                    if (trail > 0 && trailMark[next] == trailGeneration) {
+                        index = trailIndex[next];
+                    } else if (pathMark[next] == pathGeneration) {
+                        index = pathIndex[next] + trail;
+                    } else {
+                        int segment = segmentAt(next);
+                        index = segment >= 0 && segment <= virtualLength - 1 - steps ? steps + segment : -1;
+                    }
+                    if (index < 0) {
+                        seen[next] = current;
+                        from[next] = (byte) direction.ordinal();
+                        if (next == food) {
+                            foodTime = time; // Comer muda o tamanho: não segue por aqui
+                        } else {
+                            queue[tail++] = next;
+                        }
+                    } else if (time >= release - index) {
+                        return time;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Conta as células alcançáveis a partir de uma célula local.
+     */
+    private int floodArea(int start) {
+        int current = nextGeneration();
+        int head = 0;
+        int tail = 0;
+        seen[start] = current;
+        queue[tail++] = start;
+        for (int time = 2; head < tail; time++) {
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int local = queue[head++];
+                for (Direction direction : DIRECTIONS) {
+                    int next = neighbour(local, direction);
+                    if (next >= 0 && seen[next] != current && isPassable(next, time)) {
+                        seen[next] = current;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+    
+    private int nextGeneration() {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(trailMark, 0);
+            Arrays.fill(closed, 0);
+            Arrays.fill(pathMark, 0);
+            generation = 0;
+        }
+        return ++generation;
+    }
+    
+    private int toLocal(int x, int y) {
+        return (y - windowY) * windowWidth + (x - windowX);
+    }
+    
+    private int toGlobal(int local) {
+        return (windowY + local / windowWidth) * columns + windowX + local % windowWidth;
+    }
+    
+    /**
+     * Retorna a célula local vizinha, ou -1 se ela está fora da janela.
+     */
+    private int neighbour(int local, Direction direction) {
+        int x = local % windowWidth + direction.getDx();
+        int y = local / windowWidth + direction.getDy();
+        if (x < 0 || x >= windowWidth || y < 0 || y >= windowHeight) {
+            return -1;
+        }
+        return y * windowWidth + x;
+    }
+    
+    private boolean isInWindow(int x, int y) {
+        return x >= windowX && x < windowX + windowWidth && y >= windowY && y < windowY + windowHeight;
+    }
+    
+    private boolean isOnBoard(int local, Direction direction) {
+        int x = windowX + local % windowWidth + direction.getDx();
+        int y = windowY + local / windowWidth + direction.getDy();
+        return x >= 0 && x < columns && y >= 0 && y < rows;
+    }
+    
+    /**
+     * Insere no heap; a chave ordena por estimativa e, no empate, pelo maior
+     * número de passos (o nó mais perto do alvo).
+     */
+    private void push(int local, int steps, int estimate) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        long key = (long) estimate << 40 | (long) (FIELD_MASK - steps) << 20 | local;
+        int index = heapSize++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+    
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int index = 0;
+        int half = heapSize >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = last;
+        return top;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,195 @@
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Simulador em lote de partidas independentes, sem interface gráfica.
+ * 
+ * Cada partida usa um {@link GameEngine} próprio cuja comida é sorteada
+ * com a semente {@code baseSeed + índice}, então o resultado de cada
+ * partida depende só da sua semente, e não da ordem de execução nem do
+ * número de threads. As partidas são distribuídas em um {@link ForkJoinPool}.
+ */
+public class BatchSimulator {
+    private final int columns;
+    private final int rows;
+    private final long maxTicks;
+    private final ForkJoinPool pool;
+    
+    /**
+     * Construtor da classe BatchSimulator.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param maxTicks Limite de passos por partida (evita bots em ciclo infinito)
+     * @param parallelism Número de threads de simulação
+     */
+    public BatchSimulator(int columns, int rows, long maxTicks, int parallelism) {
+        this.columns = columns;
+        this.rows = rows;
+        this.maxTicks = maxTicks;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+    
+    /**
+     * Simula um lote de partidas.
+     * 
+     * @param games Número de partidas
+     * @param baseSeed Semente da primeira partida
+     * @param controllers Fornece um controlador para cada partida
+     * @return Resultado agregado do lote
+     */
+    public Result run(int games, long baseSeed, Supplier<SnakeController> controllers) {
+        int[] scores = new int[games];
+        long[] ticks = new long[games];
+        
+        long start = System.nanoTime();
+        try {
+            pool.submit(() -> IntStream.range(0, games).parallel().forEach(i -> {
+                GameEngine engine = new GameEngine(columns, rows, baseSeed + i);
+                SnakeController controller = controllers.get();
+                GameState state = engine.getState();
+                while (state.getStatus() == GameState.Status.RUNNING && state.getTick() < maxTicks) {
+                    engine.step(controller.nextDirection(state));
+                }
+                scores[i] = state.getScore();
+                ticks[i] = state.getTick();
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na simulação", e.getCause());
+        }
+        long elapsed = System.nanoTime() - start;
+        
+        return new Result(scores, ticks, elapsed);
+    }
+    
+    /**
+     * Encerra as threads de simulação.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+    
+    /**
+     * Resultado agregado de um lote de partidas.
+     */
+    public static class Result {
+        private final int[] scores;
+        private final long totalTicks;
+        private final long elapsedNanos;
+        
+        Result(int[] scores, long[] ticks, long elapsedNanos) {
+            this.scores = scores.clone();
+            Arrays.sort(this.scores);
+            this.totalTicks = Arrays.stream(ticks).sum();
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        /**
+         * Retorna o número de partidas simuladas.
+         * 
+         * @return Número de partidas
+         */
+        public int getGames() {
+            return scores.length;
+        }
+        
+        /**
+         * Retorna o total de passos simulados em todas as partidas.
+         * 
+         * @return Total de passos
+         */
+        public long getTotalTicks() {
+            return totalTicks;
+        }
+        
+        /**
+         * Retorna a vazão em partidas por segundo.
+         * 
+         * @return Partidas por segundo
+         */
+        public double getGamesPerSecond() {
+            return scores.length * 1e9 / elapsedNanos;
+        }
+        
+        /**
+         * Retorna a vazão em passos por segundo.
+         * 
+         * @return Passos por segundo
+         */
+        public double getTicksPerSecond() {
+            return totalTicks * 1e9 / elapsedNanos;
+        }
+        
+        /**
+         * Retorna a pontuação média.
+         * 
+         * @return Pontuação média
+         */
+        public double getMeanScore() {
+            return Arrays.stream(scores).average().orElse(0);
+        }
+        
+        /**
+         * Retorna um percentil da distribuição de pontuações.
+         * 
+         * @param percentile Percentil entre 0 e 100
+         * @return Pontuação no percentil
+         */
+        public int getScorePercentile(double percentile) {
+            if (scores.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * scores.length) - 1;
+            return scores[Math.max(0, Math.min(scores.length - 1, index))];
+        }
+        
+        /**
+         * Retorna um resumo do lote em texto.
+         * 
+         * @return Resumo com vazão e distribuição de pontuações
+         */
+        @Override
+        public String toString() {
+            return String.format("%d partidas, %d passos em %.1f ms (%.0f partidas/s, %.0f passos/s)%n"
+                    + "pontuação: min=%d p50=%d p90=%d p99=%d max=%d média=%.2f",
+                    getGames(), totalTicks, elapsedNanos / 1e6, getGamesPerSecond(), getTicksPerSecond(),
+                    getScorePercentile(0), getScorePercentile(50), getScorePercentile(90),
+                    getScorePercentile(99), getScorePercentile(100), getMeanScore());
+        }
+    }
+    
+    /**
+     * Executa um lote de partidas com o {@link GreedyController} ou, com o
+     * controlador "piloto", com um {@link AutopilotController} por partida.
+     * 
+     * @param args [partidas] [threads] [colunas] [linhas] [semente] [guloso|piloto]
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int columns = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 0L;
+        String kind = args.length > 5 ? args[5] : "guloso";
+        
+        Supplier<SnakeController> controllers;
+        if (kind.equals("piloto")) {
+            controllers = AutopilotController::new; // Guarda estado: uma instância por partida
+        } else if (kind.equals("guloso")) {
+            GreedyController controller = new GreedyController();
+            controllers = () -> controller;
+        } else {
+            throw new IllegalArgumentException("Controlador desconhecido: " + kind);
+        }
+        
+        BatchSimulator simulator = new BatchSimulator(columns, rows, 100L * columns * rows, threads);
+        System.out.println(simulator.run(games, seed, controllers));
+        simulator.shutdown();
+    }
+}
\ No newline at end of file
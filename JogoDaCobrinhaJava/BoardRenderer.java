@@ -0,0 +1,281 @@
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import javax.swing.JComponent;
+
+/**
+ * Renderizador do tabuleiro com buffer próprio e redesenho por regiões sujas.
+ * 
+ * O tabuleiro é montado em uma imagem cujos pixels ficam em um vetor
+ * ({@link DataBufferInt}). Cada célula recebe um tile pronto do
+ * {@link TileAtlas} (grade, comida, ou cabeça, corpo e cauda já virados para
+ * os vizinhos), copiado linha a linha, sem passar pelo Java2D. A cada passo
+ * do jogo só as células que mudaram (cabeça nova, cabeça anterior, cauda
+ * nova, cauda liberada e comida) são copiadas e marcadas para repintura, e
+ * cada quadro é uma única chamada a {@code drawImage}: o custo por quadro
+ * não depende do tamanho da cobra.
+ */
+public class BoardRenderer implements BoardView {
+    private static final int MAX_DIRTY_CELLS = 8;
+    
+    private final int width;
+    private final int unitSize;
+    private final int columns;
+    private final BufferedImage frame; // Buffer com o tabuleiro completo
+    private final int[] pixels; // Pixels do buffer
+    private final int[] emptyBoard; // Pixels do tabuleiro vazio, montado uma vez
+    private final byte[] tiles; // Tile desenhado em cada célula
+    private final int[] dirtyCells = new int[MAX_DIRTY_CELLS];
+    private int dirtyCount;
+    private TileAtlas atlas;
+    private Snake snake;
+    private Food food;
+    private int lastHead;
+    private int lastTail;
+    private int previousHead; // Cabeça no passo anterior, para a interpolação
+    private int previousTail; // Cauda no passo anterior, para a interpolação
+    private int eatenFood = -1; // Célula da comida comida no último passo
+    private int lastFood;
+    
+    /**
+     * Construtor da classe BoardRenderer.
+     * 
+     * @param width Largura do tabuleiro em pixels
+     * @param height Altura do tabuleiro em pixels
+     * @param unitSize Tamanho de cada unidade do jogo
+     */
+    public BoardRenderer(int width, int height, int unitSize) {
+        this.width = width;
+        this.unitSize = unitSize;
+        this.columns = width / unitSize;
+        this.frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+        this.emptyBoard = new int[pixels.length];
+        this.tiles = new byte[columns * (height / unitSize)];
+    }
+    
+    /**
+     * Redesenha o tabuleiro inteiro para uma nova partida.
+     * 
+     * @param snake Cobra a ser desenhada
+     * @param food Comida a ser desenhada
+     */
+    @Override
+    public void reset(Snake snake, Food food) {
+        this.snake = snake;
+        this.food = food;
+        if (atlas == null) {
+            // Os tiles não mudam entre partidas: são renderizados uma vez
+            atlas = new TileAtlas(unitSize, snake, food);
+            for (int cell = 0; cell < tiles.length; cell++) {
+                atlas.blit(emptyBoard, width, (cell % columns) * unitSize, (cell / columns) * unitSize, TileAtlas.EMPTY);
+            }
+        }
+        System.arraycopy(emptyBoard, 0, pixels, 0, pixels.length);
+        Arrays.fill(tiles, (byte) TileAtlas.EMPTY);
+        
+        lastFood = foodCell();
+        if (lastFood >= 0) {
+            setTile(lastFood, TileAtlas.FOOD);
+        }
+        SnakeBody body = snake.getBody();
+        for (int i = body.getSize() - 1; i >= 0; i--) {
+            drawSegment(body, i); // Da cauda para a cabeça, que fica por cima
+        }
+        
+        lastHead = body.getCell(0);
+        lastTail = body.getCell(body.getSize() - 1);
+        previousHead = lastHead;
+        previousTail = lastTail;
+        eatenFood = -1;
+        dirtyCount = 0;
+    }
+    
+    /**
+     * Atualiza no buffer apenas as células que mudaram desde o último passo.
+     * Deve ser chamado uma vez após cada passo do motor do jogo.
+     */
+    @Override
+    public void update() {
+        SnakeBody body = snake.getBody();
+        int size = body.getSize();
+        int head = body.getCell(0);
+        int tail = body.getCell(size - 1);
+        
+        // Cauda liberada volta a mostrar a grade
+        if (lastTail != tail && lastTail >= 0 && !isOccupied(body, lastTail)) {
+            setTile(lastTail, TileAtlas.EMPTY);
+        }
+        
+        // Comida: a antiga foi comida pela cabeça, a nova ocupa uma célula livre
+        int foodCell = foodCell();
+        eatenFood = -1;
+        if (foodCell != lastFood) {
+            eatenFood = lastFood;
+            if (lastFood >= 0 && !isOccupied(body, lastFood)) {
+                setTile(lastFood, TileAtlas.EMPTY);
+            }
+            if (foodCell >= 0) {
+                setTile(foodCell, TileAtlas.FOOD);
+            }
+            lastFood = foodCell;
+        }
+        
+        // A cauda nova era corpo e a cabeça anterior passa a ser corpo
+        if (lastTail != tail) {
+            drawSegment(body, size - 1);
+        }
+        if (lastHead != head && size > 1) {
+            drawSegment(body, 1);
+        }
+        drawSegment(body, 0);
+        
+        previousHead = lastHead;
+        previousTail = lastTail;
+        lastHead = head;
+        lastTail = tail;
+    }
+    
+    private int foodCell() {
+        int x = food.getPosition().x;
+        int y = food.getPosition().y;
+        if (x < 0 || y < 0) {
+            return -1;
+        }
+        return (y / unitSize) * columns + x / unitSize;
+    }
+    
+    private boolean isOccupied(SnakeBody body, int cell) {
+        return body.isOccupied(cell % columns, cell / columns);
+    }
+    
+    /**
+     * Copia para a célula de um segmento o tile que combina com os segmentos vizinhos.
+     */
+    private void drawSegment(SnakeBody body, int index) {
+        int cell = body.getCell(index);
+        if (cell < 0) {
+            return; // Cabeça fora do tabuleiro depois de bater na parede
+        }
+        setTile(cell, segmentTile(body, index, cell));
+    }
+    
+    private int segmentTile(SnakeBody body, int index, int cell) {
+        int last = body.getSize() - 1;
+        int connections = 0;
+        if (index > 0) {
+            connections |= TileAtlas.connection(cell, body.getCell(index - 1), columns);
+        }
+        if (index < last) {
+            connections |= TileAtlas.connection(cell, body.getCell(index + 1), columns);
+        }
+        if (index == 0) {
+            return TileAtlas.head(connections);
+        }
+        return index == last ? TileAtlas.tail(connections) : TileAtlas.body(connections);
+    }
+    
+    private void setTile(int cell, int tile) {
+        tiles[cell] = (byte) tile;
+        atlas.blit(pixels, width, (cell % columns) * unitSize, (cell / columns) * unitSize, tile);
+        markDirty(cell);
+    }
+    
+    private void markDirty(int cell) {
+        if (dirtyCount < MAX_DIRTY_CELLS) {
+            dirtyCells[dirtyCount++] = cell;
+        }
+    }
+    
+    /**
+     * Solicita a repintura apenas das células alteradas desde a última chamada.
+     * 
+     * @param component Componente onde o tabuleiro é exibido
+     */
+    @Override
+    public void repaintDirty(JComponent component) {
+        for (int i = 0; i < dirtyCount; i++) {
+            int cell = dirtyCells[i];
+            component.repaint((cell % columns) * unitSize, (cell / columns) * unitSize, unitSize, unitSize);
+        }
+        dirtyCount = 0;
+    }
+    
+    /**
+     * Copia o buffer do tabuleiro para a tela. O recorte (clip) do Graphics
+     * limita a cópia às regiões sujas.
+     * 
+     * @param g Objeto Graphics para desenhar
+     */
+    @Override
+    public void paint(Graphics g) {
+        g.drawImage(frame, 0, 0, null);
+    }
+    
+    /**
+     * Copia o buffer do tabuleiro para a tela desenhando a cobra entre o
+     * passo anterior e o atual: a cabeça avança e a cauda recua uma fração
+     * da célula. As células da cabeça e da cauda são montadas no próprio
+     * buffer antes da cópia e restauradas depois, então o quadro continua
+     * sendo um único {@code drawImage} e o custo não depende do tamanho da cobra.
+     * 
+     * @param g Objeto Graphics para desenhar
+     * @param alpha Fração do passo já decorrida (0 = passo anterior, 1 = passo atual)
+     */
+    @Override
+    public void paintInterpolated(Graphics g, double alpha) {
+        if (alpha >= 1 || snake == null || previousHead == lastHead || previousHead < 0 || lastHead < 0) {
+            paint(g);
+            return;
+        }
+        SnakeBody body = snake.getBody();
+        
+        // A célula nova da cabeça volta a mostrar a grade até a cabeça chegar nela
+        blitCell(lastHead, eatenFood == lastHead ? TileAtlas.FOOD : TileAtlas.EMPTY);
+        
+        // A cauda só se move se a cobra não cresceu neste passo
+        boolean tailMoved = previousTail != lastTail && previousTail >= 0 && lastTail >= 0;
+        if (tailMoved) {
+            // A cauda atual ainda é corpo, ligado à cauda que está saindo
+            int last = body.getSize() - 1;
+            int connections = TileAtlas.connection(lastTail, previousTail, columns);
+            if (last > 0) {
+                connections |= TileAtlas.connection(lastTail, body.getCell(last - 1), columns);
+            }
+            blitCell(lastTail, TileAtlas.body(connections));
+            drawBetween(previousTail, lastTail, alpha, TileAtlas.tail(TileAtlas.connection(previousTail, lastTail, columns)));
+        }
+        drawBetween(previousHead, lastHead, alpha, TileAtlas.head(TileAtlas.connection(lastHead, previousHead, columns)));
+        
+        g.drawImage(frame, 0, 0, null);
+        
+        // Devolve ao buffer o passo atual
+        restoreCell(lastHead);
+        restoreCell(previousHead);
+        if (tailMoved) {
+            restoreCell(lastTail);
+            restoreCell(previousTail);
+        }
+    }
+    
+    private void blitCell(int cell, int tile) {
+        atlas.blit(pixels, width, (cell % columns) * unitSize, (cell / columns) * unitSize, tile);
+    }
+    
+    private void restoreCell(int cell) {
+        blitCell(cell, tiles[cell]);
+    }
+    
+    /**
+     * Desenha um tile entre duas células vizinhas.
+     */
+    private void drawBetween(int from, int to, double alpha, int tile) {
+        int fromX = (from % columns) * unitSize;
+        int fromY = (from / columns) * unitSize;
+        int toX = (to % columns) * unitSize;
+        int toY = (to / columns) * unitSize;
+        atlas.blitSprite(pixels, width, fromX + (int) Math.round((toX - fromX) * alpha),
+                fromY + (int) Math.round((toY - fromY) * alpha), tile);
+    }
+}
\ No newline at end of file
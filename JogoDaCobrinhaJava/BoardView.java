@@ -0,0 +1,63 @@
+import java.awt.Graphics;
+import javax.swing.JComponent;
+
+/**
+ * Desenho do tabuleiro no painel do jogo.
+ * 
+ * Tabuleiros que cabem na tela usam o {@link BoardRenderer}, que guarda o
+ * tabuleiro inteiro em um buffer. Tabuleiros maiores usam o
+ * {@link ViewportRenderer}, que mostra só a região em volta da cabeça.
+ */
+public interface BoardView {
+    /**
+     * Redesenha o tabuleiro inteiro para uma nova partida.
+     * 
+     * @param snake Cobra a ser desenhada
+     * @param food Comida a ser desenhada
+     */
+    void reset(Snake snake, Food food);
+    
+    /**
+     * Atualiza o desenho depois de um passo do motor do jogo.
+     */
+    void update();
+    
+    /**
+     * Solicita a repintura das regiões alteradas desde a última chamada.
+     * 
+     * @param component Componente onde o tabuleiro é exibido
+     */
+    void repaintDirty(JComponent component);
+    
+    /**
+     * Desenha o tabuleiro.
+     * 
+     * @param g Objeto Graphics para desenhar
+     */
+    void paint(Graphics g);
+    
+    /**
+     * Desenha o tabuleiro com a cobra entre o passo anterior e o atual.
+     * 
+     * @param g Objeto Graphics para desenhar
+     * @param alpha Fração do passo já decorrida (0 = passo anterior, 1 = passo atual)
+     */
+    void paintInterpolated(Graphics g, double alpha);
+    
+    /**
+     * Escolhe o renderizador adequado ao tamanho do tabuleiro.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param unitSize Tamanho de cada unidade do jogo
+     * @param viewWidth Largura da área visível em pixels
+     * @param viewHeight Altura da área visível em pixels
+     * @return Renderizador do tabuleiro
+     */
+    static BoardView create(int columns, int rows, int unitSize, int viewWidth, int viewHeight) {
+        if (columns * unitSize <= viewWidth && rows * unitSize <= viewHeight) {
+            return new BoardRenderer(columns * unitSize, rows * unitSize, unitSize);
+        }
+        return new ViewportRenderer(columns, rows, unitSize, viewWidth, viewHeight);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,194 @@
+import java.util.Arrays;
+
+/**
+ * Mapa de células do tabuleiro para valores inteiros não negativos (por
+ * exemplo, o dono de cada célula na arena).
+ * 
+ * Segue a mesma divisão do {@link CellSet}: até {@value CellSet#DENSE_LIMIT}
+ * células é um vetor indexado pela célula; acima disso é uma tabela de
+ * espalhamento com endereçamento aberto, cujo tamanho acompanha o número de
+ * células mapeadas. As duas formas custam O(1) por operação.
+ */
+public class CellMap {
+    /** Valor devolvido para células sem valor. */
+    public static final int NONE = -1;
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private final int[] values; // Valor por célula, ou null no modo esparso
+    private int[] keys; // Células da tabela de espalhamento (NONE = vaga)
+    private int[] entries; // Valores da tabela de espalhamento
+    private int mask;
+    private int shift; // 32 - log2(capacidade)
+    private int size;
+    
+    /**
+     * Construtor da classe CellMap para um mapa sempre esparso, com memória
+     * proporcional ao número de células mapeadas, qualquer que seja o tabuleiro.
+     */
+    public CellMap() {
+        this(Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Construtor da classe CellMap.
+     * 
+     * @param cells Número de células do tabuleiro
+     */
+    public CellMap(int cells) {
+        if (cells <= CellSet.DENSE_LIMIT) {
+            values = new int[cells];
+            Arrays.fill(values, NONE);
+        } else {
+            values = null;
+            keys = new int[INITIAL_CAPACITY];
+            entries = new int[INITIAL_CAPACITY];
+            Arrays.fill(keys, NONE);
+            mask = INITIAL_CAPACITY - 1;
+            shift = Integer.numberOfLeadingZeros(mask);
+        }
+    }
+    
+    /**
+     * Retorna o valor de uma célula.
+     * 
+     * @param cell Célula (não negativa)
+     * @return Valor da célula, ou {@link #NONE}
+     */
+    public int get(int cell) {
+        if (values != null) {
+            return values[cell];
+        }
+        int slot = slotOf(cell);
+        while (keys[slot] != NONE) {
+            if (keys[slot] == cell) {
+                return entries[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+    
+    /**
+     * Define o valor de uma célula.
+     * 
+     * @param cell Célula (não negativa)
+     * @param value Valor (não negativo)
+     * @return Valor anterior, ou {@link #NONE}
+     */
+    public int put(int cell, int value) {
+        if (values != null) {
+            int previous = values[cell];
+            values[cell] = value;
+            if (previous == NONE) {
+                size++;
+            }
+            return previous;
+        }
+        
+        int slot = slotOf(cell);
+        while (keys[slot] != NONE) {
+            if (keys[slot] == cell) {
+                int previous = entries[slot];
+                entries[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = cell;
+        entries[slot] = value;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return NONE;
+    }
+    
+    /**
+     * Remove o valor de uma célula.
+     * 
+     * @param cell Célula (não negativa)
+     * @return Valor removido, ou {@link #NONE}
+     */
+    public int remove(int cell) {
+        if (values != null) {
+            int previous = values[cell];
+            if (previous != NONE) {
+                values[cell] = NONE;
+                size--;
+            }
+            return previous;
+        }
+        
+        int slot = slotOf(cell);
+        while (keys[slot] != cell) {
+            if (keys[slot] == NONE) {
+                return NONE;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int previous = entries[slot];
+        
+        // Puxa para trás as células seguintes do mesmo grupo, para não deixar lápides
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != NONE) {
+            int home = slotOf(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                entries[gap] = entries[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = NONE;
+        size--;
+        return previous;
+    }
+    
+    /**
+     * Remove todos os valores. No modo esparso a tabela volta ao tamanho inicial.
+     */
+    public void clear() {
+        if (values != null) {
+            Arrays.fill(values, NONE);
+        } else {
+            keys = new int[INITIAL_CAPACITY];
+            entries = new int[INITIAL_CAPACITY];
+            Arrays.fill(keys, NONE);
+            mask = INITIAL_CAPACITY - 1;
+            shift = Integer.numberOfLeadingZeros(mask);
+        }
+        size = 0;
+    }
+    
+    /**
+     * @return Número de células com valor
+     */
+    public int size() {
+        return size;
+    }
+    
+    private int slotOf(int cell) {
+        return (cell * 0x9E3779B9) >>> shift; // Espalhamento de Fibonacci: os bits altos do produto
+    }
+    
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldEntries = entries;
+        keys = new int[capacity];
+        entries = new int[capacity];
+        Arrays.fill(keys, NONE);
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != NONE) {
+                int slot = slotOf(oldKeys[i]);
+                while (keys[slot] != NONE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                entries[slot] = oldEntries[i];
+            }
+        }
+    }
+}
\ No newline at end of file
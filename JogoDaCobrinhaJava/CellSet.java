@@ -0,0 +1,178 @@
+import java.util.Arrays;
+
+/**
+ * Conjunto de células ocupadas do tabuleiro.
+ * 
+ * Em tabuleiros de até {@value #DENSE_LIMIT} células é um bitmap, com uma
+ * operação de bits por consulta. Acima disso (um tabuleiro de 10.000 x 10.000
+ * teria 12 MB de bitmap) é uma tabela de espalhamento com endereçamento
+ * aberto, cujo tamanho acompanha o número de células ocupadas e não a área
+ * do tabuleiro. As duas formas custam O(1) por operação.
+ */
+public class CellSet {
+    /** Maior tabuleiro (em células) guardado como bitmap. */
+    public static final int DENSE_LIMIT = 1 << 24;
+    
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private final long[] bits; // Bitmap, ou null no modo esparso
+    private int[] table; // Tabela de espalhamento, ou null no modo denso
+    private int mask;
+    private int shift; // 32 - log2(capacidade)
+    private int size;
+    
+    /**
+     * Construtor da classe CellSet para um conjunto sempre esparso, com
+     * memória proporcional ao número de células, qualquer que seja o
+     * tabuleiro. Serve para muitos conjuntos pequenos no mesmo tabuleiro,
+     * como as cobras da {@link Arena}.
+     */
+    public CellSet() {
+        this(Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Construtor da classe CellSet.
+     * 
+     * @param cells Número de células do tabuleiro
+     */
+    public CellSet(int cells) {
+        if (cells <= DENSE_LIMIT) {
+            bits = new long[(cells + 63) >>> 6];
+        } else {
+            bits = null;
+            table = new int[INITIAL_CAPACITY];
+            Arrays.fill(table, EMPTY);
+            mask = INITIAL_CAPACITY - 1;
+            shift = Integer.numberOfLeadingZeros(mask);
+        }
+    }
+    
+    /**
+     * Adiciona uma célula.
+     * 
+     * @param cell Célula (não negativa)
+     * @return true se a célula não estava no conjunto
+     */
+    public boolean add(int cell) {
+        if (bits != null) {
+            long bit = 1L << cell;
+            if ((bits[cell >>> 6] & bit) != 0) {
+                return false;
+            }
+            bits[cell >>> 6] |= bit;
+            size++;
+            return true;
+        }
+        
+        int slot = slotOf(cell);
+        while (table[slot] != EMPTY) {
+            if (table[slot] == cell) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = cell;
+        if (++size * 2 > table.length) {
+            resize(table.length * 2);
+        }
+        return true;
+    }
+    
+    /**
+     * Remove uma célula.
+     * 
+     * @param cell Célula (não negativa)
+     * @return true se a célula estava no conjunto
+     */
+    public boolean remove(int cell) {
+        if (bits != null) {
+            long bit = 1L << cell;
+            if ((bits[cell >>> 6] & bit) == 0) {
+                return false;
+            }
+            bits[cell >>> 6] &= ~bit;
+            size--;
+            return true;
+        }
+        
+        int slot = slotOf(cell);
+        while (table[slot] != cell) {
+            if (table[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        // Puxa para trás as células seguintes do mesmo grupo, para não deixar lápides
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (table[next] != EMPTY) {
+            int home = slotOf(table[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = table[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = EMPTY;
+        size--;
+        return true;
+    }
+    
+    /**
+     * Verifica se uma célula está no conjunto.
+     * 
+     * @param cell Célula (não negativa)
+     * @return true se a célula está no conjunto
+     */
+    public boolean contains(int cell) {
+        if (bits != null) {
+            return (bits[cell >>> 6] & (1L << cell)) != 0;
+        }
+        int slot = slotOf(cell);
+        while (table[slot] != EMPTY) {
+            if (table[slot] == cell) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+    
+    /**
+     * @return Número de células no conjunto
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * @return true se o conjunto é uma tabela de espalhamento (tabuleiro grande)
+     */
+    public boolean isSparse() {
+        return bits == null;
+    }
+    
+    private int slotOf(int cell) {
+        return (cell * 0x9E3779B9) >>> shift; // Espalhamento de Fibonacci: os bits altos do produto
+    }
+    
+    private void resize(int capacity) {
+        int[] old = table;
+        table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        for (int cell : old) {
+            if (cell != EMPTY) {
+                int slot = slotOf(cell);
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = cell;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+/**
+ * Níveis de dificuldade: a duração de cada passo do jogo conforme o tamanho
+ * da cobra.
+ * 
+ * O passo começa em {@code initialDelay} milissegundos e é multiplicado por
+ * {@code factor} a cada segmento além dos 3 iniciais, até o mínimo de
+ * {@code minimumDelay}: quanto maior a cobra, mais rápido o jogo.
+ */
+public enum Difficulty {
+    CLASSIC("Clássico", 100, 100, 1.0),
+    EASY("Fácil", 150, 90, 0.99),
+    NORMAL("Normal", 100, 50, 0.98),
+    HARD("Difícil", 80, 35, 0.97);
+    
+    private static final int INITIAL_SIZE = 3; // A cobra começa com 3 segmentos
+    
+    private final String label;
+    private final int initialDelay;
+    private final int minimumDelay;
+    private final double factor;
+    
+    Difficulty(String label, int initialDelay, int minimumDelay, double factor) {
+        this.label = label;
+        this.initialDelay = initialDelay;
+        this.minimumDelay = minimumDelay;
+        this.factor = factor;
+    }
+    
+    /**
+     * Retorna a duração de um passo com a cobra do tamanho informado.
+     * 
+     * @param snakeSize Número de segmentos da cobra
+     * @return Duração do passo, em milissegundos
+     */
+    public int delayFor(int snakeSize) {
+        int growth = Math.max(0, snakeSize - INITIAL_SIZE);
+        double delay = initialDelay * Math.pow(factor, growth);
+        return Math.max(minimumDelay, (int) Math.round(delay));
+    }
+    
+    /**
+     * Retorna a duração do primeiro passo de uma partida.
+     * 
+     * @return Duração do passo, em milissegundos
+     */
+    public int getInitialDelay() {
+        return initialDelay;
+    }
+    
+    /**
+     * Retorna o nome do nível para os menus.
+     * 
+     * @return Nome do nível
+     */
+    public String getLabel() {
+        return label;
+    }
+    
+    /**
+     * Lê um nível pelo nome da constante, sem diferenciar maiúsculas.
+     * 
+     * @param name Nome do nível (por exemplo "hard"), ou null
+     * @param fallback Nível usado se o nome for null ou desconhecido
+     * @return Nível lido
+     */
+    public static Difficulty parse(String name, Difficulty fallback) {
+        if (name != null) {
+            for (Difficulty difficulty : values()) {
+                if (difficulty.name().equalsIgnoreCase(name.trim())) {
+                    return difficulty;
+                }
+            }
+        }
+        return fallback;
+    }
+}
\ No newline at end of file
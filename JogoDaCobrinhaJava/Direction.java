@@ -2,5 +2,41 @@
  * Enum que representa as direções possíveis para o movimento da cobra.
  */
 public enum Direction {
-    UP, DOWN, LEFT, RIGHT
+    UP(0, -1), DOWN(0, 1), LEFT(-1, 0), RIGHT(1, 0);
+    
+    private final int dx;
+    private final int dy;
+    
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+    
+    /**
+     * Retorna o deslocamento horizontal, em células, de um passo nesta direção.
+     * 
+     * @return -1, 0 ou 1
+     */
+    public int getDx() {
+        return dx;
+    }
+    
+    /**
+     * Retorna o deslocamento vertical, em células, de um passo nesta direção.
+     * 
+     * @return -1, 0 ou 1
+     */
+    public int getDy() {
+        return dy;
+    }
+    
+    /**
+     * Verifica se a outra direção é a oposta desta (movimento de 180 graus).
+     * 
+     * @param other Outra direção
+     * @return true se as direções forem opostas, false caso contrário
+     */
+    public boolean isOpposite(Direction other) {
+        return dx == -other.dx && dy == -other.dy;
+    }
 }
\ No newline at end of file
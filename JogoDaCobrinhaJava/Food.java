@@ -5,14 +5,15 @@ import java.util.Random;
 
 /**
  * Classe que representa a comida no jogo da cobrinha.
+ * 
+ * O sorteio da posição fica em {@link FoodSpawner}; esta classe
+ * converte a célula do modelo para pixels e desenha a comida.
  */
 public class Food {
-    private Point position;
+    private final Point position;
     private final int UNIT_SIZE;
-    private final int GAME_UNITS_X;
-    private final int GAME_UNITS_Y;
     private final Color color;
-    private final Random random;
+    private final FoodSpawner spawner;
     
     /**
      * Construtor da classe Food.
@@ -22,21 +23,27 @@ public class Food {
      * @param height Altura do painel de jogo
      */
     public Food(int unitSize, int width, int height) {
+        this(unitSize, new FoodSpawner(width / unitSize, height / unitSize, new Random()));
+    }
+    
+    /**
+     * Construtor da classe Food a partir de um modelo existente.
+     * 
+     * @param unitSize Tamanho de cada unidade do jogo
+     * @param spawner Modelo da comida
+     */
+    public Food(int unitSize, FoodSpawner spawner) {
         this.UNIT_SIZE = unitSize;
-        this.GAME_UNITS_X = width / unitSize;
-        this.GAME_UNITS_Y = height / unitSize;
         this.color = Color.RED;
-        this.random = new Random();
+        this.spawner = spawner;
         this.position = new Point();
-        newFood(); // Gera a posição inicial da comida
     }
     
     /**
      * Gera uma nova posição aleatória para a comida.
      */
     public void newFood() {
-        position.x = random.nextInt(GAME_UNITS_X) * UNIT_SIZE;
-        position.y = random.nextInt(GAME_UNITS_Y) * UNIT_SIZE;
+        spawner.spawn();
     }
     
     /**
@@ -45,8 +52,19 @@ public class Food {
      * @param g Objeto Graphics para desenhar
      */
     public void draw(Graphics g) {
+        drawAt(g, spawner.getX() * UNIT_SIZE, spawner.getY() * UNIT_SIZE);
+    }
+    
+    /**
+     * Desenha a comida em uma posição qualquer, em pixels.
+     * 
+     * @param g Objeto Graphics para desenhar
+     * @param x Posição X da comida
+     * @param y Posição Y da comida
+     */
+    public void drawAt(Graphics g, int x, int y) {
         g.setColor(color);
-        g.fillOval(position.x, position.y, UNIT_SIZE, UNIT_SIZE);
+        g.fillOval(x, y, UNIT_SIZE, UNIT_SIZE);
     }
     
     /**
@@ -55,6 +73,8 @@ public class Food {
      * @return Posição da comida
      */
     public Point getPosition() {
+        position.x = spawner.getX() * UNIT_SIZE;
+        position.y = spawner.getY() * UNIT_SIZE;
         return position;
     }
 }
\ No newline at end of file
@@ -0,0 +1,307 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * Modelo da comida sem dependências de interface gráfica.
+ * 
+ * Mantém o conjunto de células livres do tabuleiro em um vetor com remoção
+ * por troca (swap-remove) e um índice de posição por célula, atualizados a
+ * cada movimento da cobra. Assim o sorteio de uma célula livre é uniforme,
+ * custa O(1) e a comida nunca aparece dentro da cobra. O gerador de números
+ * aleatórios é próprio, o que permite reproduzir uma partida pela semente.
+ * 
+ * Acima de {@value CellSet#DENSE_LIMIT} células os dois vetores ocupariam
+ * gigabytes, então o spawner guarda só a contagem de células ocupadas e
+ * sorteia células ao acaso até achar uma livre, consultando a ocupação. Com o
+ * tabuleiro quase todo livre, isso quase sempre acerta na primeira tentativa;
+ * depois de {@value #SPARSE_ATTEMPTS} erros, procura a próxima célula livre
+ * a partir da última sorteada.
+ */
+public class FoodSpawner implements SnakeBody.CellListener {
+    private static final int SPARSE_ATTEMPTS = 64;
+    
+    private final int columns;
+    private final int rows;
+    private final Random random;
+    private final IntPredicate occupied; // Consulta da ocupação no modo esparso, ou null
+    private int[] freeCells; // Células livres nas posições [0, freeCount), ou null se esparso
+    private final int[] freeIndex; // Posição de cada célula em freeCells, ou -1 se ocupada
+    private int freeCount;
+    private FrozenArray frozen; // Última vista congelada de freeCells (ver freeze), ou null
+    private int x;
+    private int y;
+    
+    /**
+     * Construtor da classe FoodSpawner para um tabuleiro vazio.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param random Gerador de números aleatórios
+     */
+    public FoodSpawner(int columns, int rows, Random random) {
+        this(columns, rows, random, (SnakeBody) null);
+    }
+    
+    /**
+     * Construtor da classe FoodSpawner que acompanha a ocupação de uma cobra.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param random Gerador de números aleatórios
+     * @param snake Cobra cujas células não podem receber comida, ou null
+     */
+    public FoodSpawner(int columns, int rows, Random random, SnakeBody snake) {
+        this(columns, rows, random, snake == null ? null : cell -> snake.isOccupied(cell % columns, cell / columns));
+        if (snake != null) {
+            occupyCells(snake);
+            snake.setCellListener(this);
+        }
+        spawn(); // Gera a posição inicial da comida
+    }
+    
+    /**
+     * Construtor da classe FoodSpawner para um tabuleiro vazio cuja ocupação
+     * é informada pelos eventos de {@link SnakeBody.CellListener}, vindos de
+     * uma ou mais cobras. Nenhuma comida é sorteada até a primeira chamada a
+     * {@link #spawn()}.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param random Gerador de números aleatórios
+     * @param occupied Diz se uma célula está ocupada; usado só em tabuleiros
+     *                 acima de {@value CellSet#DENSE_LIMIT} células, ou null se nada ocupa o tabuleiro
+     */
+    public FoodSpawner(int columns, int rows, Random random, IntPredicate occupied) {
+        this.columns = columns;
+        this.rows = rows;
+        this.random = random;
+        this.occupied = occupied;
+        int cells = columns * rows;
+        if (cells > CellSet.DENSE_LIMIT) {
+            this.freeCells = null;
+            this.freeIndex = null;
+        } else {
+            this.freeCells = new int[cells];
+            this.freeIndex = new int[cells];
+        }
+        freeAll();
+    }
+    
+    /**
+     * Recomeça a comida depois que a cobra acompanhada foi reiniciada com
+     * {@link SnakeBody#reset(int, int)}: todas as células voltam a ficar
+     * livres, menos as da cobra, e uma nova comida é sorteada. Com o gerador
+     * na mesma semente, o sorteio é igual ao de um FoodSpawner novo.
+     * 
+     * @param snake Cobra passada ao construtor
+     */
+    public void reset(SnakeBody snake) {
+        freeAll();
+        occupyCells(snake);
+        spawn();
+    }
+    
+    /**
+     * Marca todas as células como livres, na ordem do tabuleiro.
+     */
+    private void freeAll() {
+        x = -1;
+        y = -1;
+        freeCount = columns * rows;
+        if (freeCells != null) {
+            unfreeze();
+            for (int cell = 0; cell < freeCount; cell++) {
+                freeCells[cell] = cell;
+                freeIndex[cell] = cell;
+            }
+        }
+    }
+    
+    /**
+     * Tira do conjunto de células livres as células ocupadas pela cobra.
+     */
+    private void occupyCells(SnakeBody snake) {
+        for (int i = 0; i < snake.getSize(); i++) {
+            int cell = snake.getCell(i);
+            if (cell >= 0 && snake.isOccupied(cell % columns, cell / columns)) {
+                if (freeCells == null) {
+                    freeCount--;
+                } else if (freeIndex[cell] >= 0) {
+                    cellOccupied(cell);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Sorteia uma nova posição livre para a comida.
+     * 
+     * @return true se a comida foi posicionada, false se o tabuleiro está cheio
+     */
+    public boolean spawn() {
+        if (freeCount == 0) {
+            x = -1;
+            y = -1;
+            return false;
+        }
+        int cell = freeCells != null ? freeCells[random.nextInt(freeCount)] : sampleSparse();
+        x = cell % columns;
+        y = cell / columns;
+        return true;
+    }
+    
+    /**
+     * Sorteia uma célula livre sem a lista de células livres (tabuleiro grande).
+     */
+    private int sampleSparse() {
+        int cells = columns * rows;
+        int cell = 0;
+        for (int attempt = 0; attempt < SPARSE_ATTEMPTS; attempt++) {
+            cell = random.nextInt(cells);
+            if (!isTaken(cell)) {
+                return cell;
+            }
+        }
+        // Quase tudo ocupado perto das tentativas: procura a próxima célula livre
+        for (int i = 1; i < cells; i++) {
+            int next = (cell + i) % cells;
+            if (!isTaken(next)) {
+                return next;
+            }
+        }
+        return cell;
+    }
+    
+    private boolean isTaken(int cell) {
+        return occupied != null && occupied.test(cell);
+    }
+    
+    /**
+     * Remove a célula do conjunto de células livres.
+     * 
+     * @param cell Célula compactada (y * colunas + x)
+     */
+    @Override
+    public void cellOccupied(int cell) {
+        if (freeCells == null) {
+            freeCount--;
+            return;
+        }
+        int index = freeIndex[cell];
+        int last = freeCells[--freeCount];
+        beforeWrite(index);
+        freeCells[index] = last;
+        freeIndex[last] = index;
+        freeIndex[cell] = -1;
+    }
+    
+    /**
+     * Devolve a célula ao conjunto de células livres.
+     * 
+     * @param cell Célula compactada (y * colunas + x)
+     */
+    @Override
+    public void cellFreed(int cell) {
+        if (freeCells == null) {
+            freeCount++;
+            return;
+        }
+        beforeWrite(freeCount);
+        freeCells[freeCount] = cell;
+        freeIndex[cell] = freeCount++;
+    }
+    
+    private void beforeWrite(int slot) {
+        if (frozen != null && !frozen.beforeWrite(slot)) {
+            frozen = null; // Todas as vistas já foram liberadas
+        }
+    }
+    
+    /**
+     * Troca a lista de células livres por uma nova se alguma vista congelada
+     * ainda a lê, antes de reescrevê-la inteira.
+     */
+    private void unfreeze() {
+        if (frozen != null) {
+            freeCells = new int[freeCells.length];
+            frozen = null;
+        }
+    }
+    
+    /**
+     * Congela a lista de células livres sem copiá-la, como
+     * {@link SnakeBody#freeze()}. A ordem da lista faz parte do estado: é
+     * dela que o próximo sorteio escolhe a célula.
+     * 
+     * @return Vista das células livres, ou null no modo esparso (sem lista)
+     */
+    FrozenArray freeze() {
+        if (freeCells == null) {
+            return null;
+        }
+        frozen = new FrozenArray(freeCells, 0, freeCount, -1, frozen);
+        return frozen;
+    }
+    
+    /**
+     * Substitui a comida e as células livres pelas de um snapshot, junto com
+     * a cobra acompanhada (ver {@link SnakeBody#restore(GameSnapshot)}).
+     * 
+     * @param snapshot Snapshot de uma partida no mesmo tabuleiro
+     */
+    void restore(GameSnapshot snapshot) {
+        freeCount = snapshot.getFreeCount();
+        x = snapshot.getFoodX();
+        y = snapshot.getFoodY();
+        if (freeCells == null) {
+            return; // No modo esparso a ocupação é consultada na própria cobra
+        }
+        if (snapshot.getFreeCells() == null || snapshot.getFreeCells().length() != freeCount) {
+            throw new IllegalArgumentException("Snapshot sem a lista de células livres");
+        }
+        unfreeze();
+        Arrays.fill(freeIndex, -1);
+        snapshot.getFreeCells().read(0, freeCells, 0, freeCount);
+        for (int i = 0; i < freeCount; i++) {
+            freeIndex[freeCells[i]] = i;
+        }
+        // As posições além de freeCount não são lidas antes de receberem uma célula liberada
+    }
+    
+    /**
+     * Verifica se não há mais células livres (a cobra ocupa o tabuleiro inteiro).
+     * 
+     * @return true se o tabuleiro está cheio, false caso contrário
+     */
+    public boolean isBoardFull() {
+        return freeCount == 0;
+    }
+    
+    /**
+     * Retorna o número de células livres.
+     * 
+     * @return Número de células livres
+     */
+    public int getFreeCount() {
+        return freeCount;
+    }
+    
+    /**
+     * Retorna a coluna da comida.
+     * 
+     * @return Coluna da comida, ou -1 se o tabuleiro está cheio
+     */
+    public int getX() {
+        return x;
+    }
+    
+    /**
+     * Retorna a linha da comida.
+     * 
+     * @return Linha da comida, ou -1 se o tabuleiro está cheio
+     */
+    public int getY() {
+        return y;
+    }
+}
\ No newline at end of file
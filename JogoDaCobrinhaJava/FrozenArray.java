@@ -0,0 +1,134 @@
+import java.util.Arrays;
+
+/**
+ * Vista congelada de um trecho de um vetor de int que continua sendo
+ * alterado, com cópia sob demanda por páginas (copy-on-write).
+ * 
+ * Congelar não copia nada: a vista guarda o vetor e os limites do trecho.
+ * Antes de sobrescrever uma posição, o dono do vetor chama
+ * {@link #beforeWrite(int)}; se a posição faz parte do trecho congelado, a
+ * página de {@value #PAGE_SIZE} posições que a contém é copiada para a vista
+ * uma única vez. Quem lê a vista (em outra thread) enxerga sempre os valores
+ * do momento do congelamento, e quem escreve paga no máximo a cópia de uma
+ * página por escrita, nunca a do vetor inteiro.
+ * 
+ * O trecho pode dar a volta no vetor (buffer circular): o elemento i fica na
+ * posição {@code (start + i) & mask}. Com {@code mask = -1} o trecho é linear.
+ * Vistas congeladas em seguida sobre o mesmo vetor formam uma cadeia, para
+ * que as mais antigas continuem protegidas enquanto não forem liberadas.
+ */
+public class FrozenArray {
+    static final int PAGE_SHIFT = 12;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    
+    private final int[] array;
+    private final int start;
+    private final int length;
+    private final int mask;
+    private FrozenArray previous; // Vista anterior sobre o mesmo vetor, ainda não liberada
+    private int[][] pages; // Páginas copiadas antes de serem sobrescritas
+    private boolean released;
+    
+    /**
+     * Congela um trecho de um vetor.
+     * 
+     * @param array Vetor do dono
+     * @param start Posição do primeiro elemento
+     * @param length Número de elementos
+     * @param mask Máscara das posições (capacidade - 1 no buffer circular, -1 no vetor linear)
+     * @param previous Vista anterior sobre o mesmo vetor, ou null
+     */
+    FrozenArray(int[] array, int start, int length, int mask, FrozenArray previous) {
+        this.array = array;
+        this.start = start;
+        this.length = length;
+        this.mask = mask;
+        this.previous = previous;
+    }
+    
+    /**
+     * Cria uma vista sobre um vetor que ninguém mais altera, como o lido de um arquivo.
+     * 
+     * @param array Vetor com os elementos a partir da posição 0
+     * @param length Número de elementos
+     * @return Vista sobre o vetor
+     */
+    static FrozenArray of(int[] array, int length) {
+        return new FrozenArray(array, 0, length, -1, null);
+    }
+    
+    /**
+     * Retorna o número de elementos congelados.
+     * 
+     * @return Número de elementos
+     */
+    public int length() {
+        return length;
+    }
+    
+    /**
+     * Chamado pelo dono do vetor antes de sobrescrever uma posição.
+     * 
+     * @param slot Posição que será sobrescrita
+     * @return false se esta vista e as anteriores já foram liberadas e o dono pode esquecê-las
+     */
+    synchronized boolean beforeWrite(int slot) {
+        if (previous != null && !previous.beforeWrite(slot)) {
+            previous = null;
+        }
+        if (!released && ((slot - start) & mask) < length) {
+            if (pages == null) {
+                pages = new int[(array.length + PAGE_MASK) >>> PAGE_SHIFT][];
+            }
+            int page = slot >>> PAGE_SHIFT;
+            if (pages[page] == null) {
+                int from = page << PAGE_SHIFT;
+                pages[page] = Arrays.copyOfRange(array, from, Math.min(array.length, from + PAGE_SIZE));
+            }
+        }
+        return !released || previous != null;
+    }
+    
+    /**
+     * Copia elementos congelados para um vetor.
+     * 
+     * @param from Índice do primeiro elemento
+     * @param target Vetor de destino
+     * @param offset Posição inicial no destino
+     * @param count Número de elementos
+     */
+    public synchronized void read(int from, int[] target, int offset, int count) {
+        if (released) {
+            throw new IllegalStateException("Vista já liberada");
+        }
+        if (from < 0 || count < 0 || from + count > length) {
+            throw new IndexOutOfBoundsException("Elementos " + from + " a " + (from + count) + " de " + length);
+        }
+        for (int i = 0; i < count; ) {
+            int slot = (start + from + i) & mask;
+            int run = Math.min(count - i, array.length - slot); // Até o fim do vetor (volta do buffer circular)
+            int[] page = pages == null ? null : pages[slot >>> PAGE_SHIFT];
+            if (pages == null) {
+                System.arraycopy(array, slot, target, offset + i, run);
+            } else {
+                // Uma página de cada vez: cada uma vem da cópia ou do vetor
+                run = Math.min(run, PAGE_SIZE - (slot & PAGE_MASK));
+                if (page != null) {
+                    System.arraycopy(page, slot & PAGE_MASK, target, offset + i, run);
+                } else {
+                    System.arraycopy(array, slot, target, offset + i, run);
+                }
+            }
+            i += run;
+        }
+    }
+    
+    /**
+     * Libera a vista: o dono do vetor deixa de copiar páginas para ela.
+     */
+    public synchronized void release() {
+        released = true;
+        pages = null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+/**
+ * Motor do jogo independente da interface gráfica.
+ * 
+ * Aplica as regras de uma partida em passos fixos: cada chamada a
+ * {@link #step(Direction)} equivale a um disparo do timer do painel do jogo.
+ * Não depende de AWT/Swing, então pode ser usado para bots, testes e
+ * validação de replays. O estado completo pode ser salvo e restaurado com
+ * {@link #snapshot()} e {@link #restore(GameSnapshot)}.
+ */
+public class GameEngine {
+    private final int columns;
+    private final int rows;
+    private GameState state;
+    private GameRandom random; // Gerador da comida da partida atual
+    
+    /**
+     * Construtor da classe GameEngine.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param seed Semente usada para sortear a comida
+     */
+    public GameEngine(int columns, int rows, long seed) {
+        this.columns = columns;
+        this.rows = rows;
+        reset(seed);
+    }
+    
+    /**
+     * Construtor da classe GameEngine que continua a partida de um snapshot.
+     * 
+     * @param snapshot Snapshot da partida
+     */
+    public GameEngine(GameSnapshot snapshot) {
+        this(snapshot.getColumns(), snapshot.getRows(), snapshot.getSeed());
+        restore(snapshot);
+    }
+    
+    /**
+     * Reinicia a partida com a cobra no centro do tabuleiro.
+     * 
+     * @param seed Semente usada para sortear a comida
+     */
+    public void reset(long seed) {
+        SnakeBody snake = new SnakeBody(columns, rows, columns / 2, rows / 2);
+        random = new GameRandom(seed);
+        FoodSpawner food = new FoodSpawner(columns, rows, random, snake);
+        state = new GameState(snake, food, seed);
+    }
+    
+    /**
+     * Reinicia a partida como {@link #reset(long)}, com o mesmo resultado
+     * para a mesma semente, mas reaproveitando a cobra, a comida e o estado
+     * em vez de alocá-los de novo. Quem guardou o estado anterior passa a
+     * ver a nova partida.
+     * 
+     * @param seed Semente usada para sortear a comida
+     */
+    public void restart(long seed) {
+        SnakeBody snake = state.getSnake();
+        random.setSeed(seed);
+        snake.reset(columns / 2, rows / 2);
+        state.getFood().reset(snake);
+        state.restart(seed);
+    }
+    
+    /**
+     * Tira um snapshot da partida sem copiar a cobra (ver {@link GameSnapshot}).
+     * Deve ser chamado entre dois passos, na thread que os executa.
+     * 
+     * @return Snapshot, que deve ser gravado com {@link GameSnapshot#save(java.nio.file.Path)} ou liberado
+     */
+    public GameSnapshot snapshot() {
+        return GameSnapshot.capture(state, random);
+    }
+    
+    /**
+     * Substitui a partida atual pela de um snapshot, reaproveitando a cobra,
+     * a comida e o estado como {@link #restart(long)}. Continuar a partida
+     * restaurada dá os mesmos passos e sorteios que continuar a original.
+     * 
+     * @param snapshot Snapshot de uma partida no mesmo tabuleiro
+     */
+    public void restore(GameSnapshot snapshot) {
+        if (snapshot.getColumns() != columns || snapshot.getRows() != rows) {
+            throw new IllegalArgumentException("Snapshot de outro tabuleiro: "
+                    + snapshot.getColumns() + "x" + snapshot.getRows());
+        }
+        random.setState(snapshot.getRandomState());
+        state.getSnake().restore(snapshot);
+        state.getFood().restore(snapshot);
+        state.restore(snapshot.getSeed(), snapshot.getTick(), snapshot.getStatus());
+    }
+    
+    /**
+     * Avança a partida em um passo.
+     * 
+     * @param input Nova direção da cobra, ou null para manter a atual
+     * @return Situação da partida após o passo
+     */
+    public GameState.Status step(Direction input) {
+        if (state.getStatus() != GameState.Status.RUNNING) {
+            return state.getStatus();
+        }
+        
+        SnakeBody snake = state.getSnake();
+        FoodSpawner food = state.getFood();
+        if (input != null) {
+            snake.setDirection(input);
+        }
+        
+        // Move a cobra
+        snake.move();
+        state.advanceTick();
+        
+        // Verifica colisão com as paredes e com o próprio corpo
+        if (snake.checkWallCollision() || snake.checkSelfCollision()) {
+            state.finish();
+            return state.getStatus();
+        }
+        
+        // Verifica colisão com a comida; sem célula livre para a próxima, a partida foi vencida
+        if (snake.isHeadAt(food.getX(), food.getY())) {
+            snake.grow();
+            if (!food.spawn()) {
+                state.win();
+            }
+        }
+        
+        return state.getStatus();
+    }
+    
+    /**
+     * Retorna o estado atual da partida.
+     * 
+     * @return Estado da partida
+     */
+    public GameState getState() {
+        return state;
+    }
+    
+    /**
+     * Retorna o número de colunas do tabuleiro.
+     * 
+     * @return Número de colunas
+     */
+    public int getColumns() {
+        return columns;
+    }
+    
+    /**
+     * Retorna o número de linhas do tabuleiro.
+     * 
+     * @return Número de linhas
+     */
+    public int getRows() {
+        return rows;
+    }
+}
\ No newline at end of file
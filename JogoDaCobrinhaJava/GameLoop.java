@@ -0,0 +1,167 @@
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Laço do jogo em uma thread própria, com passos de duração fixa medidos
+ * por {@link System#nanoTime()} e desenho desacoplado da lógica.
+ * 
+ * A lógica avança sempre em passos do mesmo tamanho. O desenho acontece na
+ * taxa de quadros pedida e recebe a fração do passo já decorrida, para
+ * desenhar a cobra entre duas posições (interpolação). Se a máquina atrasar,
+ * até {@value #MAX_CATCH_UP_STEPS} passos atrasados são executados antes do
+ * próximo quadro, para que a velocidade do jogo não mude; um atraso maior
+ * que isso é descartado, para que o jogo não fique preso tentando alcançar
+ * o relógio. A duração do passo pode mudar com o laço rodando
+ * ({@link #setStepNanos(long)}), por exemplo para acelerar o jogo.
+ */
+public class GameLoop {
+    /**
+     * Desenha um quadro.
+     */
+    public interface Renderer {
+        /**
+         * @param alpha Fração do passo atual já decorrida, entre 0 e 1
+         */
+        void render(double alpha);
+    }
+    
+    private static final int MAX_CATCH_UP_STEPS = 5;
+    private static final long SPIN_NANOS = 200_000; // Espera ativa no fim, para acordar na hora certa
+    
+    private volatile long stepNanos;
+    private final long frameNanos;
+    private final Runnable update;
+    private final Renderer renderer;
+    private final String name;
+    private volatile boolean running;
+    private volatile long skippedSteps;
+    private Thread thread;
+    
+    /**
+     * Construtor da classe GameLoop.
+     * 
+     * @param name Nome da thread do laço
+     * @param stepNanos Duração de um passo da lógica, em nanossegundos
+     * @param frameNanos Intervalo mínimo entre quadros, em nanossegundos
+     * @param update Avança a lógica um passo
+     * @param renderer Desenha um quadro
+     */
+    public GameLoop(String name, long stepNanos, long frameNanos, Runnable update, Renderer renderer) {
+        this.name = name;
+        this.stepNanos = stepNanos;
+        this.frameNanos = frameNanos;
+        this.update = update;
+        this.renderer = renderer;
+    }
+    
+    /**
+     * Inicia a thread do laço.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Muda a duração dos passos seguintes.
+     * 
+     * @param stepNanos Duração de um passo da lógica, em nanossegundos
+     */
+    public void setStepNanos(long stepNanos) {
+        this.stepNanos = stepNanos;
+    }
+    
+    /**
+     * Para o laço e espera a thread terminar.
+     */
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = thread;
+            thread = null;
+        }
+        if (current != null && current != Thread.currentThread()) {
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void run() {
+        long previous = System.nanoTime();
+        long lag = 0;
+        long nextFrame = previous;
+        while (running) {
+            long stepNanos = this.stepNanos; // O mesmo valor durante toda a volta
+            long now = System.nanoTime();
+            lag += now - previous;
+            previous = now;
+            
+            // Executa os passos atrasados, até o limite
+            int steps = 0;
+            while (lag >= stepNanos && steps < MAX_CATCH_UP_STEPS) {
+                runSafely(update);
+                lag -= stepNanos;
+                steps++;
+            }
+            if (lag >= stepNanos) {
+                // Atraso grande demais: descarta os passos que sobraram
+                skippedSteps += lag / stepNanos;
+                lag %= stepNanos;
+            }
+            
+            if (now - nextFrame >= 0) {
+                double alpha = (double) lag / stepNanos;
+                runSafely(() -> renderer.render(alpha));
+                nextFrame = Math.max(nextFrame + frameNanos, now);
+            }
+            
+            // Dorme até o próximo quadro ou o próximo passo, o que vier antes
+            long nextStep = previous + stepNanos - lag;
+            waitUntil(nextFrame - nextStep < 0 ? nextFrame : nextStep);
+        }
+    }
+    
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            e.printStackTrace(); // Um erro em um quadro não derruba o laço
+        }
+    }
+    
+    /**
+     * Espera até o instante informado, dormindo a maior parte do tempo.
+     */
+    private void waitUntil(long deadline) {
+        long remaining;
+        while (running && (remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+    
+    /**
+     * @return Número de passos descartados por atraso desde o início
+     */
+    public long getSkippedSteps() {
+        return skippedSteps;
+    }
+    
+    /**
+     * @return true se o laço está rodando
+     */
+    public boolean isRunning() {
+        return running;
+    }
+}
\ No newline at end of file
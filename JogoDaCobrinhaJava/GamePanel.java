@@ -1,91 +1,518 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferStrategy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Painel principal do jogo onde a cobra se move e interage com a comida.
+ * 
+ * Por padrão o jogo avança com um {@link Timer} do Swing. Com
+ * {@code -Dsnake.loop=fixed} ele usa um {@link GameLoop} em thread própria,
+ * com passos de duração fixa, e desenha ativamente em um {@link Canvas}
+ * (BufferStrategy) com a cobra interpolada entre os passos. Nos dois modos
+ * os passos são ritmados por um único {@link TickScheduler}, criado com o
+ * painel, que acelera o jogo conforme a cobra cresce, seguindo o
+ * {@link Difficulty} escolhido ({@code -Dsnake.difficulty} ou
+ * {@link #setDifficulty(Difficulty)}).
+ * 
+ * O tamanho do tabuleiro vem de {@code -Dsnake.columns} e {@code -Dsnake.rows}
+ * (30 x 30 por padrão) ou de {@link #setBoardSize(int, int)}. Tabuleiros
+ * maiores que {@value #MAX_VIEW_SIZE} pixels são vistos por uma câmera que
+ * segue a cabeça da cobra (ver {@link ViewportRenderer}).
+ * 
+ * Com o piloto automático ligado (tecla A), a direção de cada passo vem de um
+ * {@link AutopilotController} em vez do teclado; a partida continua gravada no
+ * replay, mas a pontuação não entra no ranking.
+ * 
+ * A tecla S salva a partida em andamento (ver {@link GameSnapshot}) sem
+ * interromper o jogo, e a tecla L a continua depois, mesmo em outra execução.
+ * Uma partida continuada não gera replay, que precisa dela desde o começo.
  */
 public class GamePanel extends JPanel implements ActionListener {
     private static final long serialVersionUID = 1L;
     
     // Constantes do jogo
-    private static final int SCREEN_WIDTH = 600;
-    private static final int SCREEN_HEIGHT = 600;
+    private static final int MAX_VIEW_SIZE = 600; // Maior lado da área visível, em pixels
     private static final int UNIT_SIZE = 20; // Tamanho de cada unidade do jogo
-    private static final int GAME_UNITS = (SCREEN_WIDTH * SCREEN_HEIGHT) / (UNIT_SIZE * UNIT_SIZE);
-    private static final int DELAY = 100; // Velocidade do jogo (menor = mais rápido)
+    private static final int DEFAULT_BOARD_SIZE = 30; // Colunas e linhas do tabuleiro padrão
+    public static final int MIN_BOARD_SIZE = 5;
+    public static final int MAX_BOARD_SIZE = 10000;
+    private static final int INPUT_CAPACITY = 4; // Teclas guardadas à frente da cobra
+    private static final String REPLAY_DIRECTORY = "replays";
+    private static final String SAVE_DIRECTORY = "saves";
+    private static final String SAVE_FILE = "jogo.snks";
+    private static final DateTimeFormatter REPLAY_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Font SCORE_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Font GAME_OVER_FONT = new Font("Arial", Font.BOLD, 40);
+    private static final Font RESTART_FONT = new Font("Arial", Font.PLAIN, 16);
     
     // Componentes do jogo
+    private GameEngine engine;
     private Snake snake;
     private Food food;
-    private Timer timer;
     private RankingSystem rankingSystem;
+    private BoardView renderer;
+    private int columns;
+    private int rows;
+    private int viewWidth; // Tamanho da área visível em pixels
+    private int viewHeight;
+    private final TickMetrics metrics;
+    private final TickScheduler scheduler; // Único relógio dos passos, reaproveitado entre partidas
+    private final boolean exportingMetrics;
+    private boolean showMetrics = false;
+    
+    // Modo de passo fixo (null no modo com timer)
+    private final GameLoop loop;
+    private final Canvas canvas;
+    private final Object stateLock = new Object(); // Protege o estado entre a thread do laço e a de eventos
+    private volatile boolean resized = false; // O buffer do Canvas deve ser recriado no novo tamanho
+    
+    // Direções pedidas pelo teclado, consumidas uma por passo
+    private final InputQueue input = new InputQueue(INPUT_CAPACITY);
+    private Replay.Recorder recorder; // Grava a partida atual, ou null se ela foi carregada de um jogo salvo
+    private AutopilotController autopilot; // Piloto automático, ou null com o jogador no controle
+    private boolean autopilotUsed; // O piloto jogou parte da partida atual
+    
+    // Métricas das fontes, calculadas uma única vez
+    private final FontMetrics scoreMetrics;
+    private final FontMetrics gameOverMetrics;
+    private final FontMetrics restartMetrics;
+    
+    // Texto da pontuação, recriado só quando a pontuação muda
+    private int shownScore = -1;
+    private String scoreText;
     
     // Estado do jogo
-    private boolean running = false;
-    private boolean gameOver = false;
+    private volatile boolean running = false;
+    private volatile boolean gameOver = false;
     
     /**
      * Construtor da classe GamePanel.
      */
     public GamePanel() {
-        this.setPreferredSize(new Dimension(SCREEN_WIDTH, SCREEN_HEIGHT));
+        applyBoardSize(Integer.getInteger("snake.columns", DEFAULT_BOARD_SIZE),
+                Integer.getInteger("snake.rows", DEFAULT_BOARD_SIZE));
         this.setBackground(Color.BLACK);
         this.setFocusable(true);
-        this.addKeyListener(new MyKeyAdapter());
+        KeyListener keys = new MyKeyAdapter();
+        this.addKeyListener(keys);
+        
+        Difficulty difficulty = Difficulty.parse(System.getProperty("snake.difficulty"), Difficulty.CLASSIC);
+        metrics = new TickMetrics(difficulty.getInitialDelay());
+        if ("fixed".equals(System.getProperty("snake.loop"))) {
+            // O Canvas é pesado e cobriria os menus leves do Swing
+            JPopupMenu.setDefaultLightWeightPopupEnabled(false);
+            canvas = new Canvas();
+            canvas.setPreferredSize(new Dimension(viewWidth, viewHeight));
+            canvas.setIgnoreRepaint(true); // Desenhado só pela thread do laço
+            canvas.setFocusable(true);
+            canvas.addKeyListener(keys);
+            this.setLayout(new BorderLayout());
+            this.add(canvas, BorderLayout.CENTER);
+            loop = new GameLoop("game-loop", TimeUnit.MILLISECONDS.toNanos(difficulty.getInitialDelay()),
+                    framePeriodNanos(), this::fixedUpdate, this::render);
+            scheduler = new TickScheduler(loop, difficulty, metrics);
+        } else {
+            canvas = null;
+            loop = null;
+            scheduler = new TickScheduler(this, difficulty, metrics);
+        }
+        
+        scoreMetrics = getFontMetrics(SCORE_FONT);
+        gameOverMetrics = getFontMetrics(GAME_OVER_FONT);
+        restartMetrics = getFontMetrics(RESTART_FONT);
         
         // Inicializa o sistema de ranking
         rankingSystem = new RankingSystem();
         
+        // Grava as métricas do laço se o arquivo for informado (-Dsnake.metrics.file=metrics.prom)
+        String metricsFile = System.getProperty("snake.metrics.file");
+        exportingMetrics = metricsFile != null;
+        if (exportingMetrics) {
+            metrics.setEnabled(true);
+            metrics.startExport(Paths.get(metricsFile), Long.getLong("snake.metrics.period", 10));
+        }
+        
         startGame();
     }
     
+    /**
+     * Muda o tamanho do tabuleiro e começa uma nova partida nele.
+     * A janela deve ser reempacotada (pack) para acompanhar o novo tamanho.
+     * 
+     * @param columns Número de colunas, entre {@value #MIN_BOARD_SIZE} e {@value #MAX_BOARD_SIZE}
+     * @param rows Número de linhas, entre {@value #MIN_BOARD_SIZE} e {@value #MAX_BOARD_SIZE}
+     */
+    public void setBoardSize(int columns, int rows) {
+        if (columns < MIN_BOARD_SIZE || columns > MAX_BOARD_SIZE || rows < MIN_BOARD_SIZE || rows > MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("Tamanho de tabuleiro inválido: " + columns + "x" + rows);
+        }
+        synchronized (stateLock) {
+            running = false; // A partida atual é abandonada
+            scheduler.stop();
+            resizeBoard(columns, rows);
+        }
+        startGame();
+        revalidate();
+    }
+    
+    /**
+     * Muda o tamanho do tabuleiro com o laço parado, inclusive o do Canvas.
+     */
+    private void resizeBoard(int columns, int rows) {
+        applyBoardSize(columns, rows);
+        if (canvas != null) {
+            canvas.setPreferredSize(new Dimension(viewWidth, viewHeight));
+            resized = true;
+        }
+    }
+    
+    /**
+     * Define o tamanho do tabuleiro, da área visível e o renderizador.
+     */
+    private void applyBoardSize(int columns, int rows) {
+        this.columns = Math.max(MIN_BOARD_SIZE, Math.min(columns, MAX_BOARD_SIZE));
+        this.rows = Math.max(MIN_BOARD_SIZE, Math.min(rows, MAX_BOARD_SIZE));
+        viewWidth = Math.min(this.columns * UNIT_SIZE, MAX_VIEW_SIZE);
+        viewHeight = Math.min(this.rows * UNIT_SIZE, MAX_VIEW_SIZE);
+        renderer = BoardView.create(this.columns, this.rows, UNIT_SIZE, viewWidth, viewHeight);
+        setPreferredSize(new Dimension(viewWidth, viewHeight));
+    }
+    
     /**
      * Inicia o jogo.
      */
     public void startGame() {
-        // Inicializa a cobra no centro da tela
-        snake = new Snake(UNIT_SIZE, SCREEN_WIDTH / 2, SCREEN_HEIGHT / 2);
-        
-        // Inicializa a comida
-        food = new Food(UNIT_SIZE, SCREEN_WIDTH, SCREEN_HEIGHT);
+        synchronized (stateLock) {
+            // Inicializa o motor do jogo (a cobra começa no centro do tabuleiro)
+            engine = new GameEngine(columns, rows, System.nanoTime());
+            recorder = new Replay.Recorder(engine, scheduler.getDifficulty());
+            begin();
+        }
+        repaint();
+    }
+    
+    /**
+     * Liga o painel à partida do motor atual e a coloca em andamento.
+     * Deve ser chamado com o lock do estado.
+     */
+    private void begin() {
+        // Inicializa a cobra e a comida a partir do estado do motor
+        snake = new Snake(UNIT_SIZE, engine.getState().getSnake());
+        food = new Food(UNIT_SIZE, engine.getState().getFood());
+        renderer.reset(snake, food);
+        updateScoreText();
+        input.clear(); // Com o lock, o passo (consumidor) não está rodando
+        autopilotUsed = autopilot != null;
         
-        // Inicia o timer
-        timer = new Timer(DELAY, this);
-        timer.start();
+        // Liga o relógio, que já existe (no modo de passo fixo o laço já está rodando)
+        scheduler.update(engine.getState().getSnake().getSize());
+        scheduler.start();
         
         running = true;
         gameOver = false;
     }
     
+    /**
+     * Liga ou desliga o piloto automático. Avisa a mudança com a propriedade
+     * {@code "autopilot"}.
+     * 
+     * @param enabled true para o piloto conduzir a cobra, false para devolver o controle ao teclado
+     */
+    public void setAutopilot(boolean enabled) {
+        boolean previous;
+        synchronized (stateLock) {
+            previous = autopilot != null;
+            if (enabled != previous) {
+                autopilot = enabled ? new AutopilotController() : null;
+                autopilotUsed |= enabled;
+                input.clear(); // Teclas pedidas antes da troca não valem mais
+            }
+        }
+        firePropertyChange("autopilot", previous, enabled);
+    }
+    
+    /**
+     * Verifica se o piloto automático está ligado.
+     * 
+     * @return true se o piloto conduz a cobra, false caso contrário
+     */
+    public boolean isAutopilot() {
+        synchronized (stateLock) {
+            return autopilot != null;
+        }
+    }
+    
+    /**
+     * Troca o nível de dificuldade. A partida em andamento passa a seguir a
+     * nova curva a partir do próximo passo.
+     * 
+     * @param difficulty Novo nível de dificuldade
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        synchronized (stateLock) {
+            scheduler.setDifficulty(difficulty);
+        }
+    }
+    
+    /**
+     * Retorna o nível de dificuldade atual.
+     * 
+     * @return Nível de dificuldade
+     */
+    public Difficulty getDifficulty() {
+        return scheduler.getDifficulty();
+    }
+    
+    /**
+     * Salva a partida em andamento na pasta de jogos salvos, substituindo o
+     * jogo salvo anterior. O snapshot é tirado entre dois passos, sem copiar
+     * a cobra, e gravado em segundo plano: o jogo não para.
+     */
+    public void saveGame() {
+        GameSnapshot snapshot;
+        synchronized (stateLock) {
+            if (!running) {
+                return;
+            }
+            snapshot = engine.snapshot();
+        }
+        try {
+            Files.createDirectories(Paths.get(SAVE_DIRECTORY));
+        } catch (IOException e) {
+            snapshot.release();
+            e.printStackTrace();
+            return;
+        }
+        snapshot.save(Paths.get(SAVE_DIRECTORY, SAVE_FILE)).whenComplete((path, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+            }
+        });
+    }
+    
+    /**
+     * Continua a partida salva com {@link #saveGame()}, no tamanho de
+     * tabuleiro em que ela foi salva. A partida atual é abandonada.
+     */
+    public void loadGame() {
+        GameSnapshot snapshot;
+        try {
+            snapshot = GameSnapshot.load(Paths.get(SAVE_DIRECTORY, SAVE_FILE));
+        } catch (NoSuchFileException e) {
+            JOptionPane.showMessageDialog(this, "Nenhum jogo salvo.", "Carregar Jogo", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        } catch (IOException e) {
+            e.printStackTrace();
+            showInvalidSave();
+            return;
+        }
+        int columns = snapshot.getColumns();
+        int rows = snapshot.getRows();
+        if (columns < MIN_BOARD_SIZE || columns > MAX_BOARD_SIZE || rows < MIN_BOARD_SIZE || rows > MAX_BOARD_SIZE
+                || snapshot.getStatus() != GameState.Status.RUNNING) {
+            showInvalidSave();
+            return;
+        }
+        // O motor é montado antes de parar a partida atual: um jogo salvo inválido não a interrompe
+        GameEngine loaded;
+        try {
+            loaded = new GameEngine(snapshot);
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            showInvalidSave();
+            return;
+        }
+        
+        boolean boardChanged = columns != this.columns || rows != this.rows;
+        synchronized (stateLock) {
+            running = false; // A partida atual é abandonada
+            scheduler.stop();
+            if (boardChanged) {
+                resizeBoard(columns, rows);
+            }
+            engine = loaded;
+            recorder = null; // O replay precisaria da partida desde o primeiro passo
+            begin();
+        }
+        if (boardChanged) {
+            revalidate();
+            Window window = SwingUtilities.getWindowAncestor(this);
+            if (window != null) {
+                window.pack();
+            }
+        }
+        repaint();
+    }
+    
+    /**
+     * Avisa que o jogo salvo não pode ser continuado.
+     */
+    private void showInvalidSave() {
+        JOptionPane.showMessageDialog(this, "Jogo salvo inválido.", "Carregar Jogo", JOptionPane.ERROR_MESSAGE);
+    }
+    
+    /**
+     * Retorna o intervalo entre quadros do modo de passo fixo: a taxa de
+     * atualização da tela, ou a informada em {@code -Dsnake.fps}.
+     */
+    private static long framePeriodNanos() {
+        int fps = Integer.getInteger("snake.fps", 0);
+        if (fps <= 0 && !GraphicsEnvironment.isHeadless()) {
+            fps = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDisplayMode().getRefreshRate();
+        }
+        if (fps <= 0) {
+            fps = 60; // Taxa desconhecida
+        }
+        return TimeUnit.SECONDS.toNanos(1) / fps;
+    }
+    
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (loop != null) {
+            // O Canvas já está na tela: cria o buffer duplo e inicia o laço
+            canvas.createBufferStrategy(2);
+            loop.start();
+        }
+    }
+    
+    @Override
+    public void removeNotify() {
+        if (loop != null) {
+            loop.stop();
+        }
+        super.removeNotify();
+    }
+    
+    @Override
+    public void requestFocus() {
+        if (canvas != null) {
+            canvas.requestFocus(); // No modo de passo fixo as teclas chegam pelo Canvas
+        } else {
+            super.requestFocus();
+        }
+    }
+    
+    /**
+     * Avança o jogo um passo no modo de passo fixo (thread do laço).
+     */
+    private void fixedUpdate() {
+        synchronized (stateLock) {
+            if (!running) {
+                return;
+            }
+            long tickStart = metrics.tickStarted();
+            if (engine.step(nextTurn()) != GameState.Status.RUNNING) {
+                metrics.tickFinished(tickStart);
+                running = false;
+                gameOver = true;
+                
+                // Os diálogos de fim de jogo rodam na thread de eventos
+                SwingUtilities.invokeLater(this::gameOver);
+                return;
+            }
+            renderer.update();
+            updateScoreText();
+            scheduler.update(engine.getState().getSnake().getSize());
+            metrics.tickFinished(tickStart);
+        }
+    }
+    
+    /**
+     * Desenha um quadro no Canvas no modo de passo fixo (thread do laço).
+     * 
+     * @param alpha Fração do passo atual já decorrida
+     */
+    private void render(double alpha) {
+        if (resized && canvas.getWidth() == canvas.getPreferredSize().width
+                && canvas.getHeight() == canvas.getPreferredSize().height) {
+            // O layout já aplicou o novo tamanho: recria o buffer duplo
+            resized = false;
+            canvas.createBufferStrategy(2);
+        }
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        if (strategy == null) {
+            return;
+        }
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    g.setColor(Color.BLACK);
+                    g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+                    synchronized (stateLock) {
+                        long paintStart = metrics.paintStarted();
+                        draw(g, alpha);
+                        metrics.paintFinished(paintStart);
+                    }
+                    if (showMetrics) {
+                        metrics.drawOverlay(g, 0, canvas.getHeight() - TickMetrics.OVERLAY_HEIGHT);
+                    }
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+    
     /**
      * Método chamado pelo timer para atualizar o estado do jogo.
      */
     @Override
     public void actionPerformed(ActionEvent e) {
         if (running) {
-            // Move a cobra
-            snake.move();
+            long tickStart = metrics.tickStarted();
             
-            // Verifica colisão com a comida
-            if (snake.checkFoodCollision(food)) {
-                snake.grow();
-                food.newFood();
-            }
-            
-            // Verifica colisão com as paredes
-            if (snake.checkWallCollision(SCREEN_WIDTH, SCREEN_HEIGHT)) {
+            // Avança o motor um passo com a próxima direção pedida pelo teclado
+            if (engine.step(nextTurn()) != GameState.Status.RUNNING) {
+                metrics.tickFinished(tickStart);
                 gameOver();
+                repaint();
+                return;
             }
             
-            // Verifica colisão com o próprio corpo
-            if (snake.checkSelfCollision()) {
-                gameOver();
+            // Acelera o jogo se a cobra cresceu
+            scheduler.update(engine.getState().getSnake().getSize());
+            
+            // Redesenha apenas as células e a pontuação que mudaram
+            renderer.update();
+            renderer.repaintDirty(this);
+            if (updateScoreText()) {
+                repaint(0, 0, viewWidth, scoreMetrics.getHeight() + SCORE_FONT.getSize());
+            }
+            if (showMetrics) {
+                repaint(0, viewHeight - TickMetrics.OVERLAY_HEIGHT, TickMetrics.OVERLAY_WIDTH, TickMetrics.OVERLAY_HEIGHT);
             }
+            metrics.tickFinished(tickStart);
         }
-        
-        // Redesenha o painel
-        repaint();
+    }
+    
+    /**
+     * Atualiza o texto da pontuação se ela mudou.
+     * 
+     * @return true se o texto mudou, false caso contrário
+     */
+    private boolean updateScoreText() {
+        int score = engine.getState().getScore();
+        if (score == shownScore) {
+            return false;
+        }
+        shownScore = score;
+        scoreText = "Pontuação: " + score;
+        return true;
     }
     
     /**
@@ -93,23 +520,26 @@ public class GamePanel extends JPanel implements ActionListener {
      */
     @Override
     protected void paintComponent(Graphics g) {
+        long paintStart = metrics.paintStarted();
         super.paintComponent(g);
-        draw(g);
+        draw(g, 1);
+        metrics.paintFinished(paintStart);
+        
+        // A camada de métricas fica fora da medição da pintura
+        if (showMetrics) {
+            metrics.drawOverlay(g, 0, viewHeight - TickMetrics.OVERLAY_HEIGHT);
+        }
     }
     
     /**
      * Método auxiliar para desenhar os componentes do jogo.
+     * 
+     * @param alpha Fração do passo atual já decorrida (1 desenha o passo atual sem interpolação)
      */
-    private void draw(Graphics g) {
+    private void draw(Graphics g, double alpha) {
         if (running) {
-            // Desenha a grade (opcional)
-            drawGrid(g);
-            
-            // Desenha a comida
-            food.draw(g);
-            
-            // Desenha a cobra
-            snake.draw(g);
+            // Copia o tabuleiro (grade, comida e cobra) do buffer do renderizador
+            renderer.paintInterpolated(g, alpha);
             
             // Desenha a pontuação
             drawScore(g);
@@ -118,32 +548,13 @@ public class GamePanel extends JPanel implements ActionListener {
         }
     }
     
-    /**
-     * Desenha a grade do jogo (opcional).
-     */
-    private void drawGrid(Graphics g) {
-        g.setColor(new Color(20, 20, 20)); // Cinza escuro
-        
-        // Linhas horizontais
-        for (int i = 0; i < SCREEN_HEIGHT / UNIT_SIZE; i++) {
-            g.drawLine(0, i * UNIT_SIZE, SCREEN_WIDTH, i * UNIT_SIZE);
-        }
-        
-        // Linhas verticais
-        for (int i = 0; i < SCREEN_WIDTH / UNIT_SIZE; i++) {
-            g.drawLine(i * UNIT_SIZE, 0, i * UNIT_SIZE, SCREEN_HEIGHT);
-        }
-    }
-    
     /**
      * Desenha a pontuação atual.
      */
     private void drawScore(Graphics g) {
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 20));
-        FontMetrics metrics = getFontMetrics(g.getFont());
-        String scoreText = "Pontuação: " + (snake.getSize() - 3); // -3 porque a cobra começa com 3 segmentos
-        g.drawString(scoreText, (SCREEN_WIDTH - metrics.stringWidth(scoreText)) / 2, g.getFont().getSize());
+        g.setFont(SCORE_FONT);
+        g.drawString(scoreText, (viewWidth - scoreMetrics.stringWidth(scoreText)) / 2, SCORE_FONT.getSize());
     }
     
     /**
@@ -152,23 +563,20 @@ public class GamePanel extends JPanel implements ActionListener {
     private void drawGameOver(Graphics g) {
         // Desenha a pontuação final
         g.setColor(Color.RED);
-        g.setFont(new Font("Arial", Font.BOLD, 40));
-        FontMetrics metrics1 = getFontMetrics(g.getFont());
-        String gameOverText = "Game Over";
-        g.drawString(gameOverText, (SCREEN_WIDTH - metrics1.stringWidth(gameOverText)) / 2, SCREEN_HEIGHT / 2 - 50);
+        g.setFont(GAME_OVER_FONT);
+        String gameOverText = engine.getState().getStatus() == GameState.Status.WON ? "Você Venceu!" : "Game Over";
+        g.drawString(gameOverText, (viewWidth - gameOverMetrics.stringWidth(gameOverText)) / 2, viewHeight / 2 - 50);
         
         // Desenha a pontuação
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 20));
-        FontMetrics metrics2 = getFontMetrics(g.getFont());
-        String scoreText = "Pontuação Final: " + (snake.getSize() - 3);
-        g.drawString(scoreText, (SCREEN_WIDTH - metrics2.stringWidth(scoreText)) / 2, SCREEN_HEIGHT / 2);
+        g.setFont(SCORE_FONT);
+        String finalScoreText = "Pontuação Final: " + engine.getState().getScore();
+        g.drawString(finalScoreText, (viewWidth - scoreMetrics.stringWidth(finalScoreText)) / 2, viewHeight / 2);
         
         // Instruções para reiniciar
-        g.setFont(new Font("Arial", Font.PLAIN, 16));
-        FontMetrics metrics3 = getFontMetrics(g.getFont());
+        g.setFont(RESTART_FONT);
         String restartText = "Pressione ESPAÇO para jogar novamente";
-        g.drawString(restartText, (SCREEN_WIDTH - metrics3.stringWidth(restartText)) / 2, SCREEN_HEIGHT / 2 + 50);
+        g.drawString(restartText, (viewWidth - restartMetrics.stringWidth(restartText)) / 2, viewHeight / 2 + 50);
     }
     
     /**
@@ -177,19 +585,84 @@ public class GamePanel extends JPanel implements ActionListener {
     private void gameOver() {
         running = false;
         gameOver = true;
-        timer.stop();
+        scheduler.stop();
+        
+        // Partidas com o piloto automático só ficam no replay
+        if (autopilotUsed) {
+            saveReplay("piloto");
+            return;
+        }
         
         // Solicita o nome do jogador e salva a pontuação
         String playerName = JOptionPane.showInputDialog(this, "Digite seu nome para o ranking:", "Game Over", JOptionPane.PLAIN_MESSAGE);
         
+        // Guarda a partida para poder conferir a pontuação depois
+        saveReplay(playerName);
+        
         if (playerName != null && !playerName.trim().isEmpty()) {
-            rankingSystem.addScore(playerName, snake.getSize() - 3);
+            // A gravação no disco acontece em segundo plano, fora da thread de eventos
+            CompletableFuture<Player> saved = rankingSystem.submitScore(playerName, engine.getState().getScore());
             
             // Pergunta se o jogador quer ver o ranking
             int option = JOptionPane.showConfirmDialog(this, "Deseja ver o ranking?", "Ranking", JOptionPane.YES_NO_OPTION);
             if (option == JOptionPane.YES_OPTION) {
-                rankingSystem.showRanking();
+                // Abre o ranking depois que a própria pontuação estiver gravada
+                saved.whenComplete((player, error) -> SwingUtilities.invokeLater(rankingSystem::showRanking));
+            }
+        }
+    }
+    
+    /**
+     * Guarda uma direção pedida pelo teclado para os próximos passos.
+     */
+    private void steer(Direction direction) {
+        input.offer(direction); // Com a fila cheia, a tecla é ignorada
+    }
+    
+    /**
+     * Retira a próxima direção pedida que muda o rumo da cobra (ou a escolhida
+     * pelo piloto automático) e a grava no replay.
+     * 
+     * @return Nova direção, ou null para manter a atual
+     */
+    private Direction nextTurn() {
+        GameState state = engine.getState();
+        Direction current = state.getSnake().getDirection();
+        Direction turn;
+        if (autopilot != null) {
+            turn = autopilot.nextDirection(state);
+            if (turn == current) {
+                turn = null; // O replay só guarda as curvas
             }
+        } else {
+            turn = input.nextTurn(current);
+        }
+        if (recorder != null) {
+            recorder.record(state.getTick(), turn);
+        }
+        return turn;
+    }
+    
+    /**
+     * Grava o replay da partida que acabou na pasta de replays.
+     * 
+     * @param playerName Nome do jogador, ou null
+     */
+    private void saveReplay(String playerName) {
+        if (recorder == null) {
+            return; // Partida carregada de um jogo salvo
+        }
+        GameState state = engine.getState();
+        Replay replay = recorder.finish(state);
+        String name = playerName == null || playerName.trim().isEmpty() ? "anonimo"
+                : playerName.trim().replaceAll("[^\\p{L}\\p{N}_-]", "_");
+        String file = LocalDateTime.now().format(REPLAY_DATE_FORMAT) + "-" + name + "-" + state.getScore() + ".snkr";
+        try {
+            Path directory = Paths.get(REPLAY_DIRECTORY);
+            Files.createDirectories(directory);
+            replay.save(directory.resolve(file));
+        } catch (IOException e) {
+            e.printStackTrace();
         }
     }
     
@@ -210,26 +683,41 @@ public class GamePanel extends JPanel implements ActionListener {
         public void keyPressed(KeyEvent e) {
             switch (e.getKeyCode()) {
                 case KeyEvent.VK_LEFT:
-                    snake.setDirection(Direction.LEFT);
+                    steer(Direction.LEFT);
                     break;
                 case KeyEvent.VK_RIGHT:
-                    snake.setDirection(Direction.RIGHT);
+                    steer(Direction.RIGHT);
                     break;
                 case KeyEvent.VK_UP:
-                    snake.setDirection(Direction.UP);
+                    steer(Direction.UP);
                     break;
                 case KeyEvent.VK_DOWN:
-                    snake.setDirection(Direction.DOWN);
+                    steer(Direction.DOWN);
                     break;
                 case KeyEvent.VK_SPACE:
                     restartGame();
                     break;
+                case KeyEvent.VK_A:
+                    setAutopilot(!isAutopilot());
+                    break;
+                case KeyEvent.VK_S:
+                    saveGame();
+                    break;
+                case KeyEvent.VK_L:
+                    loadGame();
+                    break;
                 case KeyEvent.VK_R:
                     // Mostra o ranking quando o jogador pressiona R
                     if (!running || gameOver) {
                         rankingSystem.showRanking();
                     }
                     break;
+                case KeyEvent.VK_F3:
+                    // Mostra ou esconde a camada de métricas
+                    showMetrics = !showMetrics;
+                    metrics.setEnabled(showMetrics || exportingMetrics);
+                    repaint();
+                    break;
             }
         }
     }
@@ -0,0 +1,61 @@
+import java.util.Random;
+
+/**
+ * Gerador de números aleatórios da partida com o estado exposto.
+ * 
+ * Usa o mesmo gerador congruencial linear de {@link Random}, então a mesma
+ * semente produz exatamente a mesma sequência (e os replays gravados
+ * continuam válidos). A diferença é que o estado interno de 48 bits pode ser
+ * lido e restaurado, o que permite salvar uma partida no meio e continuá-la
+ * com os mesmos sorteios de comida (ver {@link GameSnapshot}).
+ * 
+ * Não é seguro para várias threads: cada partida tem o seu.
+ */
+public class GameRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+    
+    private long state; // Sem inicializador: o construtor de Random chama setSeed antes dele
+    
+    /**
+     * Construtor da classe GameRandom.
+     * 
+     * @param seed Semente, com o mesmo efeito de {@link Random#Random(long)}
+     */
+    public GameRandom(long seed) {
+        super(seed);
+    }
+    
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed); // Descarta o nextGaussian guardado
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+    
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+    
+    /**
+     * Retorna o estado interno do gerador.
+     * 
+     * @return Estado de 48 bits
+     */
+    public long getState() {
+        return state;
+    }
+    
+    /**
+     * Restaura um estado lido com {@link #getState()}: os próximos sorteios
+     * repetem os que vieram depois da leitura.
+     * 
+     * @param state Estado de 48 bits
+     */
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,520 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fotografia do estado completo de uma partida: cobra, direção, crescimento,
+ * comida, células livres e o estado do gerador de números aleatórios.
+ * Restaurar um snapshot e continuar jogando dá exatamente a mesma partida
+ * que continuar a original, inclusive os próximos sorteios de comida.
+ * 
+ * Tirar o snapshot não copia nada: o corpo da cobra e a lista de células
+ * livres ficam em {@link FrozenArray vistas congeladas}, e o passo seguinte
+ * só copia as páginas que sobrescrever. A gravação ({@link #save(Path)}) é
+ * assíncrona, por um {@link AsynchronousFileChannel}, e a codificação dos
+ * blocos seguintes roda nas threads do canal, então o passo do jogo nunca
+ * espera pelo disco nem pela codificação de uma cobra de milhões de segmentos.
+ * 
+ * Formato (inteiros big-endian):
+ * "SNKS", versão, colunas, linhas, semente, passo, situação, estado do
+ * gerador, direção, crescimento, cabeça (x, y), comida (x, y), número de
+ * segmentos, número de células livres e se a lista de células livres foi
+ * gravada. Depois vem o corpo: a célula do segmento 1 e a direção de cada
+ * segmento para o seguinte, 2 bits cada, 4 por byte (a cabeça sai das
+ * coordenadas do cabeçalho). Por último, a lista de células livres na ordem
+ * em que está na memória, que é a usada pelo sorteio.
+ */
+public class GameSnapshot {
+    private static final int MAGIC = 0x534E4B53; // "SNKS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * 4 + 8 * 3 + 1 + 1 + 1 + 4 * 6 + 1;
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int BLOCK = 4096; // Elementos lidos de uma vista por vez
+    private static final GameState.Status[] STATUSES = GameState.Status.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    private final int columns;
+    private final int rows;
+    private final long seed;
+    private final long tick;
+    private final GameState.Status status;
+    private final long randomState;
+    private final Direction direction;
+    private final boolean growing;
+    private final int headX;
+    private final int headY;
+    private final int foodX;
+    private final int foodY;
+    private final int freeCount;
+    private final FrozenArray body; // Células do corpo, a partir da cabeça
+    private final FrozenArray freeCells; // Células livres, ou null no modo esparso
+    
+    private GameSnapshot(int columns, int rows, long seed, long tick, GameState.Status status, long randomState,
+            Direction direction, boolean growing, int headX, int headY, int foodX, int foodY, int freeCount,
+            FrozenArray body, FrozenArray freeCells) {
+        this.columns = columns;
+        this.rows = rows;
+        this.seed = seed;
+        this.tick = tick;
+        this.status = status;
+        this.randomState = randomState;
+        this.direction = direction;
+        this.growing = growing;
+        this.headX = headX;
+        this.headY = headY;
+        this.foodX = foodX;
+        this.foodY = foodY;
+        this.freeCount = freeCount;
+        this.body = body;
+        this.freeCells = freeCells;
+    }
+    
+    /**
+     * Tira um snapshot de uma partida em O(1). Deve ser chamado na thread que
+     * avança a partida, entre dois passos.
+     * 
+     * @param state Estado da partida
+     * @param random Gerador usado pela comida da partida
+     * @return Snapshot, que deve ser liberado com {@link #release()} (o {@link #save(Path)} já libera)
+     */
+    static GameSnapshot capture(GameState state, GameRandom random) {
+        SnakeBody snake = state.getSnake();
+        FoodSpawner food = state.getFood();
+        return new GameSnapshot(snake.getColumns(), snake.getRows(), state.getSeed(), state.getTick(),
+                state.getStatus(), random.getState(), snake.getDirection(), snake.isGrowing(),
+                snake.getHeadX(), snake.getHeadY(), food.getX(), food.getY(), food.getFreeCount(),
+                snake.freeze(), food.freeze());
+    }
+    
+    /**
+     * Grava o snapshot em um arquivo sem bloquear quem chamou. O arquivo é
+     * escrito ao lado do destino e renomeado no fim, então um arquivo
+     * anterior nunca fica pela metade. Ao terminar, com ou sem erro, o
+     * snapshot é liberado.
+     * 
+     * @param path Arquivo de destino
+     * @return Futuro completado com o arquivo gravado, ou com o erro da gravação
+     */
+    public CompletableFuture<Path> save(Path path) {
+        CompletableFuture<Path> result = new CompletableFuture<>();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException | RuntimeException e) {
+            release();
+            result.completeExceptionally(e);
+            return result;
+        }
+        
+        // Só o cabeçalho é montado aqui; o resto é codificado nas threads do canal
+        Writer writer = new Writer(channel, temp, path, result);
+        writeHeader(writer.buffer);
+        writer.buffer.flip();
+        channel.write(writer.buffer, 0L, null, writer);
+        return result;
+    }
+    
+    private void writeHeader(ByteBuffer out) {
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putInt(columns);
+        out.putInt(rows);
+        out.putLong(seed);
+        out.putLong(tick);
+        out.put((byte) status.ordinal());
+        out.putLong(randomState);
+        out.put((byte) direction.ordinal());
+        out.put((byte) (growing ? 1 : 0));
+        out.putInt(headX);
+        out.putInt(headY);
+        out.putInt(foodX);
+        out.putInt(foodY);
+        out.putInt(body.length());
+        out.putInt(freeCount);
+        out.put((byte) (freeCells != null ? 1 : 0));
+    }
+    
+    /**
+     * Grava o arquivo em blocos encadeados: cada escrita concluída codifica e
+     * dispara a próxima, até o fim do corpo e da lista de células livres.
+     */
+    private class Writer implements CompletionHandler<Integer, Void> {
+        private final AsynchronousFileChannel channel;
+        private final Path temp;
+        private final Path target;
+        private final CompletableFuture<Path> result;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final int[] block = new int[BLOCK];
+        private int blockStart;
+        private int blockLength;
+        private boolean anchored; // A célula do segmento 1 já foi gravada
+        private int segment = 1; // Segmento de onde sai a próxima direção
+        private int freeWritten;
+        private long position;
+        
+        Writer(AsynchronousFileChannel channel, Path temp, Path target, CompletableFuture<Path> result) {
+            this.channel = channel;
+            this.temp = temp;
+            this.target = target;
+            this.result = result;
+        }
+        
+        @Override
+        public void completed(Integer written, Void attachment) {
+            try {
+                position += written;
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                    fill();
+                    buffer.flip();
+                }
+                if (buffer.hasRemaining()) {
+                    channel.write(buffer, position, null, this);
+                    return;
+                }
+                channel.force(true);
+                channel.close();
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                release();
+                result.complete(target);
+            } catch (IOException | RuntimeException e) {
+                failed(e, attachment);
+            }
+        }
+        
+        @Override
+        public void failed(Throwable error, Void attachment) {
+            try {
+                channel.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                error.addSuppressed(e);
+            }
+            release();
+            result.completeExceptionally(error);
+        }
+        
+        /**
+         * Codifica no buffer o que couber do corpo e da lista de células livres.
+         */
+        private void fill() {
+            int length = body.length();
+            if (!anchored && length > 1) {
+                buffer.putInt(cell(1));
+            }
+            anchored = true;
+            while (segment < length - 1 && buffer.hasRemaining()) {
+                int packed = 0;
+                int count = Math.min(4, length - 1 - segment);
+                int from = cell(segment);
+                for (int i = 0; i < count; i++) {
+                    int to = cell(segment + 1);
+                    packed |= directionCode(to - from) << (i * 2);
+                    from = to;
+                    segment++;
+                }
+                buffer.put((byte) packed);
+            }
+            if (freeCells == null || segment < length - 1) {
+                return;
+            }
+            while (freeWritten < freeCount && buffer.remaining() >= 4) {
+                int count = Math.min(BLOCK, Math.min(freeCount - freeWritten, buffer.remaining() / 4));
+                freeCells.read(freeWritten, block, 0, count);
+                buffer.asIntBuffer().put(block, 0, count);
+                buffer.position(buffer.position() + count * 4);
+                freeWritten += count;
+            }
+        }
+        
+        private int cell(int index) {
+            if (index < blockStart || index >= blockStart + blockLength) {
+                blockStart = index;
+                blockLength = Math.min(BLOCK, body.length() - index);
+                body.read(blockStart, block, 0, blockLength);
+            }
+            return block[index - blockStart];
+        }
+    }
+    
+    private int directionCode(int delta) {
+        for (Direction d : DIRECTIONS) {
+            if (d.getDy() * columns + d.getDx() == delta) {
+                return d.ordinal();
+            }
+        }
+        throw new IllegalStateException("Segmentos não vizinhos no corpo da cobra");
+    }
+    
+    /**
+     * Lê um snapshot gravado com {@link #save(Path)}.
+     * 
+     * @param path Arquivo do snapshot
+     * @return Snapshot lido
+     * @throws IOException se a leitura falhar ou o arquivo não for um snapshot
+     */
+    public static GameSnapshot load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot grande demais: " + path);
+            }
+            ByteBuffer in = ByteBuffer.allocate((int) channel.size());
+            while (in.hasRemaining()) {
+                if (channel.read(in) < 0) {
+                    throw new IOException("Snapshot incompleto: " + path);
+                }
+            }
+            in.flip();
+            if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC) {
+                throw new IOException("Arquivo não é um snapshot: " + path);
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IOException("Versão de snapshot não suportada: " + version);
+            }
+            int columns = in.getInt();
+            int rows = in.getInt();
+            if (columns <= 0 || rows <= 0 || (long) columns * rows > Integer.MAX_VALUE) {
+                throw new IOException("Tabuleiro inválido no snapshot: " + columns + "x" + rows);
+            }
+            int area = columns * rows;
+            long seed = in.getLong();
+            long tick = in.getLong();
+            GameState.Status status = STATUSES[in.get()];
+            long randomState = in.getLong();
+            Direction direction = DIRECTIONS[in.get()];
+            boolean growing = in.get() != 0;
+            int headX = in.getInt();
+            int headY = in.getInt();
+            int foodX = in.getInt();
+            int foodY = in.getInt();
+            int length = in.getInt();
+            int freeCount = in.getInt();
+            boolean hasFreeCells = in.get() != 0;
+            // A cabeça só fica fora do tabuleiro no passo em que bate na parede
+            boolean headInside = headX >= 0 && headX < columns && headY >= 0 && headY < rows;
+            if (!headInside && (status == GameState.Status.RUNNING
+                    || headX < -1 || headX > columns || headY < -1 || headY > rows)) {
+                throw new IOException("Cabeça fora do tabuleiro no snapshot: " + headX + ", " + headY);
+            }
+            if ((foodX != -1 || foodY != -1) && (foodX < 0 || foodX >= columns || foodY < 0 || foodY >= rows)) {
+                throw new IOException("Comida fora do tabuleiro no snapshot: " + foodX + ", " + foodY);
+            }
+            if (length < 1 || length > area || freeCount < 0 || freeCount > area) {
+                throw new IOException("Tamanhos inválidos no snapshot: " + length + " segmentos, "
+                        + freeCount + " células livres");
+            }
+            long bodyBytes = length > 1 ? 4 + (length + 1L) / 4 : 0;
+            if (in.remaining() < bodyBytes + (hasFreeCells ? 4L * freeCount : 0)) {
+                throw new IOException("Snapshot incompleto: " + path);
+            }
+            
+            // Corpo: a cabeça pelas coordenadas, o resto pelas direções a partir do segmento 1
+            int[] cells = new int[length];
+            cells[0] = headInside ? headY * columns + headX : -1;
+            if (length > 1) {
+                int cell = in.getInt();
+                if (cell < 0 || cell >= area) {
+                    throw new IOException("Segmento fora do tabuleiro no snapshot: " + cell);
+                }
+                cells[1] = cell;
+                int x = cell % columns;
+                int y = cell / columns;
+                for (int i = 2; i < length; i += 4) {
+                    int packed = in.get();
+                    int count = Math.min(4, length - i);
+                    for (int j = 0; j < count; j++) {
+                        Direction d = DIRECTIONS[(packed >>> (j * 2)) & 3];
+                        x += d.getDx();
+                        y += d.getDy();
+                        if (x < 0 || x >= columns || y < 0 || y >= rows) {
+                            throw new IOException("Segmento fora do tabuleiro no snapshot: " + x + ", " + y);
+                        }
+                        cells[i + j] = y * columns + x;
+                    }
+                }
+            }
+            
+            FrozenArray freeCells = null;
+            if (hasFreeCells) {
+                int[] free = new int[freeCount];
+                in.asIntBuffer().get(free);
+                for (int cell : free) {
+                    if (cell < 0 || cell >= area) {
+                        throw new IOException("Célula livre fora do tabuleiro no snapshot: " + cell);
+                    }
+                }
+                freeCells = FrozenArray.of(free, freeCount);
+            }
+            return new GameSnapshot(columns, rows, seed, tick, status, randomState, direction, growing,
+                    headX, headY, foodX, foodY, freeCount, FrozenArray.of(cells, length), freeCells);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Snapshot corrompido: " + path, e);
+        }
+    }
+    
+    /**
+     * Libera as vistas congeladas: a partida deixa de copiar páginas para o
+     * snapshot. Depois disso o snapshot não pode mais ser gravado nem restaurado.
+     */
+    public void release() {
+        body.release();
+        if (freeCells != null) {
+            freeCells.release();
+        }
+    }
+    
+    /**
+     * Retorna o número de colunas do tabuleiro.
+     * 
+     * @return Número de colunas
+     */
+    public int getColumns() {
+        return columns;
+    }
+    
+    /**
+     * Retorna o número de linhas do tabuleiro.
+     * 
+     * @return Número de linhas
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Retorna a semente da partida.
+     * 
+     * @return Semente da partida
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Retorna o número de passos já simulados.
+     * 
+     * @return Número de passos
+     */
+    public long getTick() {
+        return tick;
+    }
+    
+    /**
+     * Retorna a situação da partida.
+     * 
+     * @return Situação da partida
+     */
+    public GameState.Status getStatus() {
+        return status;
+    }
+    
+    /**
+     * Retorna o estado do gerador de números aleatórios.
+     * 
+     * @return Estado lido com {@link GameRandom#getState()}
+     */
+    public long getRandomState() {
+        return randomState;
+    }
+    
+    /**
+     * Retorna a direção da cobra.
+     * 
+     * @return Direção da cobra
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+    
+    /**
+     * Verifica se a cobra cresce no próximo movimento.
+     * 
+     * @return true se a cobra acabou de comer, false caso contrário
+     */
+    public boolean isGrowing() {
+        return growing;
+    }
+    
+    /**
+     * Retorna a coluna da cabeça.
+     * 
+     * @return Coluna da cabeça (pode estar fora do tabuleiro)
+     */
+    public int getHeadX() {
+        return headX;
+    }
+    
+    /**
+     * Retorna a linha da cabeça.
+     * 
+     * @return Linha da cabeça (pode estar fora do tabuleiro)
+     */
+    public int getHeadY() {
+        return headY;
+    }
+    
+    /**
+     * Retorna a coluna da comida.
+     * 
+     * @return Coluna da comida, ou -1 se o tabuleiro está cheio
+     */
+    public int getFoodX() {
+        return foodX;
+    }
+    
+    /**
+     * Retorna a linha da comida.
+     * 
+     * @return Linha da comida, ou -1 se o tabuleiro está cheio
+     */
+    public int getFoodY() {
+        return foodY;
+    }
+    
+    /**
+     * Retorna o tamanho da cobra.
+     * 
+     * @return Número de segmentos
+     */
+    public int getLength() {
+        return body.length();
+    }
+    
+    /**
+     * Retorna o número de células livres.
+     * 
+     * @return Número de células livres
+     */
+    public int getFreeCount() {
+        return freeCount;
+    }
+    
+    /**
+     * Retorna as células do corpo, a partir da cabeça.
+     * 
+     * @return Vista das células do corpo
+     */
+    FrozenArray getBody() {
+        return body;
+    }
+    
+    /**
+     * Retorna a lista de células livres.
+     * 
+     * @return Vista das células livres, ou null se o tabuleiro é esparso
+     */
+    FrozenArray getFreeCells() {
+        return freeCells;
+    }
+}
\ No newline at end of file
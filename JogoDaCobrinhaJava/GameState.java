@@ -0,0 +1,133 @@
+/**
+ * Estado completo de uma partida, sem dependências de interface gráfica.
+ */
+public class GameState {
+    /**
+     * Situação da partida.
+     */
+    public enum Status {
+        RUNNING, GAME_OVER, WON
+    }
+    
+    private static final int INITIAL_SIZE = 3; // A cobra começa com 3 segmentos
+    
+    private final SnakeBody snake;
+    private final FoodSpawner food;
+    private long seed;
+    private long tick;
+    private Status status;
+    
+    /**
+     * Construtor da classe GameState.
+     * 
+     * @param snake Modelo da cobra
+     * @param food Modelo da comida
+     * @param seed Semente usada para sortear a comida
+     */
+    public GameState(SnakeBody snake, FoodSpawner food, long seed) {
+        this.snake = snake;
+        this.food = food;
+        this.seed = seed;
+        this.tick = 0;
+        this.status = Status.RUNNING;
+    }
+    
+    /**
+     * Recomeça a partida do passo zero com outra semente.
+     * 
+     * @param seed Semente usada para sortear a comida
+     */
+    void restart(long seed) {
+        this.seed = seed;
+        this.tick = 0;
+        this.status = Status.RUNNING;
+    }
+    
+    /**
+     * Volta a partida para o passo e a situação de um snapshot.
+     * 
+     * @param seed Semente usada para sortear a comida
+     * @param tick Número de passos já simulados
+     * @param status Situação da partida
+     */
+    void restore(long seed, long tick, Status status) {
+        this.seed = seed;
+        this.tick = tick;
+        this.status = status;
+    }
+    
+    /**
+     * Avança o contador de passos da partida.
+     */
+    void advanceTick() {
+        tick++;
+    }
+    
+    /**
+     * Encerra a partida.
+     */
+    void finish() {
+        status = Status.GAME_OVER;
+    }
+    
+    /**
+     * Encerra a partida com vitória (a cobra ocupa o tabuleiro inteiro).
+     */
+    void win() {
+        status = Status.WON;
+    }
+    
+    /**
+     * Retorna o modelo da cobra.
+     * 
+     * @return Modelo da cobra
+     */
+    public SnakeBody getSnake() {
+        return snake;
+    }
+    
+    /**
+     * Retorna o modelo da comida.
+     * 
+     * @return Modelo da comida
+     */
+    public FoodSpawner getFood() {
+        return food;
+    }
+    
+    /**
+     * Retorna a semente usada para sortear a comida.
+     * 
+     * @return Semente da partida
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Retorna o número de passos já simulados.
+     * 
+     * @return Número de passos
+     */
+    public long getTick() {
+        return tick;
+    }
+    
+    /**
+     * Retorna a situação da partida.
+     * 
+     * @return Situação da partida
+     */
+    public Status getStatus() {
+        return status;
+    }
+    
+    /**
+     * Retorna a pontuação atual.
+     * 
+     * @return Pontuação (segmentos além dos 3 iniciais)
+     */
+    public int getScore() {
+        return snake.getSize() - INITIAL_SIZE;
+    }
+}
\ No newline at end of file
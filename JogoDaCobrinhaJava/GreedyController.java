@@ -0,0 +1,39 @@
+/**
+ * Bot simples que segue em direção à comida evitando apenas as
+ * colisões do próximo passo. Não guarda estado, então uma mesma
+ * instância pode ser usada por várias partidas ao mesmo tempo.
+ */
+public class GreedyController implements SnakeController {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    /**
+     * Escolhe, entre as direções seguras, a que mais aproxima a cabeça da comida.
+     * 
+     * @param state Estado atual da partida
+     * @return Direção escolhida, ou null se não houver saída segura
+     */
+    @Override
+    public Direction nextDirection(GameState state) {
+        SnakeBody snake = state.getSnake();
+        FoodSpawner food = state.getFood();
+        Direction best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        
+        for (Direction direction : DIRECTIONS) {
+            if (direction.isOpposite(snake.getDirection())) {
+                continue;
+            }
+            int x = snake.getHeadX() + direction.getDx();
+            int y = snake.getHeadY() + direction.getDy();
+            if (x < 0 || x >= snake.getColumns() || y < 0 || y >= snake.getRows() || snake.isOccupied(x, y)) {
+                continue;
+            }
+            int distance = Math.abs(food.getX() - x) + Math.abs(food.getY() - y);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = direction;
+            }
+        }
+        return best;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+import java.util.Arrays;
+
+/**
+ * Histograma log-linear de valores inteiros não negativos, no estilo do
+ * HdrHistogram: cada potência de 2 é dividida em {@value #SUB_BUCKETS}
+ * faixas iguais, então o erro relativo de qualquer percentil fica abaixo
+ * de 1/{@value #SUB_BUCKETS} (cerca de 3%) em toda a faixa de um long.
+ * 
+ * Os contadores ficam em um vetor de tamanho fixo, então registrar um valor
+ * custa O(1) e não aloca memória. Os métodos são sincronizados para que
+ * outra thread possa copiar o histograma enquanto ele é alimentado.
+ */
+public class Histogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS; // Faixas por potência de 2
+    private static final int LINEAR_LIMIT = SUB_BUCKETS << 1; // Valores abaixo disto têm faixa própria
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (62 - SUB_BITS) * SUB_BUCKETS;
+    
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long max;
+    
+    /**
+     * Registra um valor. Valores negativos contam como zero.
+     * 
+     * @param value Valor a registrar
+     */
+    public synchronized void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+    
+    /**
+     * Retorna a faixa de um valor.
+     */
+    private static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+    
+    /**
+     * Retorna o maior valor que cai na faixa informada.
+     */
+    private static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+    
+    /**
+     * Retorna o valor abaixo do qual está a fração informada dos registros.
+     * O resultado é o limite superior da faixa, limitado ao maior valor visto.
+     * 
+     * @param percentile Percentil entre 0 e 100
+     * @return Valor no percentil, ou 0 se o histograma estiver vazio
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * Retorna quantos valores registrados são menores ou iguais ao limite.
+     * Os valores na mesma faixa do limite contam como menores, então o
+     * erro segue a precisão do histograma.
+     * 
+     * @param limit Limite
+     * @return Número de valores até o limite
+     */
+    public synchronized long getCountAtOrBelow(long limit) {
+        if (limit < 0) {
+            return 0;
+        }
+        int last = bucketOf(limit);
+        long total = 0;
+        for (int i = 0; i <= last; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+    
+    /**
+     * Copia o conteúdo deste histograma para outro, sem alocar memória.
+     * 
+     * @param target Histograma de destino
+     */
+    public void copyInto(Histogram target) {
+        synchronized (this) {
+            synchronized (target) {
+                System.arraycopy(counts, 0, target.counts, 0, counts.length);
+                target.count = count;
+                target.sum = sum;
+                target.max = max;
+            }
+        }
+    }
+    
+    /**
+     * Apaga todos os registros.
+     */
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+    
+    /**
+     * @return Número de valores registrados
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+    
+    /**
+     * @return Soma dos valores registrados
+     */
+    public synchronized long getSum() {
+        return sum;
+    }
+    
+    /**
+     * @return Maior valor registrado
+     */
+    public synchronized long getMax() {
+        return max;
+    }
+}
\ No newline at end of file
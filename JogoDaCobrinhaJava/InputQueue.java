@@ -0,0 +1,101 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila limitada e sem bloqueio das direções pedidas pelo teclado, com um
+ * único produtor (a thread de eventos) e um único consumidor (o passo do
+ * jogo, na thread de eventos ou na thread do laço).
+ * 
+ * Cada passo consome no máximo uma mudança de direção, validada contra a
+ * direção atual da cobra, então duas teclas apertadas no mesmo passo viram
+ * duas curvas em passos seguidos em vez de uma sobrescrever a outra (e, no
+ * caso de CIMA seguido de ESQUERDA indo para a direita, em vez da cobra
+ * voltar sobre o próprio corpo).
+ * 
+ * Produtor e consumidor só se comunicam pelos dois contadores: cada um
+ * escreve o seu com semântica de liberação (lazySet) e lê o do outro com
+ * leitura volátil, o que publica as posições do vetor sem travas.
+ */
+public class InputQueue {
+    private final Direction[] buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Próxima posição a ler (só o consumidor escreve)
+    private final AtomicLong tail = new AtomicLong(); // Próxima posição a escrever (só o produtor escreve)
+    
+    /**
+     * Construtor da classe InputQueue.
+     * 
+     * @param capacity Capacidade mínima; é arredondada para uma potência de 2
+     */
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.buffer = new Direction[size];
+        this.mask = size - 1;
+    }
+    
+    /**
+     * Enfileira uma direção. Só pode ser chamado pelo produtor.
+     * 
+     * @param direction Direção pedida
+     * @return false se a fila estiver cheia (a direção é descartada)
+     */
+    public boolean offer(Direction direction) {
+        long t = tail.get();
+        if (t - head.get() == buffer.length) {
+            return false;
+        }
+        buffer[(int) t & mask] = direction;
+        tail.lazySet(t + 1); // Publica a posição escrita
+        return true;
+    }
+    
+    /**
+     * Retira a próxima direção. Só pode ser chamado pelo consumidor.
+     * 
+     * @return Próxima direção, ou null se a fila estiver vazia
+     */
+    public Direction poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return null;
+        }
+        int index = (int) h & mask;
+        Direction direction = buffer[index];
+        buffer[index] = null;
+        head.lazySet(h + 1); // Libera a posição para o produtor
+        return direction;
+    }
+    
+    /**
+     * Retira a próxima direção que muda o rumo da cobra. Direções iguais à
+     * atual ou opostas a ela são descartadas. Só pode ser chamado pelo consumidor.
+     * 
+     * @param heading Direção atual da cobra
+     * @return Nova direção, ou null para manter a atual
+     */
+    public Direction nextTurn(Direction heading) {
+        Direction direction;
+        while ((direction = poll()) != null) {
+            if (direction != heading && !direction.isOpposite(heading)) {
+                return direction;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Descarta todas as direções pendentes. Só pode ser chamado pelo
+     * consumidor (ou com o consumidor parado).
+     */
+    public void clear() {
+        while (poll() != null) {
+            // Descarta
+        }
+    }
+    
+    /**
+     * @return Número de direções pendentes (aproximado, se chamado fora do consumidor)
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+}
\ No newline at end of file
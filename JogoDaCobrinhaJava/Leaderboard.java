@@ -0,0 +1,213 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Placar ordenado implementado como uma skip list indexável.
+ * 
+ * Os jogadores ficam em ordem decrescente de pontuação e, em caso de empate,
+ * do registro mais antigo para o mais recente (a mesma ordem que a ordenação
+ * estável da lista produzia). Cada ligação guarda quantos jogadores ela pula,
+ * o que permite inserir, descobrir a posição de um jogador e acessar uma
+ * posição qualquer em O(log n) esperado, e ler uma página de k jogadores em
+ * O(log n + k).
+ */
+public class Leaderboard {
+    /**
+     * Ordem do placar: maior pontuação primeiro, depois o registro mais antigo.
+     */
+    public static final Comparator<Player> ORDER = Comparator.<Player>naturalOrder()
+            .thenComparing(Player::getDateTime);
+    
+    private static final int MAX_LEVEL = 32;
+    private static final int LEVEL_PROBABILITY = 4; // Cada nível tem 1/4 dos nós do nível abaixo
+    
+    private final Node head = new Node(null, MAX_LEVEL);
+    private final Random random = new Random();
+    private final Node[] update = new Node[MAX_LEVEL];
+    private final int[] rank = new int[MAX_LEVEL];
+    private int level = 1;
+    private int size;
+    
+    /**
+     * Nó da skip list: cada nível guarda o próximo nó e quantas posições a ligação avança.
+     */
+    private static class Node {
+        final Player player;
+        final Node[] next;
+        final int[] span;
+        
+        Node(Player player, int levels) {
+            this.player = player;
+            this.next = new Node[levels];
+            this.span = new int[levels];
+        }
+    }
+    
+    /**
+     * Insere um jogador no placar. Em caso de empate exato, o novo jogador
+     * fica depois dos que já estavam no placar.
+     * 
+     * @param player Jogador a ser inserido
+     * @return Posição do jogador no placar (começando em 1)
+     */
+    public int add(Player player) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && ORDER.compare(x.next[i].player, player) <= 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = newLevel;
+        }
+        
+        Node node = new Node(player, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+        return rank[0] + 1;
+    }
+    
+    private int randomLevel() {
+        int newLevel = 1;
+        while (newLevel < MAX_LEVEL && random.nextInt(LEVEL_PROBABILITY) == 0) {
+            newLevel++;
+        }
+        return newLevel;
+    }
+    
+    /**
+     * Retorna a posição de um jogador no placar.
+     * 
+     * @param player Jogador procurado (a mesma instância inserida)
+     * @return Posição do jogador (começando em 1), ou -1 se não estiver no placar
+     */
+    public int rankOf(Player player) {
+        Node x = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && ORDER.compare(x.next[i].player, player) < 0) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+        }
+        
+        // Percorre os empates exatos até encontrar a instância
+        x = x.next[0];
+        traversed++;
+        while (x != null && ORDER.compare(x.player, player) == 0) {
+            if (x.player == player) {
+                return traversed;
+            }
+            x = x.next[0];
+            traversed++;
+        }
+        return -1;
+    }
+    
+    /**
+     * Conta os jogadores que vêm estritamente antes de um jogador na ordem do placar.
+     * 
+     * @param player Jogador comparado (não precisa estar no placar)
+     * @return Número de jogadores antes dele
+     */
+    public int countBefore(Player player) {
+        Node x = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && ORDER.compare(x.next[i].player, player) < 0) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+        }
+        return traversed;
+    }
+    
+    /**
+     * Retorna o jogador em uma posição do placar.
+     * 
+     * @param position Posição (começando em 1)
+     * @return Jogador na posição
+     * @throws IndexOutOfBoundsException se a posição não existir
+     */
+    public Player get(int position) {
+        return nodeAt(position).player;
+    }
+    
+    private Node nodeAt(int position) {
+        if (position < 1 || position > size) {
+            throw new IndexOutOfBoundsException("Posição " + position + " fora do placar de " + size);
+        }
+        Node x = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= position) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == position) {
+                break;
+            }
+        }
+        return x;
+    }
+    
+    /**
+     * Retorna uma página do placar.
+     * 
+     * @param offset Número de jogadores a pular a partir do primeiro
+     * @param limit Número máximo de jogadores na página
+     * @return Jogadores da página, em ordem
+     */
+    public List<Player> page(int offset, int limit) {
+        int count = Math.max(0, Math.min(limit, size - offset));
+        List<Player> result = new ArrayList<>(count);
+        if (count == 0) {
+            return result;
+        }
+        Node x = nodeAt(offset + 1);
+        for (int i = 0; i < count; i++) {
+            result.add(x.player);
+            x = x.next[0];
+        }
+        return result;
+    }
+    
+    /**
+     * Retorna os melhores jogadores do placar.
+     * 
+     * @param k Número de jogadores
+     * @return Até k jogadores, do primeiro colocado em diante
+     */
+    public List<Player> top(int k) {
+        return page(0, k);
+    }
+    
+    /**
+     * Retorna o número de jogadores no placar.
+     * 
+     * @return Número de jogadores
+     */
+    public int size() {
+        return size;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Leitor da parte ordenada do {@link RankingLog} mapeada em memória.
+ * 
+ * Nada é decodificado na abertura: cada {@link Player} é criado só quando
+ * sua posição é pedida, e as buscas por posição comparam apenas a pontuação
+ * e a data gravadas no registro. O tempo de abertura e o uso de heap não
+ * crescem com o tamanho do arquivo.
+ */
+public class MappedRankingReader {
+    private static final int RECORDS_PER_SEGMENT = 1 << 24; // 1 GiB por mapeamento
+    
+    private final MappedByteBuffer[] segments;
+    private final long count;
+    private final ZoneId zone = ZoneId.systemDefault();
+    
+    /**
+     * Mapeia os primeiros registros (os ordenados) de um arquivo de ranking.
+     * 
+     * @param channel Canal do arquivo de ranking
+     * @param count Número de registros ordenados
+     * @throws IOException se o mapeamento falhar
+     */
+    MappedRankingReader(FileChannel channel, long count) throws IOException {
+        this.count = count;
+        int segmentCount = (int) ((count + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long first = (long) i * RECORDS_PER_SEGMENT;
+            long records = Math.min(RECORDS_PER_SEGMENT, count - first);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    RankingLog.HEADER_SIZE + first * RankingLog.RECORD_SIZE, records * RankingLog.RECORD_SIZE);
+        }
+    }
+    
+    /**
+     * Retorna o número de registros ordenados.
+     * 
+     * @return Número de registros
+     */
+    public long size() {
+        return count;
+    }
+    
+    /**
+     * Decodifica o jogador em uma posição.
+     * 
+     * @param index Posição (começando em 0)
+     * @return Jogador na posição
+     */
+    public Player get(long index) {
+        Player player = RankingLog.decode(segment(index), offset(index), zone);
+        if (player == null) {
+            // Checksum inválido: mantém a posição com os campos que ainda dão para ler
+            player = new Player("?", scoreAt(index), LocalDateTime.ofInstant(Instant.ofEpochMilli(millisAt(index)), zone));
+        }
+        return player;
+    }
+    
+    /**
+     * Retorna a pontuação gravada em uma posição, sem decodificar o registro.
+     * 
+     * @param index Posição (começando em 0)
+     * @return Pontuação
+     */
+    public int scoreAt(long index) {
+        return segment(index).getInt(offset(index) + RankingLog.RECORD_SCORE);
+    }
+    
+    /**
+     * Retorna a data gravada em uma posição, sem decodificar o registro.
+     * 
+     * @param index Posição (começando em 0)
+     * @return Milissegundos desde a época
+     */
+    public long millisAt(long index) {
+        return segment(index).getLong(offset(index) + RankingLog.RECORD_MILLIS);
+    }
+    
+    /**
+     * Compara o registro em uma posição com um jogador na ordem do ranking.
+     * 
+     * @param index Posição (começando em 0)
+     * @param player Jogador comparado
+     * @return Negativo se o registro vem antes do jogador, zero se empatam, positivo se vem depois
+     */
+    public int compareAt(long index, Player player) {
+        int byScore = Integer.compare(player.getScore(), scoreAt(index));
+        if (byScore != 0) {
+            return byScore;
+        }
+        return Long.compare(millisAt(index), toMillis(player));
+    }
+    
+    /**
+     * Conta os registros que vêm antes de um jogador na ordem do ranking.
+     * 
+     * @param player Jogador comparado
+     * @param includeTies true para contar também os registros empatados com o jogador
+     * @return Número de registros antes do jogador
+     */
+    public long countBefore(Player player, boolean includeTies) {
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            int comparison = compareAt(mid, player);
+            if (comparison < 0 || (includeTies && comparison == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private long toMillis(Player player) {
+        return player.getDateTime().atZone(zone).toInstant().toEpochMilli();
+    }
+    
+    private MappedByteBuffer segment(long index) {
+        return segments[(int) (index / RECORDS_PER_SEGMENT)];
+    }
+    
+    private static int offset(long index) {
+        return (int) (index % RECORDS_PER_SEGMENT) * RankingLog.RECORD_SIZE;
+    }
+}
\ No newline at end of file
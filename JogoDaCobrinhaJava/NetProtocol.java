@@ -0,0 +1,181 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Protocolo binário entre o {@link SnakeServer} e seus clientes.
+ * 
+ * Cada mensagem é um quadro: o tamanho do conteúdo em varint, um byte com o
+ * tipo e o conteúdo. Os números são varints (7 bits por byte). Ao entrar em
+ * uma sala o cliente recebe o estado completo uma única vez ({@link #WELCOME});
+ * depois, a cada passo, só as mudanças ({@link #TICK}): para cada cobra, a
+ * direção do movimento e se cresceu, em 1 ou 2 bytes, além das cobras que
+ * apareceram ou foram eliminadas e das comidas que mudaram.
+ */
+public final class NetProtocol {
+    // Cliente -> servidor
+    /** Entrar em uma sala: varint com o número da sala. */
+    public static final int JOIN = 1;
+    /** Mudar de direção: varint com o ordinal da {@link Direction}. */
+    public static final int TURN = 2;
+    /** Voltar à arena depois de eliminado. */
+    public static final int RESPAWN = 3;
+    
+    // Servidor -> cliente
+    /** Estado completo da sala (ver {@link ArenaMirror#applyWelcome(ByteBuffer)}). */
+    public static final int WELCOME = 16;
+    /** Cobra do jogador: varint com o identificador + 1, ou 0 se a sala está cheia. */
+    public static final int ASSIGN = 17;
+    /** Mudanças de um passo (ver {@link ArenaMirror#applyTick(ByteBuffer)}). */
+    public static final int TICK = 18;
+    
+    // Operações de um TICK: varint (argumento << 3 | operação)
+    public static final int OP_MOVE = 0; // Argumento: id << 3 | direção << 1 | cresceu
+    public static final int OP_SPAWN = 1; // Argumento: id, seguido da célula da cabeça
+    public static final int OP_REMOVE = 2; // Argumento: id
+    public static final int OP_FOOD_ADDED = 3; // Argumento: célula
+    public static final int OP_FOOD_REMOVED = 4; // Argumento: célula
+    
+    /** Maior quadro aceito pelo servidor, vindo de um cliente. */
+    public static final int MAX_CLIENT_FRAME = 16;
+    
+    private NetProtocol() {
+    }
+    
+    /**
+     * Quadro em construção, com vetor que cresce conforme necessário.
+     */
+    public static class FrameWriter {
+        private byte[] bytes = new byte[256];
+        private int size;
+        
+        /**
+         * Descarta o conteúdo e começa um quadro do tipo informado.
+         * 
+         * @param type Tipo do quadro
+         */
+        public void begin(int type) {
+            size = 0;
+            writeByte(type);
+        }
+        
+        /**
+         * Escreve um byte.
+         * 
+         * @param value Byte a escrever
+         */
+        public void writeByte(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) value;
+        }
+        
+        /**
+         * Escreve um número não negativo em varint.
+         * 
+         * @param value Número a escrever
+         */
+        public void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+        
+        /**
+         * Retorna o quadro pronto para envio, com o tamanho na frente.
+         * O conteúdo continua no escritor.
+         * 
+         * @return Quadro completo, em um vetor novo
+         */
+        public ByteBuffer toFrame() {
+            int prefix = 1;
+            for (int rest = size >>> 7; rest != 0; rest >>>= 7) {
+                prefix++;
+            }
+            ByteBuffer frame = ByteBuffer.allocate(prefix + size);
+            for (int rest = size; ; rest >>>= 7) {
+                if ((rest & ~0x7F) == 0) {
+                    frame.put((byte) rest);
+                    break;
+                }
+                frame.put((byte) ((rest & 0x7F) | 0x80));
+            }
+            frame.put(bytes, 0, size);
+            frame.flip();
+            return frame;
+        }
+        
+        /**
+         * @return Tamanho do conteúdo escrito, sem o prefixo
+         */
+        public int size() {
+            return size;
+        }
+    }
+    
+    /**
+     * Lê um número em varint.
+     * 
+     * @param buffer Buffer de leitura
+     * @return Número lido
+     * @throws java.nio.BufferUnderflowException se o número está incompleto
+     */
+    public static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longo demais");
+    }
+    
+    /**
+     * Lê um número em varint que cabe em um int.
+     * 
+     * @param buffer Buffer de leitura
+     * @return Número lido
+     */
+    public static int readVarInt(ByteBuffer buffer) {
+        long value = readVarLong(buffer);
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Número fora do limite: " + value);
+        }
+        return (int) value;
+    }
+    
+    /**
+     * Lê o tamanho do próximo quadro, se ele já chegou inteiro.
+     * Se chegou, a posição do buffer fica no início do conteúdo; senão, não muda.
+     * 
+     * @param buffer Buffer com os bytes recebidos, pronto para leitura
+     * @return Tamanho do conteúdo do quadro, ou -1 se o quadro está incompleto
+     */
+    public static int nextFrame(ByteBuffer buffer) {
+        int start = buffer.position();
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                buffer.position(start);
+                return -1;
+            }
+            byte b = buffer.get();
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+            if (shift >= 28) {
+                throw new IllegalArgumentException("Tamanho de quadro inválido");
+            }
+        }
+        if (buffer.remaining() < length) {
+            buffer.position(start);
+            return -1;
+        }
+        return length;
+    }
+}
\ No newline at end of file
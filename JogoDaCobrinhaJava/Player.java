@@ -10,6 +10,11 @@ import java.time.format.DateTimeFormatter;
 public class Player implements Serializable, Comparable<Player> {
     private static final long serialVersionUID = 1L;
     
+    /**
+     * Formato de data e hora usado na exibição do ranking.
+     */
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    
     private String name;
     private int score;
     private LocalDateTime dateTime;
@@ -26,6 +31,19 @@ public class Player implements Serializable, Comparable<Player> {
         this.dateTime = LocalDateTime.now();
     }
     
+    /**
+     * Construtor da classe Player para uma pontuação já registrada.
+     * 
+     * @param name Nome do jogador
+     * @param score Pontuação do jogador
+     * @param dateTime Data e hora do registro
+     */
+    public Player(String name, int score, LocalDateTime dateTime) {
+        this.name = name;
+        this.score = score;
+        this.dateTime = dateTime;
+    }
+    
     /**
      * Retorna o nome do jogador.
      * 
@@ -60,8 +78,7 @@ public class Player implements Serializable, Comparable<Player> {
      */
     @Override
     public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
-        return name + ": " + score + " - " + dateTime.format(formatter);
+        return name + ": " + score + " - " + dateTime.format(DATE_TIME_FORMATTER);
     }
     
     /**
@@ -0,0 +1,171 @@
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice por nome e cache das consultas frequentes do ranking.
+ * 
+ * Guarda a melhor pontuação de cada nome e, em caches LRU de tamanho fixo, a
+ * posição da melhor pontuação dos nomes consultados e as listas dos k
+ * primeiros colocados. Uma pontuação nova não esvazia os caches: só corrige
+ * as entradas que ela afeta. As posições dos jogadores que ficam depois dela
+ * sobem uma unidade, a posição do próprio nome é descartada se ele bateu o
+ * recorde, e as listas dos k primeiros em que ela entra são descartadas.
+ * 
+ * Não é sincronizado; o {@link RankingSystem} só o altera com o lock de
+ * escrita, e as consultas que o usam sob o lock de leitura sincronizam nele.
+ */
+public class RankingIndex {
+    private static final int MAX_CACHED_RANKS = 1024;
+    private static final int MAX_CACHED_TOPS = 8;
+    
+    /**
+     * Posição em cache da melhor pontuação de um nome.
+     */
+    private static class CachedRank {
+        final Player player;
+        int rank;
+        
+        CachedRank(Player player, int rank) {
+            this.player = player;
+            this.rank = rank;
+        }
+    }
+    
+    private final Map<String, Player> best = new HashMap<>(); // Melhor pontuação de cada nome
+    private final Map<String, CachedRank> ranks = lru(MAX_CACHED_RANKS);
+    private final Map<Integer, List<Player>> tops = lru(MAX_CACHED_TOPS);
+    private boolean built; // Todas as pontuações do ranking já passaram pelo índice
+    
+    private static <K, V> Map<K, V> lru(int capacity) {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+    
+    /**
+     * Registra uma pontuação no índice por nome durante a montagem.
+     * 
+     * @param player Pontuação do ranking
+     */
+    public void offer(Player player) {
+        Player current = best.get(player.getName());
+        if (current == null || Leaderboard.ORDER.compare(player, current) < 0) {
+            best.put(player.getName(), player);
+        }
+    }
+    
+    /**
+     * Marca o índice por nome como completo.
+     */
+    public void markBuilt() {
+        built = true;
+    }
+    
+    /**
+     * Verifica se o índice por nome já recebeu todas as pontuações do ranking.
+     * 
+     * @return true se o índice está completo, false caso contrário
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+    
+    /**
+     * Atualiza o índice e os caches com uma pontuação recém-adicionada ao ranking.
+     * 
+     * @param player Pontuação adicionada
+     */
+    public void playerAdded(Player player) {
+        for (CachedRank cached : ranks.values()) {
+            if (Leaderboard.ORDER.compare(player, cached.player) < 0) {
+                cached.rank++; // A nova pontuação entrou antes
+            }
+        }
+        for (Iterator<Map.Entry<Integer, List<Player>>> it = tops.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Integer, List<Player>> entry = it.next();
+            List<Player> top = entry.getValue();
+            if (top.size() < entry.getKey() || Leaderboard.ORDER.compare(player, top.get(top.size() - 1)) < 0) {
+                it.remove();
+            }
+        }
+        if (built) {
+            Player current = best.get(player.getName());
+            if (current == null || Leaderboard.ORDER.compare(player, current) < 0) {
+                best.put(player.getName(), player);
+                ranks.remove(player.getName());
+            }
+        }
+    }
+    
+    /**
+     * Retorna a melhor pontuação de um nome.
+     * 
+     * @param name Nome do jogador
+     * @return Melhor pontuação, ou null se o nome não está no ranking
+     */
+    public Player getBest(String name) {
+        return best.get(name);
+    }
+    
+    /**
+     * Retorna a posição em cache da melhor pontuação de um nome.
+     * 
+     * @param name Nome do jogador
+     * @return Posição (começando em 1), ou 0 se não está em cache
+     */
+    public int getCachedRank(String name) {
+        CachedRank cached = ranks.get(name);
+        return cached == null ? 0 : cached.rank;
+    }
+    
+    /**
+     * Guarda em cache a posição da melhor pontuação de um nome.
+     * 
+     * @param player Melhor pontuação do nome
+     * @param rank Posição da pontuação (começando em 1)
+     */
+    public void putRank(Player player, int rank) {
+        ranks.put(player.getName(), new CachedRank(player, rank));
+    }
+    
+    /**
+     * Retorna a lista em cache dos k primeiros colocados.
+     * 
+     * @param k Número de jogadores
+     * @return Lista somente leitura, ou null se não está em cache
+     */
+    public List<Player> getCachedTop(int k) {
+        return tops.get(k);
+    }
+    
+    /**
+     * Guarda em cache a lista dos k primeiros colocados.
+     * 
+     * @param k Número de jogadores pedido
+     * @param top Lista somente leitura com até k jogadores
+     */
+    public void putTop(int k, List<Player> top) {
+        tops.put(k, top);
+    }
+    
+    /**
+     * Esvazia o índice por nome e os caches, que voltam a ser montados na
+     * próxima consulta. Usado depois de uma compactação, que troca as
+     * pontuações em memória pelas cópias gravadas no arquivo (com a data
+     * truncada em milissegundos) e pode mudar a ordem dos empates.
+     */
+    public void clear() {
+        best.clear();
+        ranks.clear();
+        tops.clear();
+        built = false;
+    }
+}
\ No newline at end of file
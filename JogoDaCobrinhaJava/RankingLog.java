@@ -0,0 +1,544 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Arquivo binário do ranking, gravado só por acréscimo (append-only).
+ * 
+ * Formato: um cabeçalho de {@value #HEADER_SIZE} bytes com checksum, seguido
+ * de registros de tamanho fixo ({@value #RECORD_SIZE} bytes): tamanho do nome,
+ * nome em UTF-8 (até {@value #MAX_NAME_BYTES} bytes), pontuação, data/hora em
+ * milissegundos desde a época e CRC32 do registro. Os primeiros
+ * {@code sortedCount} registros estão na ordem do ranking; os demais foram
+ * acrescentados depois, em ordem de chegada.
+ * 
+ * Cada pontuação nova custa a escrita de um registro. Uma compactação em
+ * segundo plano reescreve o arquivo inteiro em ordem (descartando registros
+ * corrompidos) quando a parte desordenada cresce demais, e a troca do
+ * arquivo é atômica. Registros incompletos no fim do arquivo, deixados por
+ * uma queda no meio de uma escrita, são descartados ao abrir.
+ * 
+ * A parte ordenada pode estar mapeada em memória por um
+ * {@link MappedRankingReader}, e um arquivo mapeado não pode ser substituído
+ * em todos os sistemas (no Windows a troca falha). Por isso a compactação
+ * grava uma nova geração do arquivo ({@code ranking.log.1},
+ * {@code ranking.log.2}...) em vez de sobrescrever o atual. As gerações
+ * antigas são apagadas quando nenhum mapeamento as prende mais; ao abrir,
+ * vale a geração mais nova, e ao fechar ela volta para o nome original se
+ * der.
+ */
+public class RankingLog implements AutoCloseable {
+    static final int MAGIC = 0x52414E4B; // "RANK"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 64;
+    static final int MAX_NAME_BYTES = 47;
+    
+    // Deslocamentos dentro do cabeçalho
+    private static final int HEADER_SORTED_COUNT = 8;
+    private static final int HEADER_CRC = 16;
+    
+    // Deslocamentos dentro de cada registro
+    static final int RECORD_SCORE = 48;
+    static final int RECORD_MILLIS = 52;
+    static final int RECORD_CRC = 60;
+    
+    private static final int COMPACTION_MIN_UNSORTED = 256;
+    private static final long COMPACTION_PERIOD_MINUTES = 5;
+    private static final int IO_BATCH_RECORDS = 1024;
+    
+    private final Path path;
+    private Path file; // Geração atual do arquivo
+    private long generation;
+    private final List<Path> stale = new ArrayList<>(); // Gerações antigas que ainda não puderam ser apagadas
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ScheduledExecutorService compactor;
+    private FileChannel channel;
+    private long recordCount;
+    private long sortedCount;
+    private boolean compacting;
+    private Runnable compactionListener;
+    
+    /**
+     * Abre (ou cria) o arquivo de ranking. Se ele ainda não existir e houver
+     * um ranking no formato antigo (lista serializada), ele é migrado.
+     * 
+     * @param path Caminho do arquivo de ranking
+     * @param legacyPath Caminho do ranking no formato antigo
+     * @throws IOException se o arquivo não puder ser aberto
+     */
+    public RankingLog(Path path, Path legacyPath) throws IOException {
+        this.path = path;
+        if (!Files.exists(path) && Files.exists(legacyPath)) {
+            migrateLegacy(legacyPath, path);
+        }
+        open();
+        
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ranking-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded,
+                COMPACTION_PERIOD_MINUTES, COMPACTION_PERIOD_MINUTES, TimeUnit.MINUTES);
+    }
+    
+    /**
+     * Abre o arquivo, valida o cabeçalho e descarta um registro incompleto no fim.
+     */
+    private void open() throws IOException {
+        findGeneration();
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            writeHeader(channel, 0);
+            channel.force(true);
+        } else if (!readHeader()) {
+            // Cabeçalho inválido: preserva o arquivo para análise e começa um novo
+            channel.close();
+            Path corrupt = path.resolveSibling(path.getFileName() + ".corrupt");
+            Files.move(file, corrupt, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("Cabeçalho do ranking inválido; arquivo movido para " + corrupt);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            writeHeader(channel, 0);
+            channel.force(true);
+        }
+        
+        recordCount = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        long validSize = HEADER_SIZE + recordCount * RECORD_SIZE;
+        if (channel.size() != validSize) {
+            channel.truncate(validSize);
+        }
+        sortedCount = Math.min(sortedCount, recordCount);
+    }
+    
+    /**
+     * Escolhe a geração mais nova do arquivo e marca as outras para serem
+     * apagadas. Uma geração só ganha o nome final depois de gravada por
+     * inteiro, então a mais nova está sempre completa.
+     */
+    private void findGeneration() throws IOException {
+        String prefix = path.getFileName() + ".";
+        List<Path> found = new ArrayList<>();
+        file = path;
+        generation = 0;
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(path.toAbsolutePath().getParent(),
+                entry -> entry.getFileName().toString().startsWith(prefix))) {
+            for (Path sibling : siblings) {
+                String suffix = sibling.getFileName().toString().substring(prefix.length());
+                if (suffix.isEmpty() || !suffix.chars().allMatch(Character::isDigit) || suffix.length() > 18) {
+                    continue; // Arquivo temporário ou corrompido
+                }
+                found.add(sibling);
+                long number = Long.parseLong(suffix);
+                if (number > generation) {
+                    generation = number;
+                    file = sibling;
+                }
+            }
+        }
+        if (generation > 0) {
+            found.add(path);
+            found.remove(file);
+            stale.addAll(found);
+            deleteStale();
+        }
+    }
+    
+    /**
+     * Apaga as gerações antigas que nenhum mapeamento prende mais. As que
+     * ainda estão mapeadas ficam para a próxima tentativa.
+     */
+    private synchronized void deleteStale() {
+        stale.removeIf(old -> {
+            try {
+                Files.deleteIfExists(old);
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        });
+    }
+    
+    private Path generationPath(long number) {
+        return number == 0 ? path : path.resolveSibling(path.getFileName() + "." + number);
+    }
+    
+    private boolean readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.read(header, 0) < HEADER_SIZE) {
+            return false;
+        }
+        header.flip();
+        if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION || header.getShort(6) != RECORD_SIZE) {
+            return false;
+        }
+        if (header.getInt(HEADER_CRC) != crc(header, 0, HEADER_CRC)) {
+            return false;
+        }
+        sortedCount = header.getLong(HEADER_SORTED_COUNT);
+        return true;
+    }
+    
+    private static void writeHeader(FileChannel target, long sortedCount) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(0, MAGIC);
+        header.putShort(4, VERSION);
+        header.putShort(6, (short) RECORD_SIZE);
+        header.putLong(HEADER_SORTED_COUNT, sortedCount);
+        header.putInt(HEADER_CRC, crc(header, 0, HEADER_CRC));
+        target.write(header, 0);
+    }
+    
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(offset + length).position(offset));
+        return (int) crc.getValue();
+    }
+    
+    /**
+     * Acrescenta uma pontuação ao fim do arquivo e força a gravação no disco.
+     * 
+     * @param player Jogador a ser gravado
+     * @throws IOException se a escrita falhar
+     */
+    public void append(Player player) throws IOException {
+        appendAll(Collections.singletonList(player));
+    }
+    
+    /**
+     * Acrescenta várias pontuações ao fim do arquivo com uma única
+     * sincronização com o disco.
+     * 
+     * @param players Jogadores a serem gravados, na ordem de chegada
+     * @throws IOException se a escrita falhar
+     */
+    public synchronized void appendAll(List<Player> players) throws IOException {
+        writeRecords(channel, players, HEADER_SIZE + recordCount * RECORD_SIZE);
+        channel.force(false);
+        recordCount += players.size();
+        
+        if (needsCompaction()) {
+            compactor.execute(this::compactIfNeeded);
+        }
+    }
+    
+    /**
+     * Mapeia em memória a parte ordenada do arquivo atual.
+     * 
+     * @return Leitor da parte ordenada
+     * @throws IOException se o mapeamento falhar
+     */
+    public synchronized MappedRankingReader openSortedReader() throws IOException {
+        return new MappedRankingReader(channel, sortedCount);
+    }
+    
+    /**
+     * Lê os registros válidos acrescentados depois da última compactação.
+     * 
+     * @param consumer Recebe cada jogador lido, em ordem de chegada
+     * @throws IOException se a leitura falhar
+     */
+    public void readUnsorted(Consumer<Player> consumer) throws IOException {
+        FileChannel source;
+        long first;
+        long count;
+        synchronized (this) {
+            source = channel;
+            first = sortedCount;
+            count = recordCount - sortedCount;
+        }
+        readRecords(source, first, count, consumer);
+    }
+    
+    /**
+     * Define quem é avisado ao fim de cada compactação, quando a parte
+     * ordenada do arquivo muda e os leitores mapeados devem ser reabertos.
+     * O aviso é dado na thread de compactação, sem bloqueio do arquivo.
+     * 
+     * @param listener Ação executada após a compactação, ou null para remover
+     */
+    public synchronized void setCompactionListener(Runnable listener) {
+        this.compactionListener = listener;
+    }
+    
+    /**
+     * Lê todos os registros válidos do arquivo, na ordem em que estão gravados.
+     * 
+     * @param consumer Recebe cada jogador lido
+     * @throws IOException se a leitura falhar
+     */
+    public void readAll(Consumer<Player> consumer) throws IOException {
+        FileChannel source;
+        long count;
+        synchronized (this) {
+            source = channel;
+            count = recordCount;
+        }
+        readRecords(source, 0, count, consumer);
+    }
+    
+    private void readRecords(FileChannel source, long first, long count, Consumer<Player> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BATCH_RECORDS * RECORD_SIZE);
+        long index = first;
+        long end = first + count;
+        while (index < end) {
+            int batch = (int) Math.min(IO_BATCH_RECORDS, end - index);
+            buffer.clear().limit(batch * RECORD_SIZE);
+            long position = HEADER_SIZE + index * RECORD_SIZE;
+            while (buffer.hasRemaining()) {
+                if (source.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Fim inesperado do arquivo de ranking");
+                }
+            }
+            for (int i = 0; i < batch; i++) {
+                Player player = decode(buffer, i * RECORD_SIZE, zone);
+                if (player != null) {
+                    consumer.accept(player);
+                }
+            }
+            index += batch;
+        }
+    }
+    
+    /**
+     * Grava um jogador como registro de tamanho fixo.
+     * Nomes com mais de {@value #MAX_NAME_BYTES} bytes em UTF-8 são truncados.
+     */
+    static void encode(Player player, ByteBuffer buffer, int offset, ZoneId zone) {
+        byte[] name = truncatedName(player.getName());
+        buffer.put(offset, (byte) name.length);
+        for (int i = 0; i < MAX_NAME_BYTES; i++) {
+            buffer.put(offset + 1 + i, i < name.length ? name[i] : 0);
+        }
+        buffer.putInt(offset + RECORD_SCORE, player.getScore());
+        buffer.putLong(offset + RECORD_MILLIS, player.getDateTime().atZone(zone).toInstant().toEpochMilli());
+        buffer.putInt(offset + RECORD_CRC, crc(buffer, offset, RECORD_CRC));
+    }
+    
+    /**
+     * Lê um registro de tamanho fixo.
+     * 
+     * @return Jogador lido, ou null se o checksum do registro não confere
+     */
+    static Player decode(ByteBuffer buffer, int offset, ZoneId zone) {
+        if (buffer.getInt(offset + RECORD_CRC) != crc(buffer, offset, RECORD_CRC)) {
+            return null;
+        }
+        int length = Math.min(buffer.get(offset) & 0xFF, MAX_NAME_BYTES);
+        byte[] name = new byte[length];
+        buffer.get(offset + 1, name);
+        LocalDateTime dateTime = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(buffer.getLong(offset + RECORD_MILLIS)), zone);
+        return new Player(new String(name, StandardCharsets.UTF_8), buffer.getInt(offset + RECORD_SCORE), dateTime);
+    }
+    
+    /**
+     * Codifica o nome em UTF-8 sem cortar um caractere ao meio.
+     */
+    private static byte[] truncatedName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_NAME_BYTES) {
+            return bytes;
+        }
+        int end = MAX_NAME_BYTES;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--; // Recua até o início de um caractere
+        }
+        byte[] truncated = new byte[end];
+        System.arraycopy(bytes, 0, truncated, 0, end);
+        return truncated;
+    }
+    
+    private synchronized boolean needsCompaction() {
+        long unsorted = recordCount - sortedCount;
+        return !compacting && unsorted >= Math.max(COMPACTION_MIN_UNSORTED, sortedCount / 8);
+    }
+    
+    private void compactIfNeeded() {
+        try {
+            if (needsCompaction()) {
+                compact();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Reescreve o arquivo com todos os registros na ordem do ranking.
+     * Os registros são lidos e ordenados sem bloquear novas gravações; só a
+     * cópia dos registros acrescentados nesse meio tempo e a troca do arquivo
+     * acontecem com o bloqueio. O resultado é uma nova geração do arquivo: a
+     * atual, que pode estar mapeada, não é sobrescrita.
+     * 
+     * @throws IOException se a compactação falhar (o arquivo original é mantido)
+     */
+    public void compact() throws IOException {
+        FileChannel source;
+        long count;
+        Path target;
+        Runnable listener;
+        synchronized (this) {
+            if (compacting) {
+                return;
+            }
+            compacting = true;
+            source = channel;
+            count = recordCount;
+            target = generationPath(generation + 1);
+            listener = compactionListener;
+        }
+        
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            List<Player> players = new ArrayList<>();
+            readRecords(source, 0, count, players::add);
+            players.sort(Leaderboard.ORDER);
+            
+            try (FileChannel output = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeHeader(output, players.size());
+                writeRecords(output, players, HEADER_SIZE);
+                
+                synchronized (this) {
+                    // Copia os registros acrescentados durante a ordenação
+                    long position = HEADER_SIZE + (long) players.size() * RECORD_SIZE;
+                    long appended = recordCount - count;
+                    source.transferTo(HEADER_SIZE + count * RECORD_SIZE, appended * RECORD_SIZE, output.position(position));
+                    output.force(true);
+                    
+                    // Nome novo: a geração atual continua intacta para quem ainda a tem mapeada
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    channel.close();
+                    channel = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    stale.add(file);
+                    file = target;
+                    generation++;
+                    sortedCount = players.size();
+                    recordCount = sortedCount + appended;
+                }
+            }
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+            Files.deleteIfExists(temp);
+        }
+        
+        if (listener != null) {
+            listener.run(); // Os leitores trocam de geração; as antigas saem na próxima compactação ou ao fechar
+        }
+        deleteStale();
+    }
+    
+    private void writeRecords(FileChannel target, List<Player> players, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BATCH_RECORDS * RECORD_SIZE);
+        int index = 0;
+        while (index < players.size()) {
+            int batch = Math.min(IO_BATCH_RECORDS, players.size() - index);
+            buffer.clear();
+            for (int i = 0; i < batch; i++) {
+                encode(players.get(index + i), buffer, i * RECORD_SIZE, zone);
+            }
+            buffer.limit(batch * RECORD_SIZE);
+            while (buffer.hasRemaining()) {
+                position += target.write(buffer, position);
+            }
+            index += batch;
+        }
+    }
+    
+    /**
+     * Converte o ranking antigo (lista de jogadores serializada) para o novo
+     * formato, já em ordem. O arquivo antigo é mantido com a extensão .bak.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrateLegacy(Path legacyPath, Path target) throws IOException {
+        List<Player> players;
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(legacyPath.toFile()))) {
+            players = new ArrayList<>((List<Player>) ois.readObject());
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Ranking antigo ilegível", e);
+        }
+        players.sort(Leaderboard.ORDER);
+        
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(channel, players.size());
+            writeRecords(channel, players, HEADER_SIZE);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(legacyPath, legacyPath.resolveSibling(legacyPath.getFileName() + ".bak"),
+                StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Ranking antigo migrado: " + players.size() + " registros.");
+    }
+    
+    /**
+     * Retorna o número de registros no arquivo.
+     * 
+     * @return Número de registros
+     */
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+    
+    /**
+     * Retorna o número de registros da parte ordenada do arquivo.
+     * 
+     * @return Número de registros ordenados
+     */
+    public synchronized long getSortedCount() {
+        return sortedCount;
+    }
+    
+    /**
+     * Espera a compactação em andamento terminar e fecha o arquivo.
+     * 
+     * @throws IOException se o arquivo não puder ser fechado
+     */
+    @Override
+    public void close() throws IOException {
+        // Fora do lock: a compactação precisa dele para terminar
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            channel.close();
+            deleteStale();
+            if (generation > 0 && stale.isEmpty()) {
+                // Nenhum mapeamento prende mais o nome original: a geração atual volta para ele
+                try {
+                    Files.move(file, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    file = path;
+                    generation = 0;
+                } catch (IOException e) {
+                    // Fica com o nome da geração, que é encontrada ao abrir de novo
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
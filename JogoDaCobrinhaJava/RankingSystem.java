@@ -1,73 +1,472 @@
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.swing.*;
 import java.awt.*;
 
 /**
  * Classe responsável por gerenciar o sistema de ranking do jogo.
  * Permite salvar, carregar e exibir as pontuações dos jogadores.
+ * 
+ * As pontuações são gravadas por acréscimo em um {@link RankingLog}. A parte
+ * ordenada do arquivo é lida sob demanda por um {@link MappedRankingReader}
+ * e só as pontuações mais recentes (ainda não compactadas) ficam em memória
+ * em um {@link Leaderboard}. As consultas intercalam as duas fontes; em caso
+ * de empate, os registros do arquivo vêm primeiro.
+ * 
+ * Uma pontuação nova entra no placar em memória na hora e é gravada em
+ * segundo plano por um {@link ScoreWriter}, fora da thread de eventos.
+ * 
+ * As consultas por nome (melhor pontuação e sua posição) e a dos primeiros
+ * colocados passam por um {@link RankingIndex}, montado na primeira consulta
+ * por nome e mantido a cada pontuação nova.
+ * 
+ * É seguro usar o ranking de várias threads (várias partidas ou um servidor).
+ * Quem envia uma pontuação só a coloca em uma fila sem bloqueio; a fila é
+ * esvaziada em lote no placar por quem conseguir o lock de escrita (a
+ * própria thread que enviou, se ninguém estiver com ele, ou a próxima
+ * consulta). As consultas usam o lock de leitura e enxergam um estado
+ * consistente do ranking, que inclui todas as pontuações enviadas antes
+ * delas. O arquivo só é escrito pela thread do {@link ScoreWriter}.
  */
 public class RankingSystem {
-    private static final String RANKING_FILE = "ranking.dat";
-    private List<Player> players;
+    private static final String RANKING_FILE = "ranking.log";
+    private static final String LEGACY_RANKING_FILE = "ranking.dat"; // Formato antigo (lista serializada)
+    private RankingLog log;
+    private MappedRankingReader sorted; // Parte ordenada do arquivo, lida sob demanda
+    private Leaderboard recent; // Pontuações ainda fora da parte ordenada
+    private ScoreWriter writer;
+    private final Set<Player> pending = ConcurrentHashMap.newKeySet(); // Ainda não gravadas (Player compara por identidade)
+    private final ConcurrentLinkedQueue<Player> staged = new ConcurrentLinkedQueue<>(); // Enviadas, ainda fora do placar
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RankingIndex index = new RankingIndex(); // Protegido pelo próprio monitor nas consultas
+    private Thread shutdownHook;
     
     /**
      * Construtor da classe RankingSystem.
-     * Carrega o ranking existente ou cria uma nova lista vazia.
+     * Abre o ranking existente ou cria um placar vazio. Só as pontuações
+     * ainda não compactadas são carregadas para a memória.
      */
     public RankingSystem() {
-        players = new ArrayList<>();
-        loadRanking();
+        this(Paths.get(RANKING_FILE));
     }
     
     /**
-     * Adiciona um novo jogador ao ranking.
+     * Construtor da classe RankingSystem com um arquivo de ranking próprio.
+     * Um ranking no formato antigo é procurado na mesma pasta do arquivo.
+     * 
+     * @param file Caminho do arquivo de ranking
+     */
+    public RankingSystem(Path file) {
+        recent = new Leaderboard();
+        loadRanking(file);
+    }
+    
+    /**
+     * Adiciona um novo jogador ao ranking. A gravação no arquivo acontece
+     * em segundo plano; veja {@link #submitScore(String, int)}.
      * 
      * @param name Nome do jogador
      * @param score Pontuação do jogador
+     * @return Posição do jogador no ranking (começando em 1)
      */
-    public void addScore(String name, int score) {
+    public int addScore(String name, int score) {
         Player player = new Player(name, score);
-        players.add(player);
-        Collections.sort(players); // Ordena a lista de jogadores
-        saveRanking(); // Salva o ranking atualizado
+        stage(player); // Enfileira a inserção no placar e a gravação no arquivo
+        return getRank(player);
+    }
+    
+    /**
+     * Adiciona um novo jogador ao ranking sem esperar pela gravação no arquivo.
+     * O jogador aparece nas consultas imediatamente.
+     * 
+     * @param name Nome do jogador
+     * @param score Pontuação do jogador
+     * @return Concluído com o jogador quando a pontuação estiver gravada no disco
+     */
+    public CompletableFuture<Player> submitScore(String name, int score) {
+        return stage(new Player(name, score));
+    }
+    
+    /**
+     * Coloca uma pontuação na fila do placar e enfileira sua gravação.
+     * O lock de leitura só impede que uma releitura depois de compactação
+     * aconteça entre a entrada na lista de pendentes e na fila.
+     */
+    private CompletableFuture<Player> stage(Player player) {
+        Lock shared = lock.readLock();
+        shared.lock();
+        try {
+            if (writer != null) {
+                pending.add(player);
+            }
+            staged.offer(player);
+        } finally {
+            shared.unlock();
+        }
+        combine();
+        if (writer == null) {
+            // O arquivo não pôde ser aberto; o ranking fica só em memória
+            return CompletableFuture.completedFuture(player);
+        }
+        return writer.submit(player);
+    }
+    
+    /**
+     * Esvazia a fila no placar se o lock de escrita estiver livre. Se outra
+     * thread estiver com ele, ela ou a próxima consulta esvazia a fila.
+     */
+    private void combine() {
+        while (!staged.isEmpty() && lock.writeLock().tryLock()) {
+            try {
+                drainStaged();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
     }
     
     /**
-     * Carrega o ranking do arquivo.
+     * Insere no placar as pontuações da fila. Exige o lock de escrita.
      */
-    @SuppressWarnings("unchecked")
-    private void loadRanking() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(RANKING_FILE))) {
-            players = (List<Player>) ois.readObject();
-        } catch (FileNotFoundException e) {
-            // Arquivo não existe ainda, não é um erro
-            System.out.println("Arquivo de ranking não encontrado. Um novo será criado.");
-        } catch (IOException | ClassNotFoundException e) {
+    private void drainStaged() {
+        Player player;
+        while ((player = staged.poll()) != null) {
+            recent.add(player); // Insere já na posição ordenada
+            index.playerAdded(player);
+        }
+    }
+    
+    /**
+     * Adquire o lock de leitura, esvaziando antes a fila para que a consulta
+     * veja todas as pontuações já enviadas.
+     * 
+     * @return Lock adquirido, a ser liberado pelo chamador
+     */
+    private Lock readLock() {
+        if (!staged.isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                drainStaged();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        Lock shared = lock.readLock();
+        shared.lock();
+        return shared;
+    }
+    
+    /**
+     * Abre o arquivo de ranking, migrando o formato antigo se necessário.
+     */
+    private void loadRanking(Path file) {
+        try {
+            log = new RankingLog(file, file.resolveSibling(LEGACY_RANKING_FILE));
+            sorted = log.openSortedReader();
+            log.readUnsorted(recent::add);
+            writer = new ScoreWriter(log, this::markDurable);
+            
+            // A releitura roda na thread de gravação, para nunca encontrar uma gravação pela metade
+            log.setCompactionListener(() -> writer.execute(this::reloadAfterCompaction));
+            shutdownHook = new Thread(this::close, "ranking-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
     
     /**
-     * Salva o ranking no arquivo.
+     * Reabre a parte ordenada depois de uma compactação, que incorporou
+     * a ela as pontuações que estavam em memória. As pontuações ainda não
+     * gravadas continuam no placar em memória.
      */
-    private void saveRanking() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(RANKING_FILE))) {
-            oos.writeObject(players);
+    private void reloadAfterCompaction() {
+        lock.writeLock().lock();
+        try {
+            MappedRankingReader reader;
+            Leaderboard unsorted = new Leaderboard();
+            // Outra compactação não pode trocar o arquivo entre as duas leituras
+            synchronized (log) {
+                reader = log.openSortedReader();
+                log.readUnsorted(unsorted::add);
+            }
+            // As pontuações da fila também estão entre as pendentes; entram no placar novo por elas
+            staged.clear();
+            for (Player player : pending) {
+                unsorted.add(player);
+            }
+            sorted = reader;
+            recent = unsorted;
+            synchronized (index) {
+                index.clear(); // O índice apontava para as instâncias em memória, agora trocadas pelas do arquivo
+            }
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Chamado pela thread de gravação quando um lote de pontuações chegou ao disco.
+     */
+    private void markDurable(List<Player> players) {
+        pending.removeAll(players);
+    }
+    
+    /**
+     * Grava as pontuações pendentes e fecha o arquivo de ranking.
+     * Também é chamado automaticamente quando a JVM é encerrada.
+     */
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // A JVM já está sendo encerrada; o gancho fecha o arquivo
+            }
+        }
+        writer.close();
+        try {
+            log.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private long sortedSize() {
+        return sorted == null ? 0 : sorted.size();
+    }
+    
+    /**
+     * Descobre quantos dos primeiros {@code k} jogadores do ranking vêm da parte
+     * ordenada do arquivo, por busca binária entre as duas fontes.
+     */
+    private long splitAt(long k) {
+        long low = Math.max(0, k - recent.size());
+        long high = Math.min(k, sortedSize());
+        while (low < high) {
+            long i = (low + high) >>> 1;
+            int j = (int) (k - i);
+            // Se o registro i do arquivo não vem depois do recente j-1, ele está entre os k primeiros
+            if (j > 0 && sorted.compareAt(i, recent.get(j)) <= 0) {
+                low = i + 1;
+            } else {
+                high = i;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Retorna os melhores jogadores do ranking. As listas pedidas com
+     * frequência ficam em cache até uma pontuação nova entrar nelas.
+     * 
+     * @param k Número de jogadores
+     * @return Lista somente leitura com até k jogadores, do primeiro colocado em diante
+     */
+    public List<Player> getTopPlayers(int k) {
+        Lock shared = readLock();
+        try {
+            synchronized (index) {
+                List<Player> top = index.getCachedTop(k);
+                if (top == null) {
+                    top = Collections.unmodifiableList(page(0, k));
+                    index.putTop(k, top);
+                }
+                return top;
+            }
+        } finally {
+            shared.unlock();
+        }
+    }
+    
+    /**
+     * Retorna a melhor pontuação de um jogador. A primeira consulta por nome
+     * percorre o ranking inteiro para montar o índice; as seguintes custam O(1).
+     * 
+     * @param name Nome do jogador
+     * @return Melhor pontuação do jogador, ou null se ele não está no ranking
+     */
+    public Player getBestScore(String name) {
+        Lock shared = readLock();
+        try {
+            synchronized (index) {
+                buildIndex();
+                return index.getBest(name);
+            }
+        } finally {
+            shared.unlock();
+        }
+    }
+    
+    /**
+     * Retorna a posição da melhor pontuação de um jogador. As posições
+     * consultadas ficam em cache e são corrigidas a cada pontuação nova.
+     * 
+     * @param name Nome do jogador
+     * @return Posição (começando em 1), ou 0 se o jogador não está no ranking
+     */
+    public int getBestRank(String name) {
+        Lock shared = readLock();
+        try {
+            synchronized (index) {
+                int rank = index.getCachedRank(name);
+                if (rank > 0) {
+                    return rank;
+                }
+                buildIndex();
+                Player best = index.getBest(name);
+                if (best == null) {
+                    return 0;
+                }
+                rank = rank(best);
+                index.putRank(best, rank);
+                return rank;
+            }
+        } finally {
+            shared.unlock();
+        }
+    }
+    
+    /**
+     * Monta o índice por nome na primeira consulta, com as pontuações do
+     * arquivo e as da memória. Exige o lock de leitura e o monitor do índice.
+     */
+    private void buildIndex() {
+        if (index.isBuilt()) {
+            return;
+        }
+        for (long i = 0; i < sortedSize(); i++) {
+            index.offer(sorted.get(i));
+        }
+        for (Player player : recent.page(0, recent.size())) {
+            index.offer(player);
         }
+        index.markBuilt();
     }
     
     /**
-     * Retorna a lista de jogadores ordenada por pontuação.
+     * Retorna uma página do ranking. Só os registros da página são decodificados.
      * 
-     * @return Lista de jogadores
+     * @param offset Número de jogadores a pular a partir do primeiro
+     * @param limit Número máximo de jogadores na página
+     * @return Jogadores da página, em ordem
      */
+    public List<Player> getPage(int offset, int limit) {
+        Lock shared = readLock();
+        try {
+            return page(offset, limit);
+        } finally {
+            shared.unlock();
+        }
+    }
+    
+    private List<Player> page(int offset, int limit) {
+        int count = Math.max(0, Math.min(limit, playerCount() - offset));
+        List<Player> page = new ArrayList<>(count);
+        long i = splitAt(offset);
+        List<Player> recentPage = recent.page((int) (offset - i), count);
+        int j = 0;
+        while (page.size() < count) {
+            if (j == recentPage.size() || (i < sortedSize() && sorted.compareAt(i, recentPage.get(j)) <= 0)) {
+                page.add(sorted.get(i++));
+            } else {
+                page.add(recentPage.get(j++));
+            }
+        }
+        return page;
+    }
+    
+    /**
+     * Retorna a posição de um jogador no ranking.
+     * Jogadores lidos do arquivo ficam na primeira posição do seu empate.
+     * 
+     * @param player Jogador procurado
+     * @return Posição do jogador (começando em 1)
+     */
+    public int getRank(Player player) {
+        Lock shared = readLock();
+        try {
+            return rank(player);
+        } finally {
+            shared.unlock();
+        }
+    }
+    
+    private int rank(Player player) {
+        int recentRank = recent.rankOf(player);
+        if (recentRank > 0) {
+            return (int) (sortedSize() == 0 ? 0 : sorted.countBefore(player, true)) + recentRank;
+        }
+        long before = sortedSize() == 0 ? 0 : sorted.countBefore(player, false);
+        return (int) before + recent.countBefore(player) + 1;
+    }
+    
+    /**
+     * Retorna o jogador em uma posição do ranking.
+     * 
+     * @param position Posição (começando em 1)
+     * @return Jogador na posição
+     */
+    public Player getPlayer(int position) {
+        Lock shared = readLock();
+        try {
+            if (position < 1 || position > playerCount()) {
+                throw new IndexOutOfBoundsException("Posição " + position + " fora do ranking de " + playerCount());
+            }
+            return page(position - 1, 1).get(0);
+        } finally {
+            shared.unlock();
+        }
+    }
+    
+    /**
+     * Retorna o número de jogadores no ranking.
+     * 
+     * @return Número de jogadores
+     */
+    public int getPlayerCount() {
+        Lock shared = readLock();
+        try {
+            return playerCount();
+        } finally {
+            shared.unlock();
+        }
+    }
+    
+    private int playerCount() {
+        return (int) (sortedSize() + recent.size());
+    }
+    
+    /**
+     * Retorna a lista de jogadores ordenada por pontuação, toda lida de um
+     * mesmo estado do ranking.
+     * 
+     * @return Cópia somente leitura com todos os jogadores
+     * @deprecated Copia o ranking inteiro; use {@link #getTopPlayers(int)} ou {@link #getPage(int, int)}
+     */
+    @Deprecated
     public List<Player> getPlayers() {
-        return players;
+        Lock shared = readLock();
+        try {
+            return Collections.unmodifiableList(page(0, playerCount()));
+        } finally {
+            shared.unlock();
+        }
     }
     
     /**
@@ -86,19 +485,9 @@ public class RankingSystem {
         titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
         panel.add(titleLabel, BorderLayout.NORTH);
         
-        // Cria o modelo para a tabela de ranking
-        String[] columnNames = {"Posição", "Nome", "Pontuação", "Data/Hora"};
-        Object[][] data = new Object[players.size()][4];
-        
-        for (int i = 0; i < players.size(); i++) {
-            Player player = players.get(i);
-            data[i][0] = i + 1; // Posição
-            data[i][1] = player.getName(); // Nome
-            data[i][2] = player.getScore(); // Pontuação
-            data[i][3] = player.getDateTime().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")); // Data/Hora
-        }
-        
-        JTable table = new JTable(data, columnNames);
+        // Cria o modelo para a tabela de ranking; as linhas são lidas sob demanda
+        RankingTableModel model = new RankingTableModel(this);
+        JTable table = new JTable(model);
         table.setFillsViewportHeight(true);
         table.setEnabled(false); // Desabilita edição
         
@@ -111,5 +500,6 @@ public class RankingSystem {
         
         frame.add(panel);
         frame.setVisible(true);
+        model.load();
     }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabela do ranking que busca as linhas sob demanda.
+ * 
+ * As linhas são lidas do {@link RankingSystem} em blocos, fora da thread de
+ * eventos, e guardadas já formatadas em um cache LRU pequeno. Enquanto um
+ * bloco não chega, suas linhas aparecem como "..." e são atualizadas quando
+ * a leitura termina. Assim a janela abre imediatamente, qualquer que seja o
+ * tamanho do ranking.
+ */
+public class RankingTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    
+    private static final String[] COLUMN_NAMES = {"Posição", "Nome", "Pontuação", "Data/Hora"};
+    private static final String LOADING = "...";
+    private static final int BLOCK_SIZE = 100; // Linhas lidas por vez
+    private static final int MAX_CACHED_BLOCKS = 32;
+    
+    private final transient RankingSystem rankingSystem;
+    private final Map<Integer, Object[][]> cache = new LinkedHashMap<Integer, Object[][]>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+    private final Set<Integer> pendingBlocks = new HashSet<>();
+    private int rowCount;
+    
+    /**
+     * Construtor da classe RankingTableModel.
+     * A tabela começa vazia; chame {@link #load()} para buscar o ranking.
+     * 
+     * @param rankingSystem Sistema de ranking a ser exibido
+     */
+    public RankingTableModel(RankingSystem rankingSystem) {
+        this.rankingSystem = rankingSystem;
+    }
+    
+    /**
+     * Busca em segundo plano o número de jogadores e o primeiro bloco de linhas.
+     */
+    public void load() {
+        new SwingWorker<Object[][], Void>() {
+            private int count;
+            
+            @Override
+            protected Object[][] doInBackground() {
+                count = rankingSystem.getPlayerCount();
+                return fetchBlock(0);
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    cache.clear();
+                    cache.put(0, get());
+                    rowCount = count;
+                    fireTableDataChanged();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                }
+            }
+        }.execute();
+    }
+    
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+    
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int block = rowIndex / BLOCK_SIZE;
+        Object[][] rows = cache.get(block);
+        if (rows == null) {
+            requestBlock(block);
+            return columnIndex == 0 ? rowIndex + 1 : LOADING;
+        }
+        int row = rowIndex - block * BLOCK_SIZE;
+        return row < rows.length ? rows[row][columnIndex] : LOADING;
+    }
+    
+    /**
+     * Agenda a leitura de um bloco de linhas, se ela ainda não estiver em andamento.
+     */
+    private void requestBlock(int block) {
+        if (!pendingBlocks.add(block)) {
+            return;
+        }
+        new SwingWorker<Object[][], Void>() {
+            @Override
+            protected Object[][] doInBackground() {
+                return fetchBlock(block);
+            }
+            
+            @Override
+            protected void done() {
+                pendingBlocks.remove(block);
+                try {
+                    cache.put(block, get());
+                    int first = block * BLOCK_SIZE;
+                    fireTableRowsUpdated(first, Math.min(first + BLOCK_SIZE, rowCount) - 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                }
+            }
+        }.execute();
+    }
+    
+    /**
+     * Lê e formata um bloco de linhas. Executado fora da thread de eventos.
+     */
+    private Object[][] fetchBlock(int block) {
+        int first = block * BLOCK_SIZE;
+        List<Player> players = rankingSystem.getPage(first, BLOCK_SIZE);
+        Object[][] rows = new Object[players.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            Player player = players.get(i);
+            rows[i] = new Object[] {
+                first + i + 1, // Posição
+                player.getName(), // Nome
+                player.getScore(), // Pontuação
+                player.getDateTime().format(Player.DATE_TIME_FORMATTER) // Data/Hora
+            };
+        }
+        return rows;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,334 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Gravação de uma partida: a semente da comida e as mudanças de direção.
+ * 
+ * Como o {@link GameEngine} é determinístico, isso basta para simular a
+ * partida de novo, passo a passo, e conferir o resultado. No arquivo cada
+ * mudança ocupa um varint com o número de passos desde a mudança anterior
+ * e a direção nos 2 bits de baixo, então uma curva a cada menos de 32
+ * passos custa 1 byte: um minuto de jogo fica em algumas dezenas de bytes.
+ * 
+ * Formato (inteiros em varint, exceto a semente):
+ * "SNKR", versão, colunas, linhas, semente (8 bytes), milissegundos por passo,
+ * nível de dificuldade (ordinal + 1, ou 0 sem nível), passos, pontuação,
+ * número de mudanças e as mudanças. A versão 1 não tem o nível: o passo tem
+ * sempre a mesma duração.
+ */
+public class Replay {
+    private static final int MAGIC = 0x534E4B52; // "SNKR"
+    private static final int VERSION = 2;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    
+    private final int columns;
+    private final int rows;
+    private final long seed;
+    private final int tickMillis;
+    private final Difficulty difficulty; // null: passo de duração fixa
+    private final long ticks;
+    private final int score;
+    private final long[] changeTicks; // Passo em que cada mudança foi aplicada
+    private final Direction[] changeDirections;
+    
+    /**
+     * Construtor da classe Replay.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param seed Semente usada para sortear a comida
+     * @param tickMillis Duração do primeiro passo na partida original, em milissegundos
+     * @param difficulty Nível de dificuldade da partida, ou null se o passo tem duração fixa
+     * @param ticks Número de passos da partida
+     * @param score Pontuação final
+     * @param changeTicks Passo (a partir de 0) de cada mudança de direção, em ordem crescente
+     * @param changeDirections Direção de cada mudança
+     */
+    public Replay(int columns, int rows, long seed, int tickMillis, Difficulty difficulty, long ticks, int score,
+            long[] changeTicks, Direction[] changeDirections) {
+        if (changeTicks.length != changeDirections.length) {
+            throw new IllegalArgumentException("Mudanças sem direção");
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.seed = seed;
+        this.tickMillis = tickMillis;
+        this.difficulty = difficulty;
+        this.ticks = ticks;
+        this.score = score;
+        this.changeTicks = changeTicks.clone();
+        this.changeDirections = changeDirections.clone();
+    }
+    
+    /**
+     * Grava o replay em um fluxo.
+     * 
+     * @param output Fluxo de destino
+     * @throws IOException se a gravação falhar
+     */
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        writeVarLong(out, VERSION);
+        writeVarLong(out, columns);
+        writeVarLong(out, rows);
+        out.writeLong(seed);
+        writeVarLong(out, tickMillis);
+        writeVarLong(out, difficulty == null ? 0 : difficulty.ordinal() + 1);
+        writeVarLong(out, ticks);
+        writeVarLong(out, score);
+        writeVarLong(out, changeTicks.length);
+        long previous = 0;
+        for (int i = 0; i < changeTicks.length; i++) {
+            writeVarLong(out, (changeTicks[i] - previous) << 2 | changeDirections[i].ordinal());
+            previous = changeTicks[i];
+        }
+        out.flush();
+    }
+    
+    /**
+     * Lê um replay de um fluxo.
+     * 
+     * @param input Fluxo de origem
+     * @return Replay lido
+     * @throws IOException se o fluxo não contiver um replay válido
+     */
+    public static Replay read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Não é um arquivo de replay");
+        }
+        long version = readVarLong(in);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Versão de replay desconhecida: " + version);
+        }
+        int columns = (int) readVarLong(in);
+        int rows = (int) readVarLong(in);
+        long seed = in.readLong();
+        int tickMillis = (int) readVarLong(in);
+        Difficulty difficulty = null;
+        if (version >= 2) {
+            long level = readVarLong(in);
+            if (level < 0 || level > DIFFICULTIES.length) {
+                throw new IOException("Nível de dificuldade inválido: " + level);
+            }
+            difficulty = level == 0 ? null : DIFFICULTIES[(int) level - 1];
+        }
+        long ticks = readVarLong(in);
+        int score = (int) readVarLong(in);
+        int count = (int) readVarLong(in);
+        if (count < 0 || count > ticks) {
+            throw new IOException("Número de mudanças inválido: " + count);
+        }
+        
+        long[] changeTicks = new long[count];
+        Direction[] changeDirections = new Direction[count];
+        long tick = 0;
+        for (int i = 0; i < count; i++) {
+            long value = readVarLong(in);
+            tick += value >>> 2;
+            changeTicks[i] = tick;
+            changeDirections[i] = DIRECTIONS[(int) (value & 3)];
+        }
+        return new Replay(columns, rows, seed, tickMillis, difficulty, ticks, score, changeTicks, changeDirections);
+    }
+    
+    /**
+     * Grava o replay em um arquivo.
+     * 
+     * @param file Arquivo de destino
+     * @throws IOException se a gravação falhar
+     */
+    public void save(Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(out);
+        }
+    }
+    
+    /**
+     * Lê um replay de um arquivo.
+     * 
+     * @param file Arquivo de origem
+     * @return Replay lido
+     * @throws IOException se o arquivo não contiver um replay válido
+     */
+    public static Replay load(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+    
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+    
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint longo demais");
+    }
+    
+    /**
+     * @return Número de colunas do tabuleiro
+     */
+    public int getColumns() {
+        return columns;
+    }
+    
+    /**
+     * @return Número de linhas do tabuleiro
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * @return Semente usada para sortear a comida
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * @return Duração do primeiro passo na partida original, em milissegundos
+     */
+    public int getTickMillis() {
+        return tickMillis;
+    }
+    
+    /**
+     * @return Nível de dificuldade da partida, ou null se o passo tem duração fixa
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+    
+    /**
+     * Retorna a duração de um passo na partida original, que segue a curva do
+     * nível de dificuldade conforme a cobra cresce.
+     * 
+     * @param snakeSize Número de segmentos da cobra
+     * @return Duração do passo, em milissegundos
+     */
+    public int getTickMillis(int snakeSize) {
+        return difficulty != null ? difficulty.delayFor(snakeSize) : tickMillis;
+    }
+    
+    /**
+     * @return Número de passos da partida
+     */
+    public long getTicks() {
+        return ticks;
+    }
+    
+    /**
+     * @return Pontuação final registrada
+     */
+    public int getScore() {
+        return score;
+    }
+    
+    /**
+     * @return Número de mudanças de direção
+     */
+    public int getChangeCount() {
+        return changeTicks.length;
+    }
+    
+    /**
+     * @param index Índice da mudança
+     * @return Passo em que a mudança foi aplicada
+     */
+    public long getChangeTick(int index) {
+        return changeTicks[index];
+    }
+    
+    /**
+     * @param index Índice da mudança
+     * @return Direção da mudança
+     */
+    public Direction getChangeDirection(int index) {
+        return changeDirections[index];
+    }
+    
+    @Override
+    public String toString() {
+        return columns + "x" + rows + ", semente " + seed + ", " + ticks + " passos, pontuação " + score
+                + ", " + changeTicks.length + " mudanças";
+    }
+    
+    /**
+     * Grava as mudanças de direção de uma partida em andamento.
+     */
+    public static class Recorder {
+        private final int columns;
+        private final int rows;
+        private final long seed;
+        private final Difficulty difficulty;
+        private long[] ticks = new long[64];
+        private Direction[] directions = new Direction[64];
+        private int count;
+        
+        /**
+         * Construtor da classe Recorder.
+         * 
+         * @param engine Motor da partida, no estado inicial
+         * @param difficulty Nível de dificuldade da partida
+         */
+        public Recorder(GameEngine engine, Difficulty difficulty) {
+            this.columns = engine.getColumns();
+            this.rows = engine.getRows();
+            this.seed = engine.getState().getSeed();
+            this.difficulty = difficulty;
+        }
+        
+        /**
+         * Registra a direção passada ao motor no passo informado.
+         * 
+         * @param tick Passo (número de passos já simulados antes dele)
+         * @param direction Direção passada ao motor, ou null (nada é gravado)
+         */
+        public void record(long tick, Direction direction) {
+            if (direction == null) {
+                return;
+            }
+            if (count == ticks.length) {
+                ticks = Arrays.copyOf(ticks, count * 2);
+                directions = Arrays.copyOf(directions, count * 2);
+            }
+            ticks[count] = tick;
+            directions[count] = direction;
+            count++;
+        }
+        
+        /**
+         * Encerra a gravação.
+         * 
+         * @param state Estado final da partida
+         * @return Replay da partida
+         */
+        public Replay finish(GameState state) {
+            return new Replay(columns, rows, seed, difficulty.getInitialDelay(), difficulty, state.getTick(),
+                    state.getScore(), Arrays.copyOf(ticks, count), Arrays.copyOf(directions, count));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,246 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.io.IOException;
+import java.nio.file.Paths;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Reproduz uma partida gravada em um {@link Replay}.
+ * 
+ * A partida é simulada de novo pelo {@link GameEngine} com a mesma semente
+ * e as mesmas mudanças de direção, então o resultado tem que ser idêntico
+ * ao registrado. Pode ser reproduzida em tempo real, em uma janela, ou o
+ * mais rápido possível, sem interface, para conferir uma pontuação ou
+ * reproduzir um problema de desempenho.
+ */
+public class ReplayPlayer implements SnakeController {
+    private static final int UNIT_SIZE = 20;
+    private static final int MAX_VIEW_SIZE = 600; // Tabuleiros maiores são vistos por uma câmera
+    private static final Font STATUS_FONT = new Font("Arial", Font.BOLD, 16);
+    
+    private final Replay replay;
+    private final GameEngine engine;
+    private int nextChange; // Próxima mudança de direção a aplicar
+    
+    /**
+     * Construtor da classe ReplayPlayer. A partida começa no estado inicial.
+     * 
+     * @param replay Partida gravada
+     */
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.engine = new GameEngine(replay.getColumns(), replay.getRows(), replay.getSeed());
+    }
+    
+    /**
+     * Devolve a mudança de direção gravada para o passo atual.
+     * 
+     * @param state Estado atual da partida
+     * @return Direção gravada, ou null para manter a atual
+     */
+    @Override
+    public Direction nextDirection(GameState state) {
+        if (nextChange < replay.getChangeCount() && replay.getChangeTick(nextChange) == state.getTick()) {
+            return replay.getChangeDirection(nextChange++);
+        }
+        return null;
+    }
+    
+    /**
+     * Avança a partida um passo.
+     * 
+     * @return false se a partida já terminou
+     */
+    public boolean step() {
+        GameState state = engine.getState();
+        if (isFinished()) {
+            return false;
+        }
+        engine.step(nextDirection(state));
+        return true;
+    }
+    
+    /**
+     * @return true se a partida terminou ou chegou ao número de passos gravado
+     */
+    public boolean isFinished() {
+        GameState state = engine.getState();
+        return state.getStatus() != GameState.Status.RUNNING || state.getTick() >= replay.getTicks();
+    }
+    
+    /**
+     * Simula o resto da partida o mais rápido possível.
+     * 
+     * @return Estado final
+     */
+    public GameState fastForward() {
+        while (step()) {
+            // Avança até o fim
+        }
+        return engine.getState();
+    }
+    
+    /**
+     * Simula a partida do início ao fim e confere se o resultado é o gravado.
+     * 
+     * @param replay Partida gravada
+     * @return true se a partida termina no mesmo passo e com a mesma pontuação
+     */
+    public static boolean verify(Replay replay) {
+        GameState state = new ReplayPlayer(replay).fastForward();
+        return state.getStatus() != GameState.Status.RUNNING
+                && state.getTick() == replay.getTicks()
+                && state.getScore() == replay.getScore();
+    }
+    
+    /**
+     * Confere uma pontuação enviada para o ranking simulando a partida gravada.
+     * 
+     * @param replay Partida gravada
+     * @param claimedScore Pontuação enviada
+     * @return true se a partida gravada termina com essa pontuação
+     */
+    public static boolean verify(Replay replay, int claimedScore) {
+        return replay.getScore() == claimedScore && verify(replay);
+    }
+    
+    /**
+     * @return Estado atual da partida
+     */
+    public GameState getState() {
+        return engine.getState();
+    }
+    
+    /**
+     * Reproduz a partida em tempo real em uma janela.
+     * 
+     * @param speed Multiplicador da velocidade original (1 = tempo real)
+     */
+    public void play(double speed) {
+        JFrame frame = new JFrame("Replay - " + replay);
+        ReplayPanel panel = new ReplayPanel();
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.setResizable(false);
+        frame.add(panel);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+        
+        Timer timer = new Timer(delay(speed), null);
+        timer.addActionListener(e -> {
+            if (!step()) {
+                timer.stop();
+                panel.repaint();
+                return;
+            }
+            timer.setDelay(delay(speed)); // O passo encurta conforme a cobra cresce, como na partida
+            panel.advance();
+        });
+        timer.start();
+    }
+    
+    /**
+     * Retorna a duração do próximo passo na janela, conforme o tamanho atual
+     * da cobra e a curva do nível de dificuldade gravado.
+     */
+    private int delay(double speed) {
+        int tickMillis = replay.getTickMillis(engine.getState().getSnake().getSize());
+        return Math.max(1, (int) Math.round(tickMillis / speed));
+    }
+    
+    /**
+     * Painel que desenha a partida reproduzida.
+     */
+    private class ReplayPanel extends JPanel {
+        private static final long serialVersionUID = 1L;
+        private final BoardView renderer;
+        
+        ReplayPanel() {
+            int width = Math.min(replay.getColumns() * UNIT_SIZE, MAX_VIEW_SIZE);
+            int height = Math.min(replay.getRows() * UNIT_SIZE, MAX_VIEW_SIZE);
+            setPreferredSize(new Dimension(width, height));
+            setBackground(Color.BLACK);
+            renderer = BoardView.create(replay.getColumns(), replay.getRows(), UNIT_SIZE, width, height);
+            renderer.reset(new Snake(UNIT_SIZE, engine.getState().getSnake()),
+                    new Food(UNIT_SIZE, engine.getState().getFood()));
+        }
+        
+        void advance() {
+            renderer.update();
+            renderer.repaintDirty(this);
+            repaint(0, 0, getWidth(), 30); // Pontuação
+        }
+        
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            renderer.paint(g);
+            GameState state = engine.getState();
+            g.setColor(Color.WHITE);
+            g.setFont(STATUS_FONT);
+            String text = "Passo " + state.getTick() + "  Pontuação: " + state.getScore();
+            if (isFinished()) {
+                text += "  (fim)";
+            }
+            g.drawString(text, 10, 20);
+        }
+    }
+    
+    /**
+     * Reproduz ou confere um replay.
+     * 
+     * Uso: ReplayPlayer arquivo [--rapido] [--velocidade N] [--pontuacao N]
+     * --rapido: simula sem janela, o mais rápido possível, e confere o resultado
+     * --velocidade: multiplicador da velocidade na janela (padrão 1)
+     * --pontuacao: confere se a partida termina com a pontuação informada
+     * 
+     * @param args Argumentos da linha de comando
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: ReplayPlayer arquivo [--rapido] [--velocidade N] [--pontuacao N]");
+            System.exit(2);
+        }
+        Replay replay = Replay.load(Paths.get(args[0]));
+        boolean fast = false;
+        double speed = 1;
+        Integer claimedScore = null;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rapido":
+                    fast = true;
+                    break;
+                case "--velocidade":
+                    speed = Double.parseDouble(args[++i]);
+                    break;
+                case "--pontuacao":
+                    claimedScore = Integer.parseInt(args[++i]);
+                    fast = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        System.out.println(replay);
+        
+        if (fast) {
+            long start = System.nanoTime();
+            GameState state = new ReplayPlayer(replay).fastForward();
+            long elapsed = System.nanoTime() - start;
+            boolean valid = claimedScore != null ? verify(replay, claimedScore) : verify(replay);
+            System.out.printf("Simulado: %d passos, pontuação %d, %s em %.2f ms (%.0f passos/s)%n",
+                    state.getTick(), state.getScore(), state.getStatus(), elapsed / 1e6,
+                    state.getTick() * 1e9 / elapsed);
+            System.out.println(valid ? "Resultado confere" : "Resultado NÃO confere");
+            System.exit(valid ? 0 : 1);
+        }
+        
+        double playSpeed = speed;
+        SwingUtilities.invokeLater(() -> new ReplayPlayer(replay).play(playSpeed));
+    }
+}
\ No newline at end of file
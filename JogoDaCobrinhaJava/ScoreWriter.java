@@ -0,0 +1,171 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Gravação das pontuações em segundo plano (write-behind).
+ * 
+ * Uma única thread esvazia a fila de envios: todas as pontuações que
+ * chegaram juntas são gravadas no {@link RankingLog} com uma só
+ * sincronização com o disco. Cada envio devolve um {@link CompletableFuture}
+ * concluído quando a pontuação está no disco. Tarefas enviadas por
+ * {@link #execute(Runnable)} rodam na mesma thread, na ordem da fila, então
+ * nunca acontecem no meio de uma gravação.
+ */
+public class ScoreWriter implements AutoCloseable {
+    private static final int MAX_BATCH = 4096;
+    
+    private final RankingLog log;
+    private final Consumer<List<Player>> onDurable;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private final Entry stop = new Entry(null, null); // Marca o fim da fila
+    private boolean closed;
+    
+    /**
+     * Item da fila: uma pontuação a gravar ou uma tarefa a executar.
+     */
+    private static class Entry {
+        final Player player;
+        final Runnable task;
+        final CompletableFuture<Player> future = new CompletableFuture<>();
+        
+        Entry(Player player, Runnable task) {
+            this.player = player;
+            this.task = task;
+        }
+    }
+    
+    /**
+     * Construtor da classe ScoreWriter. Inicia a thread de gravação.
+     * 
+     * @param log Arquivo de ranking
+     * @param onDurable Avisado, na thread de gravação, de cada lote já gravado no disco
+     */
+    public ScoreWriter(RankingLog log, Consumer<List<Player>> onDurable) {
+        this.log = log;
+        this.onDurable = onDurable;
+        this.thread = new Thread(this::run, "ranking-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Enfileira uma pontuação para gravação.
+     * 
+     * @param player Jogador a ser gravado
+     * @return Concluído com o jogador quando ele estiver gravado no disco
+     */
+    public CompletableFuture<Player> submit(Player player) {
+        return enqueue(new Entry(player, null));
+    }
+    
+    /**
+     * Executa uma tarefa na thread de gravação, depois de tudo o que já está na fila.
+     * 
+     * @param task Tarefa a executar
+     * @return Concluído quando a tarefa terminar
+     */
+    public CompletableFuture<Player> execute(Runnable task) {
+        return enqueue(new Entry(null, task));
+    }
+    
+    /**
+     * Aguarda a gravação de tudo o que já está na fila.
+     * 
+     * @return Concluído quando as pontuações enviadas até agora estiverem no disco
+     */
+    public CompletableFuture<Player> flush() {
+        return execute(() -> { });
+    }
+    
+    private synchronized CompletableFuture<Player> enqueue(Entry entry) {
+        if (closed) {
+            entry.future.completeExceptionally(new IllegalStateException("Gravação do ranking encerrada"));
+        } else {
+            queue.add(entry);
+        }
+        return entry.future;
+    }
+    
+    private void run() {
+        List<Entry> drained = new ArrayList<>();
+        List<Entry> batch = new ArrayList<>();
+        List<Player> players = new ArrayList<>();
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                drained.add(queue.take());
+            } catch (InterruptedException e) {
+                continue; // Só close() encerra a thread, depois de esvaziar a fila
+            }
+            queue.drainTo(drained, MAX_BATCH - 1);
+            
+            for (Entry entry : drained) {
+                if (entry == stop) {
+                    stopped = true; // Nada é enfileirado depois da marca de fim
+                } else if (entry.task == null) {
+                    batch.add(entry);
+                } else {
+                    // Grava o que veio antes da tarefa para manter a ordem da fila
+                    writeBatch(batch, players);
+                    try {
+                        entry.task.run();
+                        entry.future.complete(null);
+                    } catch (RuntimeException e) {
+                        entry.future.completeExceptionally(e);
+                    }
+                }
+            }
+            writeBatch(batch, players);
+            drained.clear();
+        }
+    }
+    
+    private void writeBatch(List<Entry> batch, List<Player> players) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Entry entry : batch) {
+            players.add(entry.player);
+        }
+        try {
+            log.appendAll(players);
+            onDurable.accept(players);
+            for (Entry entry : batch) {
+                entry.future.complete(entry.player);
+            }
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            for (Entry entry : batch) {
+                entry.future.completeExceptionally(e);
+            }
+        }
+        batch.clear();
+        players.clear();
+    }
+    
+    /**
+     * Grava tudo o que está na fila e encerra a thread de gravação.
+     * A thread não é interrompida, pois isso fecharia o canal do arquivo.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(stop);
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
@@ -1,19 +1,19 @@
 import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.Point;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.Rectangle;
 
 /**
  * Classe que representa a cobra no jogo.
+ * 
+ * As regras de movimento e colisão ficam em {@link SnakeBody}; esta classe
+ * converte as células do modelo para pixels e desenha a cobra.
  */
 public class Snake {
-    private List<Point> body;
-    private Direction direction;
-    private boolean growing;
+    private final SnakeBody body;
     private final int UNIT_SIZE;
     private final Color HEAD_COLOR = new Color(0, 153, 0); // Verde escuro para a cabeça
     private final Color BODY_COLOR = new Color(0, 204, 0); // Verde mais claro para o corpo
+    private final Color EYE_COLOR = Color.BLACK;
     
     /**
      * Construtor da classe Snake.
@@ -21,59 +21,36 @@ public class Snake {
      * @param unitSize Tamanho de cada unidade do jogo
      * @param startX Posição inicial X da cabeça da cobra
      * @param startY Posição inicial Y da cabeça da cobra
+     * @param width Largura do painel de jogo
+     * @param height Altura do painel de jogo
+     */
+    public Snake(int unitSize, int startX, int startY, int width, int height) {
+        this(unitSize, new SnakeBody(width / unitSize, height / unitSize, startX / unitSize, startY / unitSize));
+    }
+    
+    /**
+     * Construtor da classe Snake a partir de um modelo existente.
+     * 
+     * @param unitSize Tamanho de cada unidade do jogo
+     * @param body Modelo da cobra
      */
-    public Snake(int unitSize, int startX, int startY) {
+    public Snake(int unitSize, SnakeBody body) {
         this.UNIT_SIZE = unitSize;
-        this.body = new ArrayList<>();
-        this.direction = Direction.RIGHT; // Direção inicial
-        this.growing = false;
-        
-        // Inicializa a cobra com 3 segmentos
-        body.add(new Point(startX, startY)); // Cabeça
-        body.add(new Point(startX - UNIT_SIZE, startY)); // Corpo
-        body.add(new Point(startX - 2 * UNIT_SIZE, startY)); // Cauda
+        this.body = body;
     }
     
     /**
      * Move a cobra na direção atual.
      */
     public void move() {
-        // Se a cobra estiver crescendo, não remove a cauda
-        if (!growing) {
-            body.remove(body.size() - 1); // Remove a cauda
-        } else {
-            growing = false; // Reseta a flag de crescimento
-        }
-        
-        // Obtém a posição atual da cabeça
-        Point head = body.get(0);
-        Point newHead = new Point(head);
-        
-        // Move a cabeça na direção atual
-        switch (direction) {
-            case UP:
-                newHead.y -= UNIT_SIZE;
-                break;
-            case DOWN:
-                newHead.y += UNIT_SIZE;
-                break;
-            case LEFT:
-                newHead.x -= UNIT_SIZE;
-                break;
-            case RIGHT:
-                newHead.x += UNIT_SIZE;
-                break;
-        }
-        
-        // Adiciona a nova cabeça no início da lista
-        body.add(0, newHead);
+        body.move();
     }
     
     /**
      * Faz a cobra crescer no próximo movimento.
      */
     public void grow() {
-        growing = true;
+        body.grow();
     }
     
     /**
@@ -83,8 +60,7 @@ public class Snake {
      * @return true se houve colisão, false caso contrário
      */
     public boolean checkFoodCollision(Food food) {
-        Point head = body.get(0);
-        return head.equals(food.getPosition());
+        return body.getHeadX() * UNIT_SIZE == food.getPosition().x && body.getHeadY() * UNIT_SIZE == food.getPosition().y;
     }
     
     /**
@@ -95,8 +71,9 @@ public class Snake {
      * @return true se houve colisão, false caso contrário
      */
     public boolean checkWallCollision(int width, int height) {
-        Point head = body.get(0);
-        return head.x < 0 || head.x >= width || head.y < 0 || head.y >= height;
+        int x = body.getHeadX() * UNIT_SIZE;
+        int y = body.getHeadY() * UNIT_SIZE;
+        return x < 0 || x >= width || y < 0 || y >= height;
     }
     
     /**
@@ -105,35 +82,129 @@ public class Snake {
      * @return true se houve colisão, false caso contrário
      */
     public boolean checkSelfCollision() {
-        Point head = body.get(0);
-        // Começa do índice 1 para ignorar a cabeça
-        for (int i = 1; i < body.size(); i++) {
-            if (head.equals(body.get(i))) {
-                return true;
-            }
-        }
-        return false;
+        return body.checkSelfCollision();
     }
     
     /**
      * Desenha a cobra no painel de jogo.
+     * Só as células dentro da área de recorte (clip) de {@code g} são visitadas:
+     * se a área tem menos células do que a cobra, percorre as células da área
+     * e consulta a ocupação; caso contrário, percorre os segmentos e ignora os
+     * que estão fora dela.
      * 
      * @param g Objeto Graphics para desenhar
      */
     public void draw(Graphics g) {
+        int columns = body.getColumns();
+        int rows = body.getRows();
+        int minX = 0;
+        int minY = 0;
+        int maxX = columns - 1;
+        int maxY = rows - 1;
+        Rectangle clip = g.getClipBounds();
+        if (clip != null) {
+            minX = Math.max(minX, Math.floorDiv(clip.x, UNIT_SIZE));
+            minY = Math.max(minY, Math.floorDiv(clip.y, UNIT_SIZE));
+            maxX = Math.min(maxX, Math.floorDiv(clip.x + clip.width - 1, UNIT_SIZE));
+            maxY = Math.min(maxY, Math.floorDiv(clip.y + clip.height - 1, UNIT_SIZE));
+        }
+        if (minX > maxX || minY > maxY) {
+            return;
+        }
+        
         // Desenha a cabeça com uma cor diferente
         g.setColor(HEAD_COLOR);
-        Point head = body.get(0);
-        g.fillRect(head.x, head.y, UNIT_SIZE, UNIT_SIZE);
+        g.fillRect(body.getHeadX() * UNIT_SIZE, body.getHeadY() * UNIT_SIZE, UNIT_SIZE, UNIT_SIZE);
         
         // Desenha o corpo
         g.setColor(BODY_COLOR);
-        for (int i = 1; i < body.size(); i++) {
-            Point segment = body.get(i);
-            g.fillRect(segment.x, segment.y, UNIT_SIZE, UNIT_SIZE);
+        long visibleCells = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (visibleCells < body.getSize()) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    if (body.isOccupied(x, y) && !body.isHeadAt(x, y)) {
+                        g.fillRect(x * UNIT_SIZE, y * UNIT_SIZE, UNIT_SIZE, UNIT_SIZE);
+                    }
+                }
+            }
+        } else {
+            for (int i = 1; i < body.getSize(); i++) {
+                int cell = body.getCell(i);
+                if (cell < 0) {
+                    continue;
+                }
+                int x = cell % columns;
+                int y = cell / columns;
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                    g.fillRect(x * UNIT_SIZE, y * UNIT_SIZE, UNIT_SIZE, UNIT_SIZE);
+                }
+            }
         }
     }
     
+    /**
+     * Desenha um segmento da cobra no canto superior esquerdo de {@code g},
+     * ligado às células vizinhas indicadas. Usado pelo {@link TileAtlas}
+     * para renderizar os tiles uma única vez.
+     * 
+     * @param g Objeto Graphics para desenhar
+     * @param connections Máscara com o bit {@code 1 << direção.ordinal()} de cada vizinho ligado
+     * @param head true para desenhar a cabeça, com os olhos virados para o lado sem ligação
+     * @param tail true para desenhar a cauda, mais fina que o corpo
+     */
+    public void drawTile(Graphics g, int connections, boolean head, boolean tail) {
+        int pad = Math.max(1, UNIT_SIZE / (tail ? 4 : 8)); // Margem até a borda da célula
+        int inner = UNIT_SIZE - 2 * pad;
+        int half = UNIT_SIZE / 2;
+        g.setColor(head ? HEAD_COLOR : BODY_COLOR);
+        g.fillRoundRect(pad, pad, inner, inner, inner, inner); // Pontas e curvas arredondadas
+        for (Direction direction : Direction.values()) {
+            if ((connections & (1 << direction.ordinal())) == 0) {
+                continue;
+            }
+            // Faixa do centro até a borda do lado ligado
+            switch (direction) {
+                case UP:
+                    g.fillRect(pad, 0, inner, half);
+                    break;
+                case DOWN:
+                    g.fillRect(pad, half, inner, UNIT_SIZE - half);
+                    break;
+                case LEFT:
+                    g.fillRect(0, pad, half, inner);
+                    break;
+                case RIGHT:
+                    g.fillRect(half, pad, UNIT_SIZE - half, inner);
+                    break;
+            }
+        }
+        if (head) {
+            drawEyes(g, connections);
+        }
+    }
+    
+    /**
+     * Desenha os olhos virados para o lado oposto ao pescoço.
+     */
+    private void drawEyes(Graphics g, int connections) {
+        int frontX = 1; // Cobra de um segmento só: olha para a direita
+        int frontY = 0;
+        for (Direction direction : Direction.values()) {
+            if ((connections & (1 << direction.ordinal())) != 0) {
+                frontX = -direction.getDx();
+                frontY = -direction.getDy();
+            }
+        }
+        int eye = Math.max(1, UNIT_SIZE / 6);
+        int ahead = UNIT_SIZE / 4; // Distância do centro para a frente
+        int side = UNIT_SIZE / 5; // Distância do centro para cada lado
+        int centerX = UNIT_SIZE / 2 + frontX * ahead - eye / 2;
+        int centerY = UNIT_SIZE / 2 + frontY * ahead - eye / 2;
+        g.setColor(EYE_COLOR);
+        g.fillRect(centerX - frontY * side, centerY + frontX * side, eye, eye);
+        g.fillRect(centerX + frontY * side, centerY - frontX * side, eye, eye);
+    }
+    
     /**
      * Define a direção da cobra.
      * Impede que a cobra faça um movimento de 180 graus.
@@ -141,15 +212,7 @@ public class Snake {
      * @param newDirection Nova direção
      */
     public void setDirection(Direction newDirection) {
-        // Impede que a cobra faça um movimento de 180 graus
-        if ((direction == Direction.UP && newDirection == Direction.DOWN) ||
-            (direction == Direction.DOWN && newDirection == Direction.UP) ||
-            (direction == Direction.LEFT && newDirection == Direction.RIGHT) ||
-            (direction == Direction.RIGHT && newDirection == Direction.LEFT)) {
-            return;
-        }
-        
-        this.direction = newDirection;
+        body.setDirection(newDirection);
     }
     
     /**
@@ -158,6 +221,15 @@ public class Snake {
      * @return Número de segmentos da cobra
      */
     public int getSize() {
-        return body.size();
+        return body.getSize();
+    }
+    
+    /**
+     * Retorna o modelo da cobra.
+     * 
+     * @return Modelo da cobra
+     */
+    public SnakeBody getBody() {
+        return body;
     }
 }
\ No newline at end of file
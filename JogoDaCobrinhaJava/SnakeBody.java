@@ -0,0 +1,415 @@
+/**
+ * Modelo da cobra sem dependências de interface gráfica.
+ * 
+ * O corpo é guardado em um buffer circular de células compactadas
+ * (índice = y * colunas + x) e em um {@link CellSet} com as células
+ * ocupadas, de modo que mover, crescer e verificar a colisão com o próprio
+ * corpo custam O(1). Em tabuleiros grandes a memória acompanha o tamanho da
+ * cobra, e não a área do tabuleiro. As coordenadas são em células.
+ */
+public class SnakeBody {
+    /**
+     * Recebe as mudanças de ocupação do tabuleiro causadas pela cobra.
+     */
+    public interface CellListener {
+        /**
+         * Chamado quando uma célula livre passa a ser ocupada.
+         * 
+         * @param cell Célula compactada (y * colunas + x)
+         */
+        void cellOccupied(int cell);
+        
+        /**
+         * Chamado quando uma célula ocupada é liberada.
+         * 
+         * @param cell Célula compactada (y * colunas + x)
+         */
+        void cellFreed(int cell);
+    }
+    
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private int[] cells; // Buffer circular com as células do corpo
+    private int mask; // Capacidade - 1 (a capacidade é sempre potência de 2)
+    private int headIndex; // Posição da cabeça no buffer
+    private int length; // Número de segmentos
+    private final CellSet occupied; // Células ocupadas pela cobra
+    private final int columns;
+    private final int rows;
+    private int headX; // Coluna da cabeça (pode sair do tabuleiro)
+    private int headY; // Linha da cabeça (pode sair do tabuleiro)
+    private boolean selfCollision;
+    private Direction direction;
+    private boolean growing;
+    private CellListener listener;
+    private FrozenArray frozen; // Última vista congelada do buffer (ver freeze), ou null
+    
+    /**
+     * Construtor da classe SnakeBody.
+     * A cobra começa com 3 segmentos virada para a direita.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param startX Coluna inicial da cabeça
+     * @param startY Linha inicial da cabeça
+     */
+    public SnakeBody(int columns, int rows, int startX, int startY) {
+        this(columns, rows, startX, startY, new CellSet(checkedCells(columns, rows)));
+    }
+    
+    /**
+     * Construtor da classe SnakeBody com um conjunto de células ocupadas
+     * fornecido, por exemplo um {@link CellSet#CellSet() esparso} para
+     * muitas cobras pequenas no mesmo tabuleiro.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param startX Coluna inicial da cabeça
+     * @param startY Linha inicial da cabeça
+     * @param occupied Conjunto vazio que guardará as células da cobra
+     */
+    public SnakeBody(int columns, int rows, int startX, int startY, CellSet occupied) {
+        checkedCells(columns, rows);
+        this.columns = columns;
+        this.rows = rows;
+        this.occupied = occupied;
+        this.cells = new int[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+        this.direction = Direction.RIGHT; // Direção inicial
+        this.growing = false;
+        
+        // Inicializa a cobra com 3 segmentos (adicionados da cauda para a cabeça)
+        addHead(startX - 2, startY); // Cauda
+        addHead(startX - 1, startY); // Corpo
+        addHead(startX, startY); // Cabeça
+    }
+    
+    private static int checkedCells(int columns, int rows) {
+        if ((long) columns * rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tabuleiro grande demais: " + columns + "x" + rows);
+        }
+        return columns * rows;
+    }
+    
+    /**
+     * Recomeça a cobra com 3 segmentos virada para a direita, reaproveitando
+     * o buffer e o conjunto de células ocupadas. O ouvinte não é avisado das
+     * células liberadas nem das ocupadas; quem acompanha a ocupação deve ser
+     * reiniciado em seguida (ver {@link FoodSpawner#reset(SnakeBody)}).
+     * 
+     * @param startX Coluna inicial da cabeça
+     * @param startY Linha inicial da cabeça
+     */
+    public void reset(int startX, int startY) {
+        CellListener saved = listener;
+        listener = null;
+        while (length > 0) {
+            removeTail();
+        }
+        headIndex = 0;
+        selfCollision = false;
+        direction = Direction.RIGHT;
+        growing = false;
+        addHead(startX - 2, startY);
+        addHead(startX - 1, startY);
+        addHead(startX, startY);
+        listener = saved;
+    }
+    
+    /**
+     * Move a cobra na direção atual.
+     */
+    public void move() {
+        // Se a cobra estiver crescendo, não remove a cauda
+        if (!growing) {
+            removeTail();
+        } else {
+            growing = false; // Reseta a flag de crescimento
+        }
+        
+        // Move a cabeça na direção atual
+        int x = headX;
+        int y = headY;
+        switch (direction) {
+            case UP:
+                y--;
+                break;
+            case DOWN:
+                y++;
+                break;
+            case LEFT:
+                x--;
+                break;
+            case RIGHT:
+                x++;
+                break;
+        }
+        
+        addHead(x, y);
+    }
+    
+    /**
+     * Adiciona uma nova cabeça no início do buffer e marca sua célula.
+     * Uma cabeça fora do tabuleiro não ocupa nenhuma célula.
+     */
+    private void addHead(int x, int y) {
+        if (length == cells.length) {
+            expand();
+        }
+        headIndex = (headIndex - 1) & mask;
+        if (frozen != null && !frozen.beforeWrite(headIndex)) {
+            frozen = null; // Todas as vistas já foram liberadas
+        }
+        headX = x;
+        headY = y;
+        
+        if (!isInside(x, y)) {
+            cells[headIndex] = -1;
+        } else {
+            int cell = y * columns + x;
+            cells[headIndex] = cell;
+            if (!occupied.add(cell)) {
+                selfCollision = true;
+            } else if (listener != null) {
+                listener.cellOccupied(cell);
+            }
+        }
+        length++;
+    }
+    
+    /**
+     * Remove a cauda do buffer e libera sua célula.
+     */
+    private void removeTail() {
+        int cell = cells[(headIndex + length - 1) & mask];
+        if (cell >= 0) {
+            occupied.remove(cell);
+            if (listener != null) {
+                listener.cellFreed(cell);
+            }
+        }
+        length--;
+    }
+    
+    /**
+     * Dobra a capacidade do buffer, mantendo a cabeça no índice 0.
+     */
+    private void expand() {
+        int[] expanded = new int[cells.length << 1];
+        for (int i = 0; i < length; i++) {
+            expanded[i] = cells[(headIndex + i) & mask];
+        }
+        cells = expanded;
+        mask = expanded.length - 1;
+        headIndex = 0;
+        frozen = null; // O buffer antigo não é mais alterado
+    }
+    
+    /**
+     * Congela o corpo atual sem copiá-lo: o buffer continua sendo usado e só
+     * as páginas que forem sobrescritas depois são copiadas para a vista.
+     * O elemento 0 da vista é a cabeça.
+     * 
+     * @return Vista do corpo, que deve ser liberada com {@link FrozenArray#release()}
+     */
+    FrozenArray freeze() {
+        frozen = new FrozenArray(cells, headIndex, length, mask, frozen);
+        return frozen;
+    }
+    
+    /**
+     * Substitui a cobra pela de um snapshot. Como em {@link #reset(int, int)},
+     * o ouvinte não é avisado; quem acompanha a ocupação deve ser restaurado
+     * em seguida (ver {@link FoodSpawner#restore(GameSnapshot)}).
+     * 
+     * @param snapshot Snapshot de uma partida no mesmo tabuleiro
+     */
+    void restore(GameSnapshot snapshot) {
+        CellListener saved = listener;
+        listener = null;
+        while (length > 0) {
+            removeTail();
+        }
+        
+        int size = snapshot.getLength();
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, size - 1)) << 1);
+        if (frozen != null || cells.length < capacity) {
+            // Um snapshot ainda lê o buffer atual: a cobra restaurada ganha outro
+            cells = new int[capacity];
+            mask = capacity - 1;
+            frozen = null;
+        }
+        snapshot.getBody().read(0, cells, 0, size);
+        headIndex = 0;
+        length = size;
+        selfCollision = false;
+        for (int i = size - 1; i >= 0; i--) {
+            int cell = cells[i];
+            if (cell >= 0 && !occupied.add(cell)) {
+                selfCollision = true; // A cabeça sobre o corpo, no passo em que a partida acabou
+            }
+        }
+        headX = snapshot.getHeadX();
+        headY = snapshot.getHeadY();
+        direction = snapshot.getDirection();
+        growing = snapshot.isGrowing();
+        listener = saved;
+    }
+    
+    /**
+     * Faz a cobra crescer no próximo movimento.
+     */
+    public void grow() {
+        growing = true;
+    }
+    
+    /**
+     * Verifica se a cobra vai crescer no próximo movimento (acabou de comer).
+     * 
+     * @return true se a cauda não será removida no próximo movimento, false caso contrário
+     */
+    public boolean isGrowing() {
+        return growing;
+    }
+    
+    /**
+     * Define a direção da cobra.
+     * Impede que a cobra faça um movimento de 180 graus.
+     * 
+     * @param newDirection Nova direção
+     */
+    public void setDirection(Direction newDirection) {
+        // Impede que a cobra faça um movimento de 180 graus
+        if ((direction == Direction.UP && newDirection == Direction.DOWN) ||
+            (direction == Direction.DOWN && newDirection == Direction.UP) ||
+            (direction == Direction.LEFT && newDirection == Direction.RIGHT) ||
+            (direction == Direction.RIGHT && newDirection == Direction.LEFT)) {
+            return;
+        }
+        
+        this.direction = newDirection;
+    }
+    
+    /**
+     * Define quem recebe as mudanças de ocupação do tabuleiro.
+     * As células já ocupadas não são notificadas; use {@link #getCell(int)}
+     * para sincronizar o estado inicial.
+     * 
+     * @param listener Ouvinte das mudanças, ou null para remover
+     */
+    public void setCellListener(CellListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Verifica se a cabeça está na célula informada.
+     * 
+     * @param x Coluna
+     * @param y Linha
+     * @return true se a cabeça está na célula, false caso contrário
+     */
+    public boolean isHeadAt(int x, int y) {
+        return headX == x && headY == y;
+    }
+    
+    /**
+     * Verifica se a cabeça saiu do tabuleiro.
+     * 
+     * @return true se houve colisão com a parede, false caso contrário
+     */
+    public boolean checkWallCollision() {
+        return !isInside(headX, headY);
+    }
+    
+    /**
+     * Verifica se a cobra colidiu com o próprio corpo.
+     * A verificação é feita pelo conjunto de células ocupadas no momento do movimento.
+     * 
+     * @return true se houve colisão, false caso contrário
+     */
+    public boolean checkSelfCollision() {
+        return selfCollision;
+    }
+    
+    /**
+     * Verifica se uma célula do tabuleiro está ocupada pela cobra.
+     * 
+     * @param x Coluna
+     * @param y Linha
+     * @return true se a célula está ocupada, false caso contrário
+     */
+    public boolean isOccupied(int x, int y) {
+        if (!isInside(x, y)) {
+            return false;
+        }
+        return occupied.contains(y * columns + x);
+    }
+    
+    private boolean isInside(int x, int y) {
+        return x >= 0 && x < columns && y >= 0 && y < rows;
+    }
+    
+    /**
+     * Retorna a célula compactada (y * colunas + x) de um segmento.
+     * 
+     * @param index Índice do segmento (0 é a cabeça)
+     * @return Célula do segmento, ou -1 se estiver fora do tabuleiro
+     */
+    public int getCell(int index) {
+        return cells[(headIndex + index) & mask];
+    }
+    
+    /**
+     * Retorna a coluna da cabeça.
+     * 
+     * @return Coluna da cabeça
+     */
+    public int getHeadX() {
+        return headX;
+    }
+    
+    /**
+     * Retorna a linha da cabeça.
+     * 
+     * @return Linha da cabeça
+     */
+    public int getHeadY() {
+        return headY;
+    }
+    
+    /**
+     * Retorna a direção atual da cobra.
+     * 
+     * @return Direção atual
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+    
+    /**
+     * Retorna o número de colunas do tabuleiro.
+     * 
+     * @return Número de colunas
+     */
+    public int getColumns() {
+        return columns;
+    }
+    
+    /**
+     * Retorna o número de linhas do tabuleiro.
+     * 
+     * @return Número de linhas
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Retorna o tamanho atual da cobra.
+     * 
+     * @return Número de segmentos da cobra
+     */
+    public int getSize() {
+        return length;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,251 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Random;
+
+/**
+ * Cliente do {@link SnakeServer}: envia as mudanças de direção e mantém uma
+ * {@link ArenaMirror} com o estado da sala.
+ * 
+ * Pode ser usado de forma bloqueante ({@link #receive()}) ou, com o canal
+ * em modo não bloqueante registrado em um seletor, chamando
+ * {@link #readAvailable()} quando houver dados.
+ */
+public class SnakeClient implements AutoCloseable {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    
+    private final SocketChannel channel;
+    private ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private final ArenaMirror mirror = new ArenaMirror();
+    private final NetProtocol.FrameWriter out = new NetProtocol.FrameWriter();
+    private long bytesReceived;
+    private long ticksReceived;
+    
+    /**
+     * Construtor da classe SnakeClient. Conecta e pede para entrar na sala.
+     * 
+     * @param address Endereço do servidor
+     * @param room Número da sala
+     * @throws IOException se não for possível conectar
+     */
+    public SnakeClient(InetSocketAddress address, int room) throws IOException {
+        channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        out.begin(NetProtocol.JOIN);
+        out.writeVarLong(room);
+        write();
+    }
+    
+    /**
+     * Pede uma mudança de direção da cobra do jogador.
+     * 
+     * @param direction Nova direção
+     * @throws IOException se a conexão falhar
+     */
+    public void turn(Direction direction) throws IOException {
+        out.begin(NetProtocol.TURN);
+        out.writeVarLong(direction.ordinal());
+        write();
+    }
+    
+    /**
+     * Pede para voltar à arena depois de eliminado.
+     * 
+     * @throws IOException se a conexão falhar
+     */
+    public void respawn() throws IOException {
+        out.begin(NetProtocol.RESPAWN);
+        write();
+    }
+    
+    private void write() throws IOException {
+        ByteBuffer frame = out.toFrame();
+        while (frame.hasRemaining()) {
+            channel.write(frame); // Quadros de poucos bytes: cabem no buffer do socket
+        }
+    }
+    
+    /**
+     * Aguarda e aplica o próximo quadro do servidor (modo bloqueante).
+     * 
+     * @return Tipo do quadro aplicado
+     * @throws IOException se a conexão for fechada ou falhar
+     */
+    public int receive() throws IOException {
+        while (true) {
+            in.flip();
+            int type = applyNext();
+            in.compact();
+            if (type >= 0) {
+                return type;
+            }
+            ensureSpace();
+            int read = channel.read(in);
+            if (read < 0) {
+                throw new EOFException("Conexão encerrada pelo servidor");
+            }
+            bytesReceived += read;
+        }
+    }
+    
+    /**
+     * Lê o que já chegou e aplica todos os quadros completos (modo não bloqueante).
+     * 
+     * @return Número de quadros aplicados
+     * @throws IOException se a conexão for fechada ou falhar
+     */
+    public int readAvailable() throws IOException {
+        int applied = 0;
+        while (true) {
+            ensureSpace();
+            int read = channel.read(in);
+            if (read < 0) {
+                throw new EOFException("Conexão encerrada pelo servidor");
+            }
+            bytesReceived += read;
+            in.flip();
+            while (applyNext() >= 0) {
+                applied++;
+            }
+            in.compact();
+            if (read == 0 || in.hasRemaining()) {
+                return applied;
+            }
+        }
+    }
+    
+    /**
+     * Dobra o buffer de leitura se ele está cheio (um estado completo grande).
+     */
+    private void ensureSpace() {
+        if (!in.hasRemaining()) {
+            ByteBuffer larger = ByteBuffer.allocate(in.capacity() * 2);
+            in.flip();
+            larger.put(in);
+            in = larger;
+        }
+    }
+    
+    /**
+     * Aplica o próximo quadro completo do buffer, se houver.
+     */
+    private int applyNext() throws IOException {
+        int length = NetProtocol.nextFrame(in);
+        if (length < 0) {
+            return -1;
+        }
+        ByteBuffer payload = in.slice(in.position(), length);
+        in.position(in.position() + length);
+        int type = payload.get();
+        switch (type) {
+            case NetProtocol.WELCOME:
+                mirror.applyWelcome(payload);
+                break;
+            case NetProtocol.ASSIGN:
+                mirror.applyAssign(payload);
+                break;
+            case NetProtocol.TICK:
+                mirror.applyTick(payload);
+                ticksReceived++;
+                break;
+            default:
+                throw new IOException("Tipo de quadro desconhecido: " + type);
+        }
+        return type;
+    }
+    
+    /**
+     * Retorna a cópia local da sala.
+     * 
+     * @return Estado da sala
+     */
+    public ArenaMirror getMirror() {
+        return mirror;
+    }
+    
+    /**
+     * Retorna o canal da conexão, para registrar em um seletor.
+     * 
+     * @return Canal da conexão
+     */
+    public SocketChannel getChannel() {
+        return channel;
+    }
+    
+    /**
+     * Retorna o total de bytes recebidos.
+     * 
+     * @return Bytes recebidos
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+    
+    /**
+     * Retorna o número de quadros TICK recebidos.
+     * 
+     * @return Passos recebidos
+     */
+    public long getTicksReceived() {
+        return ticksReceived;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    /**
+     * Conecta a um servidor e mostra o andamento da sala; a cobra do
+     * jogador é guiada por mudanças de direção aleatórias.
+     * 
+     * Uso: SnakeClient [host] [porta] [--sala N] [--passos N]
+     * 
+     * @param args Argumentos da linha de comando
+     */
+    public static void main(String[] args) throws IOException {
+        String host = "localhost";
+        int port = SnakeServer.DEFAULT_PORT;
+        int room = 0;
+        long steps = 100;
+        int positional = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sala":
+                    room = Integer.parseInt(args[++i]);
+                    break;
+                case "--passos":
+                    steps = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    if (positional++ == 0) {
+                        host = args[i];
+                    } else {
+                        port = Integer.parseInt(args[i]);
+                    }
+            }
+        }
+        
+        Random random = new Random();
+        try (SnakeClient client = new SnakeClient(new InetSocketAddress(host, port), room)) {
+            ArenaMirror mirror = client.getMirror();
+            while (client.getTicksReceived() < steps) {
+                if (client.receive() != NetProtocol.TICK) {
+                    continue;
+                }
+                if (mirror.getPlayerId() >= 0 && !mirror.isAlive(mirror.getPlayerId())) {
+                    client.respawn();
+                } else if (random.nextInt(5) == 0) {
+                    client.turn(Direction.values()[random.nextInt(4)]);
+                }
+                if (mirror.getTick() % 10 == 0) {
+                    System.out.println("Passo " + mirror.getTick() + ": " + mirror.getAliveCount() + " cobras, "
+                            + client.getBytesReceived() / client.getTicksReceived() + " bytes por passo");
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+/**
+ * Interface para quem decide a direção da cobra a cada passo
+ * (bots, replays, jogadores remotos).
+ */
+public interface SnakeController {
+    /**
+     * Decide a direção da cobra para o próximo passo.
+     * 
+     * @param state Estado atual da partida
+     * @return Nova direção, ou null para manter a atual
+     */
+    Direction nextDirection(GameState state);
+}
\ No newline at end of file
@@ -0,0 +1,194 @@
+/**
+ * Ambiente de treino por reforço no estilo do Gym: reset, step, observação e
+ * recompensa sobre um {@link GameEngine}.
+ * 
+ * As ações são relativas à direção atual ({@link #ACTION_STRAIGHT},
+ * {@link #ACTION_LEFT}, {@link #ACTION_RIGHT}), então toda ação é válida. A
+ * observação tem {@value #OBSERVATION_SIZE} valores, escritos em um
+ * {@code float[]} a partir de uma posição, para que vários ambientes
+ * compartilhem o mesmo vetor (ver {@link VectorSnakeEnv}):
+ * - 0 a 2: perigo (parede ou corpo) à frente, à esquerda e à direita;
+ * - 3 a 6: direção atual (cima, baixo, esquerda, direita), um só valor 1;
+ * - 7 a 10: comida acima, abaixo, à esquerda e à direita da cabeça;
+ * - 11: fração do tabuleiro ocupada pela cobra.
+ * 
+ * Um episódio acaba quando a cobra morre, ocupa o tabuleiro inteiro ou passa
+ * {@code colunas * linhas} passos sem comer (truncado). O reinício
+ * reaproveita a cobra e a comida ({@link GameEngine#restart(long)}), então
+ * nem o passo nem o reinício alocam memória.
+ */
+public class SnakeEnv {
+    /** Número de valores da observação. */
+    public static final int OBSERVATION_SIZE = 12;
+    /** Número de ações. */
+    public static final int ACTIONS = 3;
+    /** Segue em frente. */
+    public static final int ACTION_STRAIGHT = 0;
+    /** Vira à esquerda da direção atual. */
+    public static final int ACTION_LEFT = 1;
+    /** Vira à direita da direção atual. */
+    public static final int ACTION_RIGHT = 2;
+    
+    /** Recompensa por comer. */
+    public static final float REWARD_FOOD = 1f;
+    /** Recompensa por morrer. */
+    public static final float REWARD_DEATH = -1f;
+    
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // Direção resultante de cada ação, indexada por [direção atual][ação]
+    private static final Direction[][] TURNS = new Direction[DIRECTIONS.length][ACTIONS];
+    
+    static {
+        for (Direction direction : DIRECTIONS) {
+            Direction left = null;
+            Direction right = null;
+            for (Direction other : DIRECTIONS) {
+                // Com y crescendo para baixo, a esquerda de (dx, dy) é (dy, -dx)
+                if (other.getDx() == direction.getDy() && other.getDy() == -direction.getDx()) {
+                    left = other;
+                } else if (other.getDx() == -direction.getDy() && other.getDy() == direction.getDx()) {
+                    right = other;
+                }
+            }
+            TURNS[direction.ordinal()][ACTION_STRAIGHT] = direction;
+            TURNS[direction.ordinal()][ACTION_LEFT] = left;
+            TURNS[direction.ordinal()][ACTION_RIGHT] = right;
+        }
+    }
+    
+    private final GameEngine engine;
+    private final GameState state; // Mesmo estado em todos os episódios (ver GameEngine#restart)
+    private final SnakeBody snake;
+    private final FoodSpawner food;
+    private final int columns;
+    private final int rows;
+    private final long stallLimit; // Passos sem comer antes de truncar o episódio
+    private long lastMeal; // Passo em que a cobra comeu pela última vez
+    private boolean done;
+    private boolean truncated;
+    
+    /**
+     * Construtor da classe SnakeEnv.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param seed Semente do primeiro episódio
+     */
+    public SnakeEnv(int columns, int rows, long seed) {
+        this.engine = new GameEngine(columns, rows, seed);
+        this.state = engine.getState();
+        this.snake = state.getSnake();
+        this.food = state.getFood();
+        this.columns = columns;
+        this.rows = rows;
+        this.stallLimit = (long) columns * rows;
+    }
+    
+    /**
+     * Começa um novo episódio.
+     * 
+     * @param seed Semente usada para sortear a comida
+     */
+    public void reset(long seed) {
+        engine.restart(seed);
+        lastMeal = 0;
+        done = false;
+        truncated = false;
+    }
+    
+    /**
+     * Avança o episódio um passo.
+     * 
+     * @param action {@link #ACTION_STRAIGHT}, {@link #ACTION_LEFT} ou {@link #ACTION_RIGHT}
+     * @return Recompensa do passo
+     */
+    public float step(int action) {
+        if (done) {
+            return 0f;
+        }
+        GameState.Status status = engine.step(TURNS[snake.getDirection().ordinal()][action]);
+        if (status == GameState.Status.GAME_OVER) {
+            done = true;
+            return REWARD_DEATH;
+        }
+        
+        // Ao comer, o motor pede o crescimento para o passo seguinte
+        boolean ate = snake.isGrowing();
+        if (ate) {
+            lastMeal = state.getTick();
+        }
+        if (status == GameState.Status.WON) {
+            done = true;
+        } else if (state.getTick() - lastMeal >= stallLimit) {
+            done = true;
+            truncated = true;
+        }
+        return ate ? REWARD_FOOD : 0f;
+    }
+    
+    /**
+     * Escreve a observação atual.
+     * 
+     * @param out Vetor de saída
+     * @param offset Posição do primeiro dos {@value #OBSERVATION_SIZE} valores
+     */
+    public void observe(float[] out, int offset) {
+        int headX = snake.getHeadX();
+        int headY = snake.getHeadY();
+        Direction[] turns = TURNS[snake.getDirection().ordinal()];
+        
+        for (int action = 0; action < ACTIONS; action++) {
+            out[offset + action] = isDanger(headX + turns[action].getDx(), headY + turns[action].getDy()) ? 1f : 0f;
+        }
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            out[offset + 3 + i] = DIRECTIONS[i] == snake.getDirection() ? 1f : 0f;
+        }
+        boolean hasFood = food.getX() >= 0;
+        out[offset + 7] = hasFood && food.getY() < headY ? 1f : 0f;
+        out[offset + 8] = hasFood && food.getY() > headY ? 1f : 0f;
+        out[offset + 9] = hasFood && food.getX() < headX ? 1f : 0f;
+        out[offset + 10] = hasFood && food.getX() > headX ? 1f : 0f;
+        out[offset + 11] = (float) snake.getSize() / (columns * rows);
+    }
+    
+    /**
+     * Verifica se entrar na célula mata a cobra no próximo passo. A cauda só
+     * é perigo se a cobra vai crescer, porque senão sai da célula antes.
+     */
+    private boolean isDanger(int x, int y) {
+        if (x < 0 || x >= columns || y < 0 || y >= rows) {
+            return true;
+        }
+        if (!snake.isOccupied(x, y)) {
+            return false;
+        }
+        return snake.isGrowing() || snake.getCell(snake.getSize() - 1) != y * columns + x;
+    }
+    
+    /**
+     * Verifica se o episódio acabou.
+     * 
+     * @return true se a cobra morreu, venceu ou o episódio foi truncado
+     */
+    public boolean isDone() {
+        return done;
+    }
+    
+    /**
+     * Verifica se o episódio acabou por limite de passos sem comer.
+     * 
+     * @return true se o episódio foi truncado, false caso contrário
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    /**
+     * Retorna o estado da partida do episódio atual.
+     * 
+     * @return Estado da partida
+     */
+    public GameState getState() {
+        return state;
+    }
+}
\ No newline at end of file
@@ -50,6 +50,61 @@ public class SnakeGame extends JFrame {
             }
         });
         
+        JMenuItem boardSizeItem = new JMenuItem("Tamanho do Tabuleiro...");
+        boardSizeItem.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                chooseBoardSize();
+                gamePanel.requestFocus(); // Devolve o foco para o painel do jogo
+            }
+        });
+        
+        JMenuItem saveItem = new JMenuItem("Salvar Jogo");
+        saveItem.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gamePanel.saveGame();
+                gamePanel.requestFocus(); // Devolve o foco para o painel do jogo
+            }
+        });
+        
+        JMenuItem loadItem = new JMenuItem("Carregar Jogo");
+        loadItem.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gamePanel.loadGame();
+                gamePanel.requestFocus(); // Devolve o foco para o painel do jogo
+            }
+        });
+        
+        // Um item por nível de dificuldade, com o atual marcado
+        JMenu difficultyMenu = new JMenu("Dificuldade");
+        ButtonGroup difficultyGroup = new ButtonGroup();
+        for (Difficulty difficulty : Difficulty.values()) {
+            JRadioButtonMenuItem difficultyItem = new JRadioButtonMenuItem(difficulty.getLabel());
+            difficultyItem.setSelected(difficulty == gamePanel.getDifficulty());
+            difficultyItem.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    gamePanel.setDifficulty(difficulty);
+                    gamePanel.requestFocus(); // Devolve o foco para o painel do jogo
+                }
+            });
+            difficultyGroup.add(difficultyItem);
+            difficultyMenu.add(difficultyItem);
+        }
+        
+        JCheckBoxMenuItem autopilotItem = new JCheckBoxMenuItem("Piloto Automático");
+        autopilotItem.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                gamePanel.setAutopilot(autopilotItem.isSelected());
+                gamePanel.requestFocus(); // Devolve o foco para o painel do jogo
+            }
+        });
+        // Acompanha o piloto ligado ou desligado pela tecla A
+        gamePanel.addPropertyChangeListener("autopilot", e -> autopilotItem.setSelected(gamePanel.isAutopilot()));
+        
         JMenuItem exitItem = new JMenuItem("Sair");
         exitItem.addActionListener(new ActionListener() {
             @Override
@@ -59,6 +114,11 @@ public class SnakeGame extends JFrame {
         });
         
         gameMenu.add(newGameItem);
+        gameMenu.add(boardSizeItem);
+        gameMenu.add(saveItem);
+        gameMenu.add(loadItem);
+        gameMenu.add(difficultyMenu);
+        gameMenu.add(autopilotItem);
         gameMenu.addSeparator();
         gameMenu.add(exitItem);
         
@@ -109,6 +169,28 @@ public class SnakeGame extends JFrame {
         this.setJMenuBar(menuBar);
     }
     
+    /**
+     * Pergunta o novo tamanho do tabuleiro (colunas x linhas) e reinicia o jogo nele.
+     */
+    private void chooseBoardSize() {
+        String answer = JOptionPane.showInputDialog(this,
+                "Colunas x linhas (de " + GamePanel.MIN_BOARD_SIZE + " a " + GamePanel.MAX_BOARD_SIZE + "), ex.: 30x30",
+                "Tamanho do Tabuleiro", JOptionPane.PLAIN_MESSAGE);
+        if (answer == null) {
+            return;
+        }
+        try {
+            String[] parts = answer.trim().toLowerCase().split("\\s*x\\s*");
+            int columns = Integer.parseInt(parts[0]);
+            int rows = parts.length > 1 ? Integer.parseInt(parts[1]) : columns;
+            gamePanel.setBoardSize(columns, rows);
+            this.pack();
+            this.setLocationRelativeTo(null);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, "Tamanho inválido: " + answer, "Tamanho do Tabuleiro", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
     /**
      * Exibe as instruções do jogo.
      */
@@ -118,7 +200,10 @@ public class SnakeGame extends JFrame {
             "- Use as setas do teclado para controlar a direção da cobra\n" +
             "- Coma a comida vermelha para crescer e ganhar pontos\n" +
             "- Evite colidir com as paredes ou com o próprio corpo\n" +
+            "- O jogo acelera conforme a cobra cresce (menu Jogo > Dificuldade)\n" +
             "- Pressione ESPAÇO para reiniciar o jogo após o Game Over\n" +
+            "- Pressione A para ligar ou desligar o piloto automático\n" +
+            "- Pressione S para salvar a partida e L para continuá-la depois\n" +
             "- Pressione R para ver o ranking a qualquer momento";
         
         JOptionPane.showMessageDialog(this, instructions, "Instruções", JOptionPane.INFORMATION_MESSAGE);
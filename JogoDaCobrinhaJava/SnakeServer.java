@@ -0,0 +1,494 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor multijogador: cada sala é uma {@link Arena} que só o servidor
+ * avança (passo autoritativo); os clientes mandam apenas as mudanças de
+ * direção.
+ * 
+ * Uma única thread atende todas as conexões com NIO (um {@link Selector}) e
+ * executa os passos de todas as salas. A cada passo os eventos da arena
+ * viram um único quadro {@link NetProtocol#TICK} por sala, com 1 ou 2 bytes
+ * por cobra, enviado sem cópia a todos os clientes da sala. Como cada sala
+ * tem no máximo {@value #MAX_SNAKES_PER_ROOM} cobras, o tráfego por cliente
+ * e por passo é limitado. Um cliente que não consegue acompanhar e acumula
+ * mais de {@value #MAX_PENDING_BYTES} bytes a enviar é desconectado.
+ */
+public class SnakeServer implements Runnable, AutoCloseable {
+    public static final int DEFAULT_PORT = 7777;
+    public static final int ROOM_COLUMNS = 60;
+    public static final int ROOM_ROWS = 60;
+    public static final int MAX_SNAKES_PER_ROOM = 64;
+    private static final int ROOM_FOOD = 16;
+    private static final int INPUT_CAPACITY = 4;
+    private static final int READ_BUFFER_SIZE = 256;
+    private static final long MAX_PENDING_BYTES = 256 * 1024;
+    
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final long tickNanos;
+    private final int botsPerRoom;
+    private final Map<Integer, Room> rooms = new HashMap<>();
+    private final ArenaBot bot = new ArenaBot();
+    private final NetProtocol.FrameWriter welcome = new NetProtocol.FrameWriter();
+    private Thread thread;
+    private volatile boolean running = true;
+    private int clientCount;
+    
+    /**
+     * Conexão de um cliente.
+     */
+    private static class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        final InputQueue input = new InputQueue(INPUT_CAPACITY);
+        long pendingBytes;
+        Room room;
+        int snake = -1;
+        boolean respawn; // Pediu para voltar à arena
+        
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+    
+    /**
+     * Sala: uma arena, seus clientes e seus bots.
+     */
+    private class Room {
+        final int number;
+        final Arena arena;
+        final ArenaMirror.Encoder encoder = new ArenaMirror.Encoder();
+        final List<Client> clients = new ArrayList<>();
+        final List<Client> joining = new ArrayList<>(); // Recebem o estado completo no próximo passo
+        final int bots; // Os bots são as cobras 0 a bots - 1
+        final List<Integer> orphans = new ArrayList<>(); // Cobras de clientes que saíram
+        Client[] controllers = new Client[0]; // Cliente de cada cobra, por identificador
+        Direction[] turns = new Direction[0];
+        
+        Room(int number) {
+            this.number = number;
+            this.arena = new Arena(ROOM_COLUMNS, ROOM_ROWS, ROOM_FOOD, System.nanoTime() ^ number);
+            int spawned = 0;
+            while (spawned < botsPerRoom && arena.spawnSnake() >= 0) {
+                spawned++;
+            }
+            this.bots = spawned;
+            
+            // Os eventos só são gravados a partir daqui: os bots já vão no estado completo
+            this.arena.setListener(encoder);
+            encoder.begin(arena.getTick() + 1);
+        }
+        
+        /**
+         * Executa um passo: entrega o estado completo aos novos clientes,
+         * coloca as cobras que pediram para entrar ou voltar, avança a arena
+         * e envia o quadro com as mudanças.
+         */
+        void tick() {
+            // O estado completo é o do fim do passo anterior; as mudanças deste passo vêm no TICK
+            List<Client> joined = new ArrayList<>(joining);
+            joining.clear();
+            if (!joined.isEmpty()) {
+                ArenaMirror.writeWelcome(arena, welcome);
+                ByteBuffer frame = welcome.toFrame();
+                for (Client client : joined) {
+                    send(client, frame.duplicate());
+                }
+            }
+            
+            for (Client client : joined) {
+                if (!client.channel.isOpen()) {
+                    continue; // Desconectado ao receber o estado completo
+                }
+                client.snake = assignSnake();
+                if (client.snake >= 0) {
+                    controller(client.snake, client);
+                }
+                welcome.begin(NetProtocol.ASSIGN);
+                welcome.writeVarLong(client.snake + 1);
+                send(client, welcome.toFrame());
+                if (client.channel.isOpen()) {
+                    clients.add(client);
+                }
+            }
+            
+            for (int id = 0; id < bots; id++) {
+                if (!arena.isAlive(id)) {
+                    arena.respawn(id);
+                }
+            }
+            
+            if (turns.length < arena.getSnakeCount()) {
+                turns = new Direction[arena.getSnakeCount()];
+            }
+            for (int id = 0; id < arena.getSnakeCount(); id++) {
+                turns[id] = null;
+                if (!arena.isAlive(id)) {
+                    continue;
+                }
+                Client client = id < controllers.length ? controllers[id] : null;
+                if (client != null) {
+                    turns[id] = client.input.nextTurn(arena.getSnake(id).getDirection());
+                } else if (id < bots) {
+                    turns[id] = bot.nextDirection(arena, id);
+                }
+            }
+            for (Client client : clients) {
+                if (client.respawn && client.snake >= 0 && !arena.isAlive(client.snake)) {
+                    arena.respawn(client.snake);
+                    client.input.clear();
+                }
+                client.respawn = false;
+            }
+            
+            arena.step(turns);
+            ByteBuffer frame = encoder.toFrame();
+            for (int i = clients.size() - 1; i >= 0; i--) {
+                send(clients.get(i), frame.duplicate());
+            }
+            encoder.begin(arena.getTick() + 1);
+        }
+        
+        /**
+         * Reaproveita a cobra eliminada de um cliente que saiu, ou cria uma nova.
+         */
+        int assignSnake() {
+            for (Iterator<Integer> it = orphans.iterator(); it.hasNext(); ) {
+                int id = it.next();
+                if (!arena.isAlive(id) && arena.respawn(id)) {
+                    it.remove();
+                    return id;
+                }
+            }
+            if (arena.getSnakeCount() >= MAX_SNAKES_PER_ROOM) {
+                return -1;
+            }
+            return arena.spawnSnake();
+        }
+        
+        void controller(int id, Client client) {
+            if (controllers.length <= id) {
+                controllers = Arrays.copyOf(controllers, Math.max(id + 1, controllers.length * 2));
+            }
+            controllers[id] = client;
+        }
+        
+        void leave(Client client) {
+            joining.remove(client);
+            clients.remove(client);
+            if (client.snake >= 0) {
+                controller(client.snake, null);
+                orphans.add(client.snake); // Segue reto até bater e então pode ser reaproveitada
+            }
+        }
+    }
+    
+    /**
+     * Construtor da classe SnakeServer. Abre a porta, mas só atende depois de {@link #start()}.
+     * 
+     * @param address Endereço e porta (porta 0 escolhe uma livre)
+     * @param tickMillis Duração de cada passo, em milissegundos
+     * @param botsPerRoom Número de bots em cada sala
+     * @throws IOException se a porta não puder ser aberta
+     */
+    public SnakeServer(InetSocketAddress address, int tickMillis, int botsPerRoom) throws IOException {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.botsPerRoom = Math.min(botsPerRoom, MAX_SNAKES_PER_ROOM);
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        this.server.bind(address);
+        this.server.configureBlocking(false);
+        this.server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+    
+    /**
+     * Inicia a thread do servidor.
+     */
+    public synchronized void start() {
+        if (thread == null) {
+            thread = new Thread(this, "snake-server");
+            thread.start();
+        }
+    }
+    
+    /**
+     * Laço do servidor: atende as conexões entre um passo e outro.
+     */
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime() + tickNanos;
+        while (running) {
+            try {
+                long wait = nextTick - System.nanoTime();
+                if (wait > 0) {
+                    selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)));
+                } else {
+                    selector.selectNow();
+                }
+                for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    handle(key);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            
+            long now = System.nanoTime();
+            if (now - nextTick >= 0) {
+                for (Iterator<Room> it = rooms.values().iterator(); it.hasNext(); ) {
+                    Room room = it.next();
+                    room.tick();
+                    if (room.clients.isEmpty() && room.joining.isEmpty()) {
+                        it.remove(); // Sala vazia: só bots, ninguém assistindo
+                    }
+                }
+                nextTick += tickNanos;
+                if (now - nextTick > 5 * tickNanos) {
+                    nextTick = now + tickNanos; // Muito atrasado: descarta os passos perdidos
+                }
+            }
+        }
+        shutdown();
+    }
+    
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        try {
+            if (key.isAcceptable()) {
+                SocketChannel channel = server.accept();
+                if (channel != null) {
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    channel.register(selector, SelectionKey.OP_READ, new Client(channel));
+                    clientCount++;
+                }
+                return;
+            }
+            Client client = (Client) key.attachment();
+            if (key.isReadable()) {
+                read(client);
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush(client);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Conexão perdida ou quadro inválido: o cliente é desconectado
+            if (key.attachment() instanceof Client) {
+                disconnect((Client) key.attachment());
+            }
+        }
+    }
+    
+    private void read(Client client) throws IOException {
+        if (client.channel.read(client.in) < 0) {
+            disconnect(client);
+            return;
+        }
+        client.in.flip();
+        int length;
+        while ((length = NetProtocol.nextFrame(client.in)) >= 0) {
+            if (length == 0 || length > NetProtocol.MAX_CLIENT_FRAME) {
+                throw new IOException("Quadro inválido");
+            }
+            int end = client.in.position() + length;
+            ByteBuffer payload = client.in.slice(client.in.position(), length);
+            client.in.position(end);
+            receive(client, payload);
+        }
+        client.in.compact();
+        if (!client.in.hasRemaining()) {
+            throw new IOException("Quadro grande demais");
+        }
+    }
+    
+    private void receive(Client client, ByteBuffer payload) throws IOException {
+        int type = payload.get();
+        switch (type) {
+            case NetProtocol.JOIN:
+                if (client.room == null) {
+                    int number = NetProtocol.readVarInt(payload);
+                    client.room = rooms.computeIfAbsent(number, Room::new);
+                    client.room.joining.add(client);
+                }
+                break;
+            case NetProtocol.TURN:
+                int direction = NetProtocol.readVarInt(payload);
+                if (direction >= Direction.values().length) {
+                    throw new IOException("Direção inválida: " + direction);
+                }
+                client.input.offer(Direction.values()[direction]);
+                break;
+            case NetProtocol.RESPAWN:
+                client.respawn = true;
+                break;
+            default:
+                throw new IOException("Tipo de quadro desconhecido: " + type);
+        }
+    }
+    
+    /**
+     * Enfileira um quadro para um cliente e tenta enviá-lo na hora.
+     */
+    private void send(Client client, ByteBuffer frame) {
+        if (!client.channel.isOpen()) {
+            return;
+        }
+        client.out.add(frame);
+        client.pendingBytes += frame.remaining();
+        if (client.pendingBytes > MAX_PENDING_BYTES) {
+            disconnect(client); // Lento demais para acompanhar os passos
+            return;
+        }
+        try {
+            flush(client);
+        } catch (IOException e) {
+            disconnect(client);
+        }
+    }
+    
+    private void flush(Client client) throws IOException {
+        while (!client.out.isEmpty()) {
+            ByteBuffer frame = client.out.peek();
+            client.pendingBytes -= client.channel.write(frame);
+            if (frame.hasRemaining()) {
+                break; // O buffer do socket encheu
+            }
+            client.out.poll();
+        }
+        SelectionKey key = client.channel.keyFor(selector);
+        if (key != null && key.isValid()) {
+            key.interestOps(client.out.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+    
+    private void disconnect(Client client) {
+        if (client.room != null) {
+            client.room.leave(client);
+            client.room = null;
+        }
+        if (client.channel.isOpen()) {
+            clientCount--;
+            try {
+                client.channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    private void shutdown() {
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Retorna a porta em que o servidor atende.
+     * 
+     * @return Porta local
+     */
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Retorna o número de clientes conectados (só a thread do servidor altera).
+     * 
+     * @return Número de clientes conectados
+     */
+    public int getClientCount() {
+        return clientCount;
+    }
+    
+    /**
+     * Retorna a arena de uma sala, para ferramentas e testes.
+     * Só deve ser consultada com o servidor parado.
+     * 
+     * @param room Número da sala
+     * @return Arena da sala, ou null se a sala não existe
+     */
+    public Arena getArena(int room) {
+        Room found = rooms.get(room);
+        return found == null ? null : found.arena;
+    }
+    
+    /**
+     * Para o servidor e fecha todas as conexões.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        Thread current = thread;
+        if (current == null) {
+            shutdown();
+            return;
+        }
+        try {
+            current.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Inicia o servidor.
+     * 
+     * Uso: SnakeServer [porta] [--bots N] [--passo ms]
+     * 
+     * @param args Argumentos da linha de comando
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int bots = 8;
+        int tickMillis = 100;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--bots":
+                    bots = Integer.parseInt(args[++i]);
+                    break;
+                case "--passo":
+                    tickMillis = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    port = Integer.parseInt(args[i]);
+            }
+        }
+        SnakeServer server = new SnakeServer(new InetSocketAddress(port), tickMillis, bots);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        System.out.println("Servidor na porta " + server.getPort() + " (passo de " + tickMillis + " ms, " + bots + " bots por sala)");
+    }
+}
\ No newline at end of file
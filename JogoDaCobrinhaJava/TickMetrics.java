@@ -0,0 +1,333 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas do laço do jogo: tempo da lógica de cada passo, tempo de pintura,
+ * atraso do timer em relação ao intervalo esperado e memória alocada pela
+ * thread do jogo a cada passo.
+ * 
+ * Os tempos ficam em {@link Histogram}s e as medições não alocam memória,
+ * então ligar as métricas não altera o que está sendo medido. Elas podem ser
+ * vistas em uma camada sobre o jogo e gravadas periodicamente em um arquivo
+ * no formato de texto do Prometheus.
+ */
+public class TickMetrics {
+    /** Largura da camada de métricas, em pixels. */
+    public static final int OVERLAY_WIDTH = 330;
+    /** Altura da camada de métricas, em pixels. */
+    public static final int OVERLAY_HEIGHT = 90;
+    
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 180);
+    private static final int LINE_HEIGHT = 14;
+    
+    // Limites (em segundos) das faixas exportadas para o Prometheus
+    private static final double[] TIME_BUCKETS = {
+        0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25
+    };
+    private static final double[] BYTE_BUCKETS = {
+        0, 256, 1024, 4096, 16384, 65536, 262144, 1048576
+    };
+    
+    private volatile long expectedInterval;
+    private final Histogram logic = new Histogram();
+    private final Histogram paint = new Histogram();
+    private final Histogram jitter = new Histogram();
+    private final Histogram allocation = new Histogram();
+    private final com.sun.management.ThreadMXBean threads;
+    private final char[] line = new char[64]; // Texto da camada, montado sem criar Strings
+    private volatile boolean enabled;
+    private long lastTickStart;
+    private long lastAllocated = -1;
+    private ScheduledExecutorService exporter;
+    
+    /**
+     * Construtor da classe TickMetrics. As métricas começam desligadas.
+     * 
+     * @param expectedIntervalMillis Intervalo esperado entre os passos, em milissegundos
+     */
+    public TickMetrics(long expectedIntervalMillis) {
+        this.expectedInterval = TimeUnit.MILLISECONDS.toNanos(expectedIntervalMillis);
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            this.threads = (com.sun.management.ThreadMXBean) bean;
+        } else {
+            this.threads = null; // JVM sem contagem de alocação por thread
+        }
+    }
+    
+    /**
+     * Muda o intervalo esperado entre os passos, quando o jogo acelera.
+     * 
+     * @param expectedIntervalMillis Intervalo esperado entre os passos, em milissegundos
+     */
+    public void setExpectedInterval(long expectedIntervalMillis) {
+        this.expectedInterval = TimeUnit.MILLISECONDS.toNanos(expectedIntervalMillis);
+    }
+    
+    /**
+     * Liga ou desliga as medições. Desligadas, as chamadas de medição não fazem nada.
+     * 
+     * @param enabled true para medir
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            lastTickStart = 0; // O primeiro passo depois de ligar não tem intervalo anterior
+            lastAllocated = -1;
+        }
+        this.enabled = enabled;
+    }
+    
+    /**
+     * @return true se as medições estão ligadas
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Avisa que o timer do jogo parou. O próximo passo não registra o atraso,
+     * que seria o tempo da pausa.
+     */
+    public void pause() {
+        lastTickStart = 0;
+    }
+    
+    /**
+     * Marca o início de um passo do jogo. Registra o atraso em relação ao
+     * intervalo esperado e a memória alocada pela thread desde o passo anterior.
+     * 
+     * @return Instante do início, a ser passado para {@link #tickFinished(long)}
+     */
+    public long tickStarted() {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (lastTickStart != 0) {
+            jitter.record(Math.abs(now - lastTickStart - expectedInterval));
+        }
+        lastTickStart = now;
+        
+        if (threads != null) {
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            if (lastAllocated >= 0) {
+                allocation.record(allocated - lastAllocated);
+            }
+            lastAllocated = allocated;
+        }
+        return now;
+    }
+    
+    /**
+     * Marca o fim da lógica de um passo do jogo.
+     * 
+     * @param start Valor devolvido por {@link #tickStarted()}
+     */
+    public void tickFinished(long start) {
+        if (enabled && start != 0) {
+            logic.record(System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Marca o início de uma pintura.
+     * 
+     * @return Instante do início, a ser passado para {@link #paintFinished(long)}
+     */
+    public long paintStarted() {
+        return enabled ? System.nanoTime() : 0;
+    }
+    
+    /**
+     * Marca o fim de uma pintura.
+     * 
+     * @param start Valor devolvido por {@link #paintStarted()}
+     */
+    public void paintFinished(long start) {
+        if (enabled && start != 0) {
+            paint.record(System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Desenha a camada de métricas. O texto é montado em um vetor de
+     * caracteres reaproveitado, sem criar Strings a cada quadro; o que
+     * sobra é a alocação interna do Java2D ao desenhar texto.
+     * 
+     * @param g Contexto gráfico
+     * @param x Posição X do canto superior esquerdo
+     * @param y Posição Y do canto superior esquerdo
+     */
+    public void drawOverlay(Graphics g, int x, int y) {
+        g.setColor(OVERLAY_BACKGROUND);
+        g.fillRect(x, y, OVERLAY_WIDTH, OVERLAY_HEIGHT);
+        g.setColor(Color.WHITE);
+        g.setFont(OVERLAY_FONT);
+        
+        int baseline = y + LINE_HEIGHT;
+        drawTimes(g, "lógica ", logic, x + 6, baseline);
+        drawTimes(g, "pintura", paint, x + 6, baseline += LINE_HEIGHT);
+        drawTimes(g, "jitter ", jitter, x + 6, baseline += LINE_HEIGHT);
+        
+        int length = append("alocado p50 ", 0);
+        length = appendLong(allocation.getValueAtPercentile(50), length);
+        length = append("B p99 ", length);
+        length = appendLong(allocation.getValueAtPercentile(99), length);
+        length = append("B", length);
+        g.drawChars(line, 0, length, x + 6, baseline += LINE_HEIGHT);
+        
+        length = append("passos ", 0);
+        length = appendLong(logic.getCount(), length);
+        length = append(" alocado ", length);
+        length = appendLong(allocation.getSum() >> 10, length);
+        length = append("KB", length);
+        g.drawChars(line, 0, length, x + 6, baseline += LINE_HEIGHT);
+    }
+    
+    /**
+     * Desenha uma linha com os percentis de um histograma de tempos, em microssegundos.
+     */
+    private void drawTimes(Graphics g, String label, Histogram histogram, int x, int y) {
+        int length = append(label, 0);
+        length = append(" p50 ", length);
+        length = appendLong(histogram.getValueAtPercentile(50) / 1000, length);
+        length = append("us p99 ", length);
+        length = appendLong(histogram.getValueAtPercentile(99) / 1000, length);
+        length = append("us max ", length);
+        length = appendLong(histogram.getMax() / 1000, length);
+        length = append("us", length);
+        g.drawChars(line, 0, length, x, y);
+    }
+    
+    private int append(String text, int length) {
+        int count = Math.min(text.length(), line.length - length);
+        text.getChars(0, count, line, length);
+        return length + count;
+    }
+    
+    private int appendLong(long value, int length) {
+        // Escreve os dígitos de trás para frente e depois os inverte
+        int start = length;
+        do {
+            if (length == line.length) {
+                return length;
+            }
+            line[length++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            char c = line[i];
+            line[i] = line[j];
+            line[j] = c;
+        }
+        return length;
+    }
+    
+    /**
+     * Passa a gravar as métricas periodicamente em um arquivo no formato de
+     * texto do Prometheus (para o coletor de arquivos de texto do node_exporter,
+     * por exemplo). O arquivo é substituído de uma vez a cada gravação.
+     * 
+     * @param file Arquivo de destino
+     * @param periodSeconds Intervalo entre as gravações, em segundos
+     */
+    public synchronized void startExport(Path file, long periodSeconds) {
+        if (exporter != null) {
+            return;
+        }
+        exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        // As cópias são feitas na thread de exportação, longe do laço do jogo
+        Histogram[] snapshots = { new Histogram(), new Histogram(), new Histogram(), new Histogram() };
+        exporter.scheduleWithFixedDelay(() -> {
+            try {
+                export(file, snapshots);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Para a gravação periódica das métricas.
+     */
+    public synchronized void stopExport() {
+        if (exporter != null) {
+            exporter.shutdown();
+            exporter = null;
+        }
+    }
+    
+    private void export(Path file, Histogram[] snapshots) throws IOException {
+        logic.copyInto(snapshots[0]);
+        paint.copyInto(snapshots[1]);
+        jitter.copyInto(snapshots[2]);
+        allocation.copyInto(snapshots[3]);
+        
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+            writeTimes(out, "snake_tick_logic_seconds", "Tempo da lógica de cada passo do jogo", snapshots[0]);
+            writeTimes(out, "snake_paint_seconds", "Tempo de cada pintura do painel", snapshots[1]);
+            writeTimes(out, "snake_tick_jitter_seconds", "Diferença entre o intervalo real e o esperado entre passos", snapshots[2]);
+            writeHistogram(out, "snake_tick_allocated_bytes", "Memória alocada pela thread do jogo a cada passo",
+                    snapshots[3], BYTE_BUCKETS, 1);
+            
+            out.println("# HELP snake_allocated_bytes_total Memória alocada pela thread do jogo desde que as métricas foram ligadas");
+            out.println("# TYPE snake_allocated_bytes_total counter");
+            out.println("snake_allocated_bytes_total " + snapshots[3].getSum());
+            
+            out.println("# HELP jvm_gc_collections_total Coletas de lixo por coletor");
+            out.println("# TYPE jvm_gc_collections_total counter");
+            List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+            for (GarbageCollectorMXBean collector : collectors) {
+                out.println("jvm_gc_collections_total{gc=\"" + collector.getName() + "\"} " + collector.getCollectionCount());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static void writeTimes(PrintWriter out, String name, String help, Histogram histogram) {
+        writeHistogram(out, name, help, histogram, TIME_BUCKETS, 1e-9);
+    }
+    
+    /**
+     * Escreve um histograma do Prometheus com faixas cumulativas.
+     * 
+     * @param scale Fator que converte os valores registrados para a unidade exportada
+     */
+    private static void writeHistogram(PrintWriter out, String name, String help, Histogram histogram,
+            double[] buckets, double scale) {
+        out.println("# HELP " + name + " " + help);
+        out.println("# TYPE " + name + " histogram");
+        for (double bucket : buckets) {
+            long limit = (long) Math.floor(bucket / scale);
+            out.println(name + "_bucket{le=\"" + format(bucket) + "\"} " + histogram.getCountAtOrBelow(limit));
+        }
+        out.println(name + "_bucket{le=\"+Inf\"} " + histogram.getCount());
+        out.println(name + "_sum " + format(histogram.getSum() * scale));
+        out.println(name + "_count " + histogram.getCount());
+    }
+    
+    private static String format(double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+}
\ No newline at end of file
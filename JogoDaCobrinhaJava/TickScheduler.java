@@ -0,0 +1,145 @@
+import java.awt.event.ActionListener;
+import java.util.concurrent.TimeUnit;
+import javax.swing.Timer;
+
+/**
+ * Relógio único dos passos do jogo, criado uma vez pelo painel e
+ * reaproveitado em todas as partidas.
+ * 
+ * No modo com timer ele tem um único {@link Timer} do Swing, que é parado e
+ * religado, nunca recriado: reiniciar a partida não deixa timers antigos
+ * disparando junto com o novo. No modo de passo fixo os passos vêm do
+ * {@link GameLoop}, que já roda o tempo todo para desenhar, e o relógio só
+ * ajusta a duração do passo.
+ * 
+ * A duração do passo segue a curva do {@link Difficulty} escolhido: a cada
+ * passo o painel informa o tamanho da cobra com {@link #update(int)}, e o
+ * intervalo só é alterado quando a duração calculada muda.
+ */
+public class TickScheduler {
+    private final Timer timer; // Timer do Swing, ou null no modo de passo fixo
+    private final GameLoop loop; // Laço de passo fixo, ou null no modo com timer
+    private final TickMetrics metrics;
+    private volatile Difficulty difficulty;
+    private int snakeSize = -1; // Tamanho usado no último cálculo
+    private volatile int delay;
+    
+    /**
+     * Cria o relógio do modo com timer. O timer começa parado.
+     * 
+     * @param tick Chamado a cada passo, na thread de eventos
+     * @param difficulty Nível de dificuldade inicial
+     * @param metrics Métricas que recebem o intervalo esperado entre os passos
+     */
+    public TickScheduler(ActionListener tick, Difficulty difficulty, TickMetrics metrics) {
+        this(new Timer(difficulty.getInitialDelay(), tick), null, difficulty, metrics);
+    }
+    
+    /**
+     * Cria o relógio do modo de passo fixo.
+     * 
+     * @param loop Laço que executa os passos
+     * @param difficulty Nível de dificuldade inicial
+     * @param metrics Métricas que recebem o intervalo esperado entre os passos
+     */
+    public TickScheduler(GameLoop loop, Difficulty difficulty, TickMetrics metrics) {
+        this(null, loop, difficulty, metrics);
+    }
+    
+    private TickScheduler(Timer timer, GameLoop loop, Difficulty difficulty, TickMetrics metrics) {
+        this.timer = timer;
+        this.loop = loop;
+        this.metrics = metrics;
+        this.difficulty = difficulty;
+        apply(difficulty.getInitialDelay());
+    }
+    
+    /**
+     * Liga o relógio se estiver parado. Chamar de novo com ele ligado não
+     * muda nada, então há no máximo um timer disparando.
+     */
+    public void start() {
+        if (timer != null && !timer.isRunning()) {
+            timer.start();
+        }
+    }
+    
+    /**
+     * Para o relógio (no modo de passo fixo o laço continua desenhando).
+     */
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+        metrics.pause();
+    }
+    
+    /**
+     * Ajusta a duração do passo ao tamanho atual da cobra. Barato o bastante
+     * para ser chamado a cada passo: só recalcula quando o tamanho muda.
+     * 
+     * @param snakeSize Número de segmentos da cobra
+     */
+    public void update(int snakeSize) {
+        if (snakeSize == this.snakeSize) {
+            return;
+        }
+        this.snakeSize = snakeSize;
+        int next = difficulty.delayFor(snakeSize);
+        if (next != delay) {
+            apply(next);
+        }
+    }
+    
+    /**
+     * Troca o nível de dificuldade. A nova curva vale a partir do próximo passo.
+     * 
+     * @param difficulty Novo nível
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+        int size = snakeSize;
+        this.snakeSize = -1; // Força o recálculo
+        if (size >= 0) {
+            update(size);
+        }
+    }
+    
+    private void apply(int millis) {
+        delay = millis;
+        if (timer != null) {
+            timer.setDelay(millis); // Vale a partir do próximo disparo, sem recriar o timer
+            timer.setInitialDelay(millis);
+        } else {
+            loop.setStepNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        metrics.setExpectedInterval(millis);
+    }
+    
+    /**
+     * Retorna o nível de dificuldade atual.
+     * 
+     * @return Nível de dificuldade
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+    
+    /**
+     * Retorna a duração atual do passo.
+     * 
+     * @return Duração do passo, em milissegundos
+     */
+    public int getDelay() {
+        return delay;
+    }
+    
+    /**
+     * Verifica se o relógio está disparando passos.
+     * 
+     * @return true se o timer está ligado (sempre true no modo de passo fixo com o laço rodando)
+     */
+    public boolean isRunning() {
+        return timer != null ? timer.isRunning() : loop.isRunning();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,186 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Atlas com os desenhos (tiles) de uma célula do tabuleiro, renderizados uma
+ * única vez como vetores de pixels.
+ * 
+ * Há um tile para a célula vazia (fundo com a grade), um para a comida e,
+ * para a cabeça, o corpo e a cauda da cobra, uma variante para cada
+ * combinação de ligações com as células vizinhas: as retas, as curvas e as
+ * pontas viradas para cada lado. As ligações são uma máscara com o bit
+ * {@code 1 << direção.ordinal()} ligado para cada vizinho que também é parte
+ * da cobra (ver {@link #connection(int, int, int)}).
+ * 
+ * Cada tile existe em duas versões: opaca, já sobre a célula vazia, copiada
+ * linha a linha com {@link System#arraycopy}, e com transparência, usada
+ * para desenhar a cobra entre duas células (interpolação).
+ */
+public class TileAtlas {
+    public static final int EMPTY = 0;
+    public static final int FOOD = 1;
+    private static final int HEAD = 2;
+    private static final int BODY = HEAD + 16;
+    private static final int TAIL = BODY + 16;
+    private static final int TILE_COUNT = TAIL + 16;
+    
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+    private static final Color GRID_COLOR = new Color(20, 20, 20); // Cinza escuro
+    
+    private final int unitSize;
+    private final int[][] opaque = new int[TILE_COUNT][];
+    private final int[][] sprites = new int[TILE_COUNT][];
+    
+    /**
+     * Renderiza todos os tiles com os desenhos da cobra e da comida.
+     * 
+     * @param unitSize Tamanho de cada unidade do jogo
+     * @param snake Cobra que desenha os segmentos
+     * @param food Comida que desenha a si mesma
+     */
+    public TileAtlas(int unitSize, Snake snake, Food food) {
+        this.unitSize = unitSize;
+        int[] empty = render(g -> {
+            g.setColor(BACKGROUND_COLOR);
+            g.fillRect(0, 0, unitSize, unitSize);
+            g.setColor(GRID_COLOR);
+            g.drawLine(0, 0, unitSize, 0); // Linha horizontal da grade
+            g.drawLine(0, 0, 0, unitSize); // Linha vertical da grade
+        });
+        sprites[EMPTY] = empty;
+        opaque[EMPTY] = empty;
+        add(FOOD, render(g -> food.drawAt(g, 0, 0)));
+        for (int connections = 0; connections < 16; connections++) {
+            int mask = connections;
+            add(HEAD + mask, render(g -> snake.drawTile(g, mask, true, false)));
+            add(BODY + mask, render(g -> snake.drawTile(g, mask, false, false)));
+            add(TAIL + mask, render(g -> snake.drawTile(g, mask, false, true)));
+        }
+    }
+    
+    /**
+     * Desenho de um tile em uma imagem do tamanho da célula.
+     */
+    private interface Painter {
+        void paint(Graphics2D g);
+    }
+    
+    private int[] render(Painter painter) {
+        BufferedImage image = new BufferedImage(unitSize, unitSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            painter.paint(g);
+        } finally {
+            g.dispose();
+        }
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+    
+    /**
+     * Guarda a versão com transparência e a versão opaca sobre a célula vazia.
+     */
+    private void add(int tile, int[] sprite) {
+        int[] empty = opaque[EMPTY];
+        int[] composed = new int[sprite.length];
+        for (int i = 0; i < sprite.length; i++) {
+            composed[i] = (sprite[i] >>> 24) == 0 ? empty[i] : sprite[i];
+        }
+        sprites[tile] = sprite;
+        opaque[tile] = composed;
+    }
+    
+    /**
+     * Retorna o tile da cabeça.
+     * 
+     * @param connections Ligações com as células vizinhas
+     * @return Índice do tile
+     */
+    public static int head(int connections) {
+        return HEAD + connections;
+    }
+    
+    /**
+     * Retorna o tile de um segmento do meio do corpo.
+     * 
+     * @param connections Ligações com as células vizinhas
+     * @return Índice do tile
+     */
+    public static int body(int connections) {
+        return BODY + connections;
+    }
+    
+    /**
+     * Retorna o tile da cauda.
+     * 
+     * @param connections Ligações com as células vizinhas
+     * @return Índice do tile
+     */
+    public static int tail(int connections) {
+        return TAIL + connections;
+    }
+    
+    /**
+     * Calcula a ligação de uma célula com uma célula vizinha.
+     * 
+     * @param cell Célula compactada (y * colunas + x)
+     * @param neighbor Célula vizinha, ou -1 se não houver
+     * @param columns Número de colunas do tabuleiro
+     * @return Bit da direção em que fica a vizinha, ou 0 se ela não for adjacente
+     */
+    public static int connection(int cell, int neighbor, int columns) {
+        if (cell < 0 || neighbor < 0) {
+            return 0;
+        }
+        int dx = neighbor % columns - cell % columns;
+        int dy = neighbor / columns - cell / columns;
+        for (Direction direction : Direction.values()) {
+            if (direction.getDx() == dx && direction.getDy() == dy) {
+                return 1 << direction.ordinal();
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Copia a versão opaca de um tile para uma célula de um vetor de pixels.
+     * 
+     * @param pixels Pixels da imagem de destino
+     * @param stride Largura da imagem de destino em pixels
+     * @param x Posição X da célula, em pixels
+     * @param y Posição Y da célula, em pixels
+     * @param tile Índice do tile
+     */
+    public void blit(int[] pixels, int stride, int x, int y, int tile) {
+        int[] source = opaque[tile];
+        int target = y * stride + x;
+        for (int row = 0; row < unitSize; row++) {
+            System.arraycopy(source, row * unitSize, pixels, target, unitSize);
+            target += stride;
+        }
+    }
+    
+    /**
+     * Desenha um tile em uma posição qualquer de um vetor de pixels, deixando
+     * aparecer o que já estava sob as partes transparentes.
+     * 
+     * @param pixels Pixels da imagem de destino
+     * @param stride Largura da imagem de destino em pixels
+     * @param x Posição X do tile, em pixels
+     * @param y Posição Y do tile, em pixels
+     * @param tile Índice do tile
+     */
+    public void blitSprite(int[] pixels, int stride, int x, int y, int tile) {
+        int[] source = sprites[tile];
+        for (int row = 0; row < unitSize; row++) {
+            int target = (y + row) * stride + x;
+            for (int column = 0; column < unitSize; column++) {
+                int pixel = source[row * unitSize + column];
+                if ((pixel >>> 24) != 0) {
+                    pixels[target + column] = pixel;
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
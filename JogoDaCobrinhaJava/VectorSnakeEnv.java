@@ -0,0 +1,291 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Lote de {@link SnakeEnv} avançados juntos, para treinar agentes com muitos
+ * episódios em paralelo.
+ * 
+ * Observações, recompensas e fins de episódio ficam em vetores primitivos
+ * contíguos, um trecho por ambiente: o ambiente i escreve sua observação em
+ * {@code [i * OBSERVATION_SIZE, (i + 1) * OBSERVATION_SIZE)}. Cada chamada a
+ * {@link #step(int[])} avança todos os ambientes, dividindo-os em fatias de
+ * {@value #ENVS_PER_TASK} distribuídas em um {@link ForkJoinPool}. As tarefas
+ * das fatias são criadas uma vez e reiniciadas a cada passo, então o passo
+ * não aloca memória.
+ * 
+ * Um ambiente cujo episódio acabou é reiniciado no mesmo passo, como nos
+ * ambientes vetorizados do Gym: o passo informa a recompensa e o fim do
+ * episódio, e a observação já é a do episódio seguinte. O episódio k do
+ * ambiente i usa a semente {@code semente + i + k * ambientes}, então os
+ * resultados não dependem do número de threads.
+ */
+public class VectorSnakeEnv {
+    private static final int ENVS_PER_TASK = 256;
+    
+    private final SnakeEnv[] envs;
+    private final long baseSeed;
+    private final long[] seeds; // Semente do episódio atual de cada ambiente
+    private final float[] observations;
+    private final float[] rewards;
+    private final boolean[] dones;
+    private final boolean[] truncations;
+    private final ForkJoinPool pool; // null com uma só thread
+    private final Slice[] slices;
+    private final StepAll stepAll = new StepAll();
+    private int[] actions; // Ações do passo em andamento
+    private long steps;
+    
+    /**
+     * Construtor da classe VectorSnakeEnv. Os ambientes já começam no
+     * primeiro episódio.
+     * 
+     * @param count Número de ambientes
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param seed Semente do primeiro episódio do primeiro ambiente
+     * @param parallelism Número de threads que avançam os ambientes
+     */
+    public VectorSnakeEnv(int count, int columns, int rows, long seed, int parallelism) {
+        this.envs = new SnakeEnv[count];
+        this.baseSeed = seed;
+        this.seeds = new long[count];
+        this.observations = new float[count * SnakeEnv.OBSERVATION_SIZE];
+        this.rewards = new float[count];
+        this.dones = new boolean[count];
+        this.truncations = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            envs[i] = new SnakeEnv(columns, rows, seed + i);
+        }
+        
+        int sliceCount = (count + ENVS_PER_TASK - 1) / ENVS_PER_TASK;
+        this.slices = new Slice[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new Slice(i * ENVS_PER_TASK, Math.min(count, (i + 1) * ENVS_PER_TASK));
+        }
+        this.pool = parallelism > 1 && sliceCount > 1 ? new ForkJoinPool(parallelism) : null;
+        reset();
+    }
+    
+    /**
+     * Recomeça todos os ambientes no primeiro episódio.
+     */
+    public void reset() {
+        for (int i = 0; i < envs.length; i++) {
+            seeds[i] = baseSeed + i;
+            envs[i].reset(seeds[i]);
+            envs[i].observe(observations, i * SnakeEnv.OBSERVATION_SIZE);
+            rewards[i] = 0f;
+            dones[i] = false;
+            truncations[i] = false;
+        }
+        for (Slice slice : slices) {
+            slice.episodes = 0;
+        }
+        steps = 0;
+    }
+    
+    /**
+     * Avança todos os ambientes um passo.
+     * 
+     * @param actions Ação de cada ambiente (ver {@link SnakeEnv#ACTIONS})
+     */
+    public void step(int[] actions) {
+        if (actions.length < envs.length) {
+            throw new IllegalArgumentException("Esperadas " + envs.length + " ações, recebidas " + actions.length);
+        }
+        this.actions = actions;
+        if (pool == null) {
+            for (Slice slice : slices) {
+                slice.compute();
+            }
+        } else {
+            stepAll.reinitialize();
+            pool.invoke(stepAll);
+        }
+        this.actions = null;
+        steps += envs.length;
+    }
+    
+    /**
+     * Avança os ambientes de uma fatia e reinicia os que terminaram.
+     */
+    private void stepRange(Slice slice) {
+        long count = envs.length;
+        for (int i = slice.from; i < slice.to; i++) {
+            SnakeEnv env = envs[i];
+            rewards[i] = env.step(actions[i]);
+            dones[i] = env.isDone();
+            truncations[i] = env.isTruncated();
+            if (dones[i]) {
+                seeds[i] += count;
+                env.reset(seeds[i]);
+                slice.episodes++;
+            }
+            env.observe(observations, i * SnakeEnv.OBSERVATION_SIZE);
+        }
+    }
+    
+    /**
+     * Encerra as threads dos ambientes.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Retorna as observações de todos os ambientes, atualizadas a cada passo.
+     * 
+     * @return Vetor com {@value SnakeEnv#OBSERVATION_SIZE} valores por ambiente
+     */
+    public float[] getObservations() {
+        return observations;
+    }
+    
+    /**
+     * Retorna as recompensas do último passo.
+     * 
+     * @return Recompensa de cada ambiente
+     */
+    public float[] getRewards() {
+        return rewards;
+    }
+    
+    /**
+     * Retorna quais ambientes terminaram um episódio no último passo.
+     * 
+     * @return true para cada ambiente reiniciado no último passo
+     */
+    public boolean[] getDones() {
+        return dones;
+    }
+    
+    /**
+     * Retorna quais episódios terminaram por limite de passos sem comer.
+     * 
+     * @return true para cada ambiente cujo episódio foi truncado no último passo
+     */
+    public boolean[] getTruncations() {
+        return truncations;
+    }
+    
+    /**
+     * Retorna um dos ambientes, por exemplo para desenhar ou conferir a partida.
+     * 
+     * @param index Índice do ambiente
+     * @return Ambiente
+     */
+    public SnakeEnv getEnv(int index) {
+        return envs[index];
+    }
+    
+    /**
+     * Retorna o número de ambientes.
+     * 
+     * @return Número de ambientes
+     */
+    public int getCount() {
+        return envs.length;
+    }
+    
+    /**
+     * Retorna o total de passos de ambiente desde o último reinício.
+     * 
+     * @return Total de passos
+     */
+    public long getTotalSteps() {
+        return steps;
+    }
+    
+    /**
+     * Retorna o total de episódios terminados desde o último reinício.
+     * 
+     * @return Total de episódios
+     */
+    public long getEpisodes() {
+        long episodes = 0;
+        for (Slice slice : slices) {
+            episodes += slice.episodes;
+        }
+        return episodes;
+    }
+    
+    /**
+     * Tarefa que avança uma fatia de ambientes.
+     */
+    private class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final int from;
+        private final int to;
+        private long episodes; // Escrito só pela tarefa, lido depois do passo
+        
+        Slice(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            stepRange(this);
+        }
+    }
+    
+    /**
+     * Tarefa que reinicia e executa todas as fatias no pool.
+     */
+    private class StepAll extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        @Override
+        protected void compute() {
+            for (Slice slice : slices) {
+                slice.reinitialize();
+            }
+            invokeAll(slices);
+        }
+    }
+    
+    /**
+     * Mede a vazão com ações aleatórias, sem interface gráfica.
+     * 
+     * @param args [ambientes] [threads] [colunas] [linhas] [passos]
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int columns = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        int batches = args.length > 4 ? Integer.parseInt(args[4]) : 2000;
+        
+        VectorSnakeEnv env = new VectorSnakeEnv(count, columns, rows, 0L, threads);
+        
+        // Ações sorteadas antes, copiadas de posições diferentes a cada passo
+        int window = 4096;
+        int[] randomActions = new int[count + window];
+        SplittableRandom random = new SplittableRandom(0L);
+        for (int i = 0; i < randomActions.length; i++) {
+            randomActions[i] = random.nextInt(SnakeEnv.ACTIONS);
+        }
+        int[] actions = new int[count];
+        
+        for (int warmup = 0; warmup < batches / 4; warmup++) {
+            System.arraycopy(randomActions, random.nextInt(window), actions, 0, count);
+            env.step(actions);
+        }
+        env.reset();
+        
+        long start = System.nanoTime();
+        for (int batch = 0; batch < batches; batch++) {
+            System.arraycopy(randomActions, random.nextInt(window), actions, 0, count);
+            env.step(actions);
+        }
+        long elapsed = System.nanoTime() - start;
+        
+        System.out.printf("%d ambientes x %d passos em %.1f ms (%.0f passos/s, %d episódios)%n",
+                count, batches, elapsed / 1e6, env.getTotalSteps() * 1e9 / elapsed, env.getEpisodes());
+        env.shutdown();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import javax.swing.JComponent;
+
+/**
+ * Renderizador de tabuleiros maiores que a tela.
+ * 
+ * Uma câmera acompanha a cabeça da cobra, centralizada e limitada às bordas
+ * do tabuleiro. Cada quadro desenha só o que cai na área visível: as linhas
+ * da grade dessa área, a comida e as células da cobra dentro do recorte
+ * (ver {@link Snake#draw(Graphics)}). O custo por quadro depende do tamanho
+ * da tela, e não do tamanho do tabuleiro ou da cobra.
+ */
+public class ViewportRenderer implements BoardView {
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+    private static final Color GRID_COLOR = new Color(20, 20, 20); // Cinza escuro
+    
+    private final int unitSize;
+    private final int boardWidth; // Largura do tabuleiro em pixels
+    private final int boardHeight; // Altura do tabuleiro em pixels
+    private final int viewWidth;
+    private final int viewHeight;
+    private Snake snake;
+    private Food food;
+    private int cameraX; // Canto superior esquerdo da área visível, em pixels do tabuleiro
+    private int cameraY;
+    
+    /**
+     * Construtor da classe ViewportRenderer.
+     * 
+     * @param columns Número de colunas do tabuleiro
+     * @param rows Número de linhas do tabuleiro
+     * @param unitSize Tamanho de cada unidade do jogo
+     * @param viewWidth Largura da área visível em pixels
+     * @param viewHeight Altura da área visível em pixels
+     */
+    public ViewportRenderer(int columns, int rows, int unitSize, int viewWidth, int viewHeight) {
+        this.unitSize = unitSize;
+        this.boardWidth = columns * unitSize;
+        this.boardHeight = rows * unitSize;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+    }
+    
+    @Override
+    public void reset(Snake snake, Food food) {
+        this.snake = snake;
+        this.food = food;
+        update();
+    }
+    
+    /**
+     * Move a câmera para a posição atual da cabeça.
+     */
+    @Override
+    public void update() {
+        SnakeBody body = snake.getBody();
+        cameraX = follow(body.getHeadX() * unitSize, viewWidth, boardWidth);
+        cameraY = follow(body.getHeadY() * unitSize, viewHeight, boardHeight);
+    }
+    
+    /**
+     * Centraliza a câmera em uma posição sem mostrar nada além da borda.
+     */
+    private int follow(int position, int view, int board) {
+        int camera = position + unitSize / 2 - view / 2;
+        return Math.max(0, Math.min(camera, board - view));
+    }
+    
+    /**
+     * A câmera se move a cada passo, então a área visível inteira é repintada.
+     */
+    @Override
+    public void repaintDirty(JComponent component) {
+        component.repaint(0, 0, viewWidth, viewHeight);
+    }
+    
+    @Override
+    public void paint(Graphics g) {
+        Graphics2D view = (Graphics2D) g.create();
+        try {
+            view.clipRect(0, 0, viewWidth, viewHeight);
+            view.translate(-cameraX, -cameraY);
+            view.setColor(BACKGROUND_COLOR);
+            view.fillRect(cameraX, cameraY, viewWidth, viewHeight);
+            drawGrid(view);
+            food.draw(view);
+            snake.draw(view); // Percorre só as células dentro do recorte
+        } finally {
+            view.dispose();
+        }
+    }
+    
+    /**
+     * Desenha só as linhas da grade que cruzam a área visível.
+     */
+    private void drawGrid(Graphics g) {
+        g.setColor(GRID_COLOR);
+        int right = Math.min(cameraX + viewWidth, boardWidth);
+        int bottom = Math.min(cameraY + viewHeight, boardHeight);
+        
+        // Linhas horizontais
+        for (int y = cameraY / unitSize * unitSize; y < bottom; y += unitSize) {
+            g.drawLine(cameraX, y, right, y);
+        }
+        
+        // Linhas verticais
+        for (int x = cameraX / unitSize * unitSize; x < right; x += unitSize) {
+            g.drawLine(x, cameraY, x, bottom);
+        }
+    }
+    
+    /**
+     * A câmera anda uma célula por passo, então a interpolação não é usada:
+     * desenha o passo atual.
+     */
+    @Override
+    public void paintInterpolated(Graphics g, double alpha) {
+        paint(g);
+    }
+    
+    /**
+     * Retorna a posição X da câmera.
+     * 
+     * @return Canto esquerdo da área visível, em pixels do tabuleiro
+     */
+    public int getCameraX() {
+        return cameraX;
+    }
+    
+    /**
+     * Retorna a posição Y da câmera.
+     * 
+     * @return Canto superior da área visível, em pixels do tabuleiro
+     */
+    public int getCameraY() {
+        return cameraY;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+/**
+ * Benchmarks da arena: um passo com 10 a 1000 cobras guiadas pelo
+ * {@link ArenaBot} em um tabuleiro de 1000x1000 células. As cobras
+ * eliminadas voltam à arena no passo seguinte, então o número de cobras
+ * fica constante.
+ */
+public class ArenaBenchmarks {
+    private static final int BOARD_SIZE = 1000;
+    
+    /**
+     * Registra os benchmarks da arena.
+     * 
+     * @param runner Executor dos benchmarks
+     */
+    public void register(BenchmarkRunner runner) {
+        for (int snakes : runner.intParam("snakes", 10, 100, 1000)) {
+            runner.average("Arena.step", BenchmarkRunner.params("snakes", snakes), () -> {
+                Arena arena = new Arena(BOARD_SIZE, BOARD_SIZE, snakes, 42);
+                ArenaBot bot = new ArenaBot();
+                for (int i = 0; i < snakes; i++) {
+                    arena.spawnSnake();
+                }
+                Direction[] turns = new Direction[arena.getSnakeCount()];
+                return blackhole -> {
+                    for (int id = 0; id < turns.length; id++) {
+                        if (arena.isAlive(id)) {
+                            turns[id] = bot.nextDirection(arena, id);
+                        } else {
+                            arena.respawn(id);
+                            turns[id] = null;
+                        }
+                    }
+                    blackhole.consume(arena.step(turns));
+                };
+            });
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+import java.util.Random;
+
+/**
+ * Benchmarks do piloto automático: uma decisão com a cobra de 3 a 1 milhão de
+ * segmentos. A cobra segue uma {@link Serpentine} entre as decisões, então o
+ * índice dos segmentos do piloto é atualizado de forma incremental, como em
+ * uma partida, e o tabuleiro (o dobro do tamanho da cobra) vai de 4x4 a
+ * 1415x1416 células.
+ */
+public class AutopilotBenchmarks {
+    /**
+     * Registra os benchmarks do piloto automático.
+     * 
+     * @param runner Executor dos benchmarks
+     */
+    public void register(BenchmarkRunner runner) {
+        for (int length : runner.intParam("length", 3, 1_000, 1_000_000)) {
+            runner.average("Autopilot.nextDirection", BenchmarkRunner.params("length", length), () -> {
+                Serpentine path = Serpentine.forCells(2L * length);
+                SnakeBody body = path.build(length);
+                FoodSpawner food = new FoodSpawner(path.getColumns(), path.getRows(), new Random(42), body);
+                GameState state = new GameState(body, food, 42);
+                AutopilotController autopilot = new AutopilotController();
+                return blackhole -> {
+                    blackhole.consume(autopilot.nextDirection(state));
+                    path.step(body);
+                    state.advanceTick();
+                };
+            });
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+/**
+ * Teste de regressão do {@link AutopilotController}: joga com o piloto
+ * automático uma partida por semente em cada tamanho de tabuleiro e confere
+ * se todas terminam em vitória. Uma partida que dura mais de 200 passos por
+ * célula conta como travada. Em tabuleiros com lados ímpares não existe ciclo
+ * por todas as células, e aceita também a partida que termina com o
+ * tabuleiro cheio.
+ * 
+ * Uso: AutopilotCheck [--sementes N] [--lados 10,16,30]
+ */
+public class AutopilotCheck {
+    private static final int TICKS_PER_CELL = 200;
+    
+    /**
+     * Executa o teste.
+     * 
+     * @param args Argumentos da linha de comando
+     */
+    public static void main(String[] args) {
+        int seeds = 12;
+        String sides = "10,16,30";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sementes":
+                    seeds = Integer.parseInt(args[++i]);
+                    break;
+                case "--lados":
+                    sides = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        
+        boolean ok = true;
+        for (String side : sides.split(",")) {
+            int size = Integer.parseInt(side.trim());
+            ok &= board(size, seeds);
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Joga as partidas de um tamanho de tabuleiro.
+     * 
+     * @return true se nenhuma partida terminou em colisão antes da hora nem travou
+     */
+    private static boolean board(int size, int seeds) {
+        int cells = size * size;
+        long maxTicks = (long) cells * TICKS_PER_CELL;
+        int wins = 0;
+        long ticks = 0;
+        StringBuilder failures = new StringBuilder();
+        for (int seed = 0; seed < seeds; seed++) {
+            GameEngine engine = new GameEngine(size, size, seed);
+            AutopilotController autopilot = new AutopilotController();
+            GameState state = engine.getState();
+            while (state.getStatus() == GameState.Status.RUNNING && state.getTick() < maxTicks) {
+                engine.step(autopilot.nextDirection(state));
+            }
+            ticks += state.getTick();
+            int length = state.getSnake().getSize();
+            if (state.getStatus() == GameState.Status.WON) {
+                wins++;
+            } else if (state.getStatus() == GameState.Status.RUNNING) {
+                failures.append(String.format(" semente %d travou com %d segmentos;", seed, length));
+            } else if (size % 2 == 0 || length < cells) {
+                failures.append(String.format(" semente %d colidiu com %d segmentos;", seed, length));
+            }
+        }
+        boolean ok = failures.length() == 0;
+        System.out.printf("%3d x %-3d: %d de %d vitórias, %,d passos em média%s%n",
+                size, size, wins, seeds, ticks / seeds, ok ? "" : " (ERRO)" + failures);
+        return ok;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,389 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Executor dos benchmarks do jogo.
+ * 
+ * O JMH não aceita benchmarks no pacote padrão, onde ficam as classes do
+ * jogo, então este executor segue o mesmo modelo de medição: iterações de
+ * aquecimento descartadas, iterações de medição com o resultado consumido
+ * por um {@link Blackhole} e intervalo de confiança de 99,9%. O resultado
+ * é gravado em JSON no formato do JMH, para comparar execuções de commits
+ * diferentes com as mesmas ferramentas.
+ * 
+ * Há dois modos:
+ * - tempo médio ("avgt"): a operação é repetida durante toda a iteração
+ *   sobre o mesmo estado;
+ * - execução única ("ss"): o estado é recriado antes de cada iteração (fora
+ *   da medição) e a operação roda uma vez, repetindo um lote de chamadas.
+ * Em ambos o resultado é dado em nanossegundos por chamada.
+ */
+public class BenchmarkRunner {
+    /**
+     * Operação medida. Se também for {@link AutoCloseable}, é fechada
+     * depois da medição.
+     */
+    public interface Operation {
+        void run(Blackhole blackhole) throws Exception;
+    }
+    
+    /**
+     * Prepara o estado de um benchmark, fora da medição.
+     */
+    public interface Fixture {
+        Operation setUp() throws Exception;
+    }
+    
+    private static final String SCORE_UNIT = "ns/op";
+    
+    // Quantis da distribuição t de Student para 99,9% de confiança (índice = graus de liberdade)
+    private static final double[] STUDENT_T = {
+        Double.NaN, 636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+        4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850,
+        3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646
+    };
+    
+    static volatile long sink; // Recebe o acumulador do Blackhole ao fim de cada iteração
+    
+    private final List<Benchmark> benchmarks = new ArrayList<>();
+    private final Map<String, String> overrides = new HashMap<>();
+    private Pattern filter = Pattern.compile(".*");
+    private int warmupIterations = 3;
+    private int measurementIterations = 5;
+    private long iterationNanos = 1_000_000_000L;
+    private Path workDirectory;
+    
+    /**
+     * Um benchmark registrado, com seus parâmetros.
+     */
+    private static class Benchmark {
+        final String name;
+        final String mode;
+        final Map<String, String> params;
+        final int batchSize;
+        final Fixture fixture;
+        final List<Double> scores = new ArrayList<>();
+        
+        Benchmark(String name, String mode, Map<String, String> params, int batchSize, Fixture fixture) {
+            this.name = name;
+            this.mode = mode;
+            this.params = params;
+            this.batchSize = batchSize;
+            this.fixture = fixture;
+        }
+        
+        String label() {
+            return params.isEmpty() ? name : name + params;
+        }
+    }
+    
+    /**
+     * Retorna os valores de um parâmetro inteiro, que podem ser
+     * substituídos na linha de comando com {@code -p nome=v1,v2}.
+     * 
+     * @param name Nome do parâmetro
+     * @param defaults Valores usados se o parâmetro não for informado
+     * @return Valores do parâmetro
+     */
+    public int[] intParam(String name, int... defaults) {
+        String value = overrides.get(name);
+        if (value == null) {
+            return defaults;
+        }
+        return Arrays.stream(value.split(",")).mapToInt(v -> Integer.parseInt(v.trim())).toArray();
+    }
+    
+    /**
+     * Registra um benchmark de tempo médio: o estado é preparado uma vez e
+     * a operação é repetida durante cada iteração.
+     * 
+     * @param name Nome do benchmark (Suíte.operação)
+     * @param params Parâmetros, na ordem em que devem aparecer
+     * @param fixture Prepara o estado e devolve a operação
+     */
+    public void average(String name, Map<String, String> params, Fixture fixture) {
+        benchmarks.add(new Benchmark(name, "avgt", params, 1, fixture));
+    }
+    
+    /**
+     * Registra um benchmark de execução única: o estado é recriado antes de
+     * cada iteração e a operação roda uma vez.
+     * 
+     * @param name Nome do benchmark (Suíte.operação)
+     * @param params Parâmetros, na ordem em que devem aparecer
+     * @param batchSize Número de chamadas feitas por uma execução da operação
+     * @param fixture Prepara o estado e devolve a operação
+     */
+    public void singleShot(String name, Map<String, String> params, int batchSize, Fixture fixture) {
+        benchmarks.add(new Benchmark(name, "ss", params, batchSize, fixture));
+    }
+    
+    /**
+     * Cria um mapa de parâmetros com um único parâmetro.
+     * 
+     * @param name Nome do parâmetro
+     * @param value Valor do parâmetro
+     * @return Mapa de parâmetros
+     */
+    public static Map<String, String> params(String name, Object value) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put(name, String.valueOf(value));
+        return params;
+    }
+    
+    /**
+     * Retorna a pasta onde os benchmarks podem criar arquivos.
+     * 
+     * @return Pasta de trabalho
+     * @throws IOException se a pasta não puder ser criada
+     */
+    public Path getWorkDirectory() throws IOException {
+        if (workDirectory == null) {
+            workDirectory = Files.createTempDirectory("cobrinha-bench");
+        }
+        Files.createDirectories(workDirectory);
+        return workDirectory;
+    }
+    
+    /**
+     * Executa os benchmarks que passam pelo filtro.
+     */
+    private void runAll() throws Exception {
+        for (Benchmark benchmark : benchmarks) {
+            if (!filter.matcher(benchmark.label()).find()) {
+                continue;
+            }
+            System.out.println("# " + benchmark.label() + " (" + benchmark.mode + ")");
+            if (benchmark.mode.equals("avgt")) {
+                runAverage(benchmark);
+            } else {
+                runSingleShot(benchmark);
+            }
+            System.out.printf("  %s%n", formatScore(benchmark));
+        }
+    }
+    
+    private void runAverage(Benchmark benchmark) throws Exception {
+        Operation operation = benchmark.fixture.setUp();
+        Blackhole blackhole = new Blackhole();
+        try {
+            long batch = 1;
+            for (int i = 0; i < warmupIterations + measurementIterations; i++) {
+                long calls = 0;
+                long start = System.nanoTime();
+                long deadline = start + iterationNanos;
+                long now;
+                do {
+                    for (long j = 0; j < batch; j++) {
+                        operation.run(blackhole);
+                    }
+                    calls += batch;
+                    now = System.nanoTime();
+                    
+                    // Confere o relógio cerca de cem vezes por iteração
+                    if (now - start < iterationNanos / 100) {
+                        batch <<= 1;
+                    }
+                } while (now < deadline);
+                sink = blackhole.getState();
+                record(benchmark, i, (double) (now - start) / calls);
+            }
+        } finally {
+            close(operation);
+        }
+    }
+    
+    private void runSingleShot(Benchmark benchmark) throws Exception {
+        Blackhole blackhole = new Blackhole();
+        for (int i = 0; i < warmupIterations + measurementIterations; i++) {
+            Operation operation = benchmark.fixture.setUp();
+            long elapsed;
+            try {
+                long start = System.nanoTime();
+                operation.run(blackhole);
+                elapsed = System.nanoTime() - start;
+            } finally {
+                close(operation);
+            }
+            sink = blackhole.getState();
+            record(benchmark, i, (double) elapsed / benchmark.batchSize);
+        }
+    }
+    
+    private void close(Operation operation) throws Exception {
+        if (operation instanceof AutoCloseable) {
+            ((AutoCloseable) operation).close();
+        }
+    }
+    
+    private void record(Benchmark benchmark, int iteration, double score) {
+        boolean warmup = iteration < warmupIterations;
+        System.out.printf("  %s %d: %.3f %s%n", warmup ? "aquecimento" : "iteração", warmup ? iteration + 1
+                : iteration - warmupIterations + 1, score, SCORE_UNIT);
+        if (!warmup) {
+            benchmark.scores.add(score);
+        }
+    }
+    
+    private static double mean(List<Double> scores) {
+        return scores.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN);
+    }
+    
+    /**
+     * Metade do intervalo de confiança de 99,9% da média.
+     */
+    private static double error(List<Double> scores) {
+        int n = scores.size();
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double mean = mean(scores);
+        double variance = scores.stream().mapToDouble(s -> (s - mean) * (s - mean)).sum() / (n - 1);
+        double t = n - 1 < STUDENT_T.length ? STUDENT_T[n - 1] : 3.291;
+        return t * Math.sqrt(variance / n);
+    }
+    
+    private static String formatScore(Benchmark benchmark) {
+        return String.format("%.3f ± %.3f %s", mean(benchmark.scores), error(benchmark.scores), SCORE_UNIT);
+    }
+    
+    /**
+     * Grava os resultados em JSON, no formato do JMH.
+     */
+    private void writeJson(Path output) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            out.println("[");
+            boolean first = true;
+            for (Benchmark benchmark : benchmarks) {
+                if (benchmark.scores.isEmpty()) {
+                    continue;
+                }
+                if (!first) {
+                    out.println(",");
+                }
+                first = false;
+                double score = mean(benchmark.scores);
+                double error = error(benchmark.scores);
+                
+                out.println("    {");
+                out.printf("        \"benchmark\" : %s,%n", quote(benchmark.name));
+                out.printf("        \"mode\" : %s,%n", quote(benchmark.mode));
+                out.println("        \"threads\" : 1,");
+                out.println("        \"forks\" : 0,");
+                out.printf("        \"jdkVersion\" : %s,%n", quote(System.getProperty("java.version")));
+                out.printf("        \"vmName\" : %s,%n", quote(System.getProperty("java.vm.name")));
+                out.printf("        \"warmupIterations\" : %d,%n", warmupIterations);
+                out.printf("        \"measurementIterations\" : %d,%n", measurementIterations);
+                out.printf("        \"measurementTime\" : %s,%n", quote(iterationNanos / 1_000_000 + " ms"));
+                out.println("        \"params\" : {");
+                int index = 0;
+                for (Map.Entry<String, String> param : benchmark.params.entrySet()) {
+                    out.printf("            %s : %s%s%n", quote(param.getKey()), quote(param.getValue()),
+                            ++index < benchmark.params.size() ? "," : "");
+                }
+                out.println("        },");
+                out.println("        \"primaryMetric\" : {");
+                out.printf("            \"score\" : %s,%n", number(score));
+                out.printf("            \"scoreError\" : %s,%n", number(error));
+                out.printf("            \"scoreConfidence\" : [ %s, %s ],%n", number(score - error), number(score + error));
+                out.printf("            \"scoreUnit\" : %s,%n", quote(SCORE_UNIT));
+                out.print("            \"rawData\" : [ [ ");
+                for (int i = 0; i < benchmark.scores.size(); i++) {
+                    out.print((i > 0 ? ", " : "") + number(benchmark.scores.get(i)));
+                }
+                out.println(" ] ]");
+                out.println("        }");
+                out.print("    }");
+            }
+            out.println();
+            out.println("]");
+        }
+    }
+    
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+    
+    private static String number(double value) {
+        return Double.isFinite(value) ? String.valueOf(value) : "\"NaN\"";
+    }
+    
+    /**
+     * Executa os benchmarks.
+     * 
+     * Opções:
+     * -f regex: só executa os benchmarks cujo nome (com parâmetros) combina com a expressão
+     * -p nome=v1,v2: substitui os valores de um parâmetro
+     * -wi n: iterações de aquecimento (padrão 3)
+     * -i n: iterações de medição (padrão 5)
+     * -r ms: duração de cada iteração de tempo médio (padrão 1000)
+     * -o arquivo: grava o resultado em JSON (padrão benchmarks.json)
+     * -d pasta: pasta para os arquivos temporários (padrão: pasta temporária do sistema)
+     * 
+     * @param args Opções da linha de comando
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        Path output = Paths.get("benchmarks.json");
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta o valor de " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "-f":
+                    runner.filter = Pattern.compile(value);
+                    break;
+                case "-p":
+                    int equals = value.indexOf('=');
+                    runner.overrides.put(value.substring(0, equals), value.substring(equals + 1));
+                    break;
+                case "-wi":
+                    runner.warmupIterations = Integer.parseInt(value);
+                    break;
+                case "-i":
+                    runner.measurementIterations = Integer.parseInt(value);
+                    break;
+                case "-r":
+                    runner.iterationNanos = Long.parseLong(value) * 1_000_000L;
+                    break;
+                case "-o":
+                    output = Paths.get(value);
+                    break;
+                case "-d":
+                    runner.workDirectory = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opção desconhecida: " + option);
+            }
+        }
+        
+        new SnakeBenchmarks().register(runner);
+        new FoodBenchmarks().register(runner);
+        new RankingBenchmarks().register(runner);
+        new RenderBenchmarks().register(runner);
+        new ArenaBenchmarks().register(runner);
+        new AutopilotBenchmarks().register(runner);
+        new EnvBenchmarks().register(runner);
+        new SnapshotBenchmarks().register(runner);
+        
+        runner.runAll();
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        runner.writeJson(output);
+        System.out.println("Resultados gravados em " + output);
+    }
+}
\ No newline at end of file
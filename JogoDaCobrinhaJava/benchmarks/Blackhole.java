@@ -0,0 +1,50 @@
+/**
+ * Consome os resultados das operações medidas para que o compilador JIT
+ * não elimine o código como "sem efeito".
+ * 
+ * Os valores são combinados em um acumulador comum, que o
+ * {@link BenchmarkRunner} publica ao fim de cada iteração.
+ */
+public final class Blackhole {
+    private long state;
+    private Object last = new Object(); // Nunca é igual a um valor consumido
+    
+    /**
+     * Consome um valor inteiro.
+     * 
+     * @param value Valor a consumir
+     */
+    public void consume(long value) {
+        state = state * 31 + value;
+    }
+    
+    /**
+     * Consome um valor lógico.
+     * 
+     * @param value Valor a consumir
+     */
+    public void consume(boolean value) {
+        consume(value ? 1L : 0L);
+    }
+    
+    /**
+     * Consome uma referência.
+     * 
+     * @param value Valor a consumir
+     */
+    public void consume(Object value) {
+        if (value == last) {
+            state++;
+            last = new Object();
+        }
+    }
+    
+    /**
+     * Retorna o acumulador dos valores consumidos.
+     * 
+     * @return Acumulador
+     */
+    long getState() {
+        return state;
+    }
+}
\ No newline at end of file
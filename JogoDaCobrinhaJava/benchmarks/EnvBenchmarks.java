@@ -0,0 +1,38 @@
+import java.util.SplittableRandom;
+
+/**
+ * Benchmarks do ambiente de treino: um passo de 1 a 4096 ambientes de 30x30
+ * células, em uma só thread, com ações aleatórias. O resultado é o tempo de
+ * um passo do lote inteiro; dividido pelo número de ambientes, dá o tempo por
+ * passo de ambiente (a vazão com várias threads é medida por
+ * {@link VectorSnakeEnv#main}).
+ */
+public class EnvBenchmarks {
+    private static final int BOARD_SIZE = 30;
+    private static final int ACTION_BATCHES = 256; // Lotes de ações sorteados antes, usados em rodízio
+    
+    /**
+     * Registra os benchmarks do ambiente de treino.
+     * 
+     * @param runner Executor dos benchmarks
+     */
+    public void register(BenchmarkRunner runner) {
+        for (int envs : runner.intParam("envs", 1, 256, 4096)) {
+            runner.average("VectorSnakeEnv.step", BenchmarkRunner.params("envs", envs), () -> {
+                VectorSnakeEnv env = new VectorSnakeEnv(envs, BOARD_SIZE, BOARD_SIZE, 42, 1);
+                int[][] actions = new int[ACTION_BATCHES][envs];
+                SplittableRandom random = new SplittableRandom(42);
+                for (int[] batch : actions) {
+                    for (int i = 0; i < envs; i++) {
+                        batch[i] = random.nextInt(SnakeEnv.ACTIONS);
+                    }
+                }
+                int[] next = new int[1];
+                return blackhole -> {
+                    env.step(actions[next[0]++ & (ACTION_BATCHES - 1)]);
+                    blackhole.consume(env.getEpisodes());
+                };
+            });
+        }
+    }
+}
\ No newline at end of file
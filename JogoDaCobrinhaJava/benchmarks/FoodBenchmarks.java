@@ -0,0 +1,31 @@
+import java.util.Random;
+
+/**
+ * Benchmarks do sorteio da comida com o tabuleiro cada vez mais ocupado
+ * pela cobra.
+ */
+public class FoodBenchmarks {
+    private static final int UNIT_SIZE = 20;
+    private static final int BOARD_SIZE = 100; // Tabuleiro de 100x100 células
+    
+    /**
+     * Registra os benchmarks da comida.
+     * 
+     * @param runner Executor dos benchmarks
+     */
+    public void register(BenchmarkRunner runner) {
+        for (int occupancy : runner.intParam("occupancy", 10, 50, 90, 99)) {
+            runner.average("Food.newFood", BenchmarkRunner.params("occupancy", occupancy), () -> {
+                Serpentine path = new Serpentine(BOARD_SIZE, BOARD_SIZE);
+                int length = Math.max(3, Math.min(path.getCells() - 1, path.getCells() * occupancy / 100));
+                SnakeBody body = path.build(length);
+                FoodSpawner spawner = new FoodSpawner(BOARD_SIZE, BOARD_SIZE, new Random(42), body);
+                Food food = new Food(UNIT_SIZE, spawner);
+                return blackhole -> {
+                    food.newFood();
+                    blackhole.consume(spawner.getX());
+                };
+            });
+        }
+    }
+}
\ No newline at end of file
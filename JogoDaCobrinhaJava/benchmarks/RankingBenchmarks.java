@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Benchmarks do ranking com 1 mil a 1 milhão de jogadores já gravados
+ * (10 milhões com {@code -p players=10000000}, que precisa de uns 640 MB
+ * de disco).
+ * 
+ * Para cada tamanho é gerado uma vez um arquivo modelo, já compactado, que
+ * é copiado antes de cada iteração para que todas partam do mesmo estado.
+ */
+public class RankingBenchmarks {
+    private static final int BATCH = 1000; // Pontuações por execução
+    private static final int CHUNK = 65536; // Registros por gravação ao gerar o modelo
+    private static final int HOT_NAMES = 64; // Nomes consultados em rodízio nas consultas por nome
+    
+    /**
+     * Registra os benchmarks do ranking.
+     * 
+     * @param runner Executor dos benchmarks
+     */
+    public void register(BenchmarkRunner runner) {
+        for (int players : runner.intParam("players", 1_000, 100_000, 1_000_000)) {
+            runner.singleShot("RankingSystem.load", BenchmarkRunner.params("players", players), 1, () -> {
+                Path file = prepare(runner, players);
+                return new RankingOperation(file) {
+                    @Override
+                    public void run(Blackhole blackhole) {
+                        ranking = new RankingSystem(file);
+                        blackhole.consume(ranking.getPlayerCount());
+                    }
+                };
+            });
+            
+            runner.singleShot("RankingSystem.addScore", BenchmarkRunner.params("players", players), BATCH, () -> {
+                Path file = prepare(runner, players);
+                RankingOperation operation = new RankingOperation(file) {
+                    @Override
+                    public void run(Blackhole blackhole) {
+                        for (int i = 0; i < BATCH; i++) {
+                            blackhole.consume(ranking.addScore(names[i], scores[i]));
+                        }
+                    }
+                };
+                operation.ranking = new RankingSystem(file);
+                return operation;
+            });
+            
+            runner.singleShot("RankingSystem.save", BenchmarkRunner.params("players", players), BATCH, () -> {
+                Path file = prepare(runner, players);
+                RankingOperation operation = new RankingOperation(file) {
+                    @Override
+                    public void run(Blackhole blackhole) {
+                        // Mede até a última pontuação estar gravada no disco
+                        CompletableFuture<Player> last = null;
+                        for (int i = 0; i < BATCH; i++) {
+                            last = ranking.submitScore(names[i], scores[i]);
+                        }
+                        blackhole.consume(last.join());
+                    }
+                };
+                operation.ranking = new RankingSystem(file);
+                return operation;
+            });
+            
+            runner.average("RankingSystem.getBestRank", BenchmarkRunner.params("players", players), () -> {
+                Path file = prepare(runner, players);
+                String[] hot = new String[HOT_NAMES];
+                Random random = new Random(players); // Mesmos nomes do modelo
+                for (int i = 0; i < HOT_NAMES; i++) {
+                    hot[i] = "jogador" + random.nextInt(players);
+                }
+                RankingOperation operation = new RankingOperation(file) {
+                    private int next;
+                    
+                    @Override
+                    public void run(Blackhole blackhole) {
+                        blackhole.consume(ranking.getBestRank(hot[next++ & (HOT_NAMES - 1)]));
+                    }
+                };
+                operation.ranking = new RankingSystem(file);
+                operation.ranking.getBestScore(hot[0]); // Monta o índice fora da medição
+                return operation;
+            });
+            
+            runner.average("RankingSystem.getTopPlayers", BenchmarkRunner.params("players", players), () -> {
+                Path file = prepare(runner, players);
+                RankingOperation operation = new RankingOperation(file) {
+                    @Override
+                    public void run(Blackhole blackhole) {
+                        blackhole.consume(ranking.getTopPlayers(10));
+                    }
+                };
+                operation.ranking = new RankingSystem(file);
+                return operation;
+            });
+        }
+    }
+    
+    /**
+     * Copia o arquivo modelo com o número de jogadores informado para um
+     * arquivo de trabalho, gerando o modelo se ele ainda não existir.
+     */
+    private static Path prepare(BenchmarkRunner runner, int players) throws IOException, InterruptedException {
+        Path directory = runner.getWorkDirectory();
+        Path template = directory.resolve("template-" + players + ".log");
+        if (!Files.exists(template)) {
+            generate(template, players);
+        }
+        Path file = directory.resolve("ranking.log");
+        Files.copy(template, file, StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+    
+    /**
+     * Gera um arquivo de ranking ordenado com jogadores aleatórios.
+     */
+    private static void generate(Path template, int players) throws IOException, InterruptedException {
+        Random random = new Random(players);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        try (RankingLog log = new RankingLog(template, template.resolveSibling("template.dat"))) {
+            List<Player> chunk = new ArrayList<>(CHUNK);
+            for (int i = 0; i < players; i++) {
+                chunk.add(new Player("jogador" + random.nextInt(players), random.nextInt(900),
+                        start.plusSeconds(i)));
+                if (chunk.size() == CHUNK || i == players - 1) {
+                    log.appendAll(chunk);
+                    chunk.clear();
+                }
+            }
+            
+            // A compactação em segundo plano pode estar rodando; espera até tudo estar ordenado
+            while (log.getSortedCount() < log.getRecordCount()) {
+                log.compact();
+                Thread.sleep(10);
+            }
+        }
+    }
+    
+    /**
+     * Operação sobre um ranking, que é fechado (e o arquivo de trabalho
+     * apagado) depois da medição.
+     */
+    private abstract static class RankingOperation implements BenchmarkRunner.Operation, AutoCloseable {
+        final Path file;
+        final String[] names = new String[BATCH];
+        final int[] scores = new int[BATCH];
+        RankingSystem ranking;
+        
+        RankingOperation(Path file) {
+            this.file = file;
+            Random random = new Random();
+            for (int i = 0; i < BATCH; i++) {
+                names[i] = "novo" + i;
+                scores[i] = random.nextInt(900);
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (ranking != null) {
+                ranking.close();
+            }
+            Files.deleteIfExists(file);
+        }
+    }
+}
\ No newline at end of file
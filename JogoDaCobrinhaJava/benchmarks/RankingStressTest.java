@@ -0,0 +1,118 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga do {@link RankingSystem} usado por várias threads: cada
+ * thread envia pontuações e, a cada dez envios, consulta os primeiros
+ * colocados e a posição de um nome. Roda com 1, 2, 4... threads até o
+ * máximo pedido e mostra os envios por segundo de cada rodada. Ao final de
+ * cada rodada confere se o ranking e o arquivo reaberto têm exatamente as
+ * pontuações enviadas.
+ * 
+ * Uso: RankingStressTest [--threads N] [--segundos N] [--pasta P]
+ * Sem --pasta, usa uma pasta temporária apagada no final.
+ */
+public class RankingStressTest {
+    private static final int NAMES = 1000;
+    
+    /**
+     * Executa o teste de carga.
+     * 
+     * @param args Argumentos da linha de comando
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+        int seconds = 5;
+        Path folder = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    maxThreads = Integer.parseInt(args[++i]);
+                    break;
+                case "--segundos":
+                    seconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--pasta":
+                    folder = Paths.get(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        boolean temporary = folder == null;
+        if (temporary) {
+            folder = Files.createTempDirectory("ranking-stress");
+        }
+        
+        boolean ok = true;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            Path file = folder.resolve("ranking-" + threads + ".log");
+            Files.deleteIfExists(file);
+            ok &= round(file, threads, seconds);
+            Files.deleteIfExists(file);
+        }
+        if (temporary) {
+            Files.deleteIfExists(folder);
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Roda uma rodada do teste com um número de threads.
+     * 
+     * @return true se o ranking terminou com todas as pontuações enviadas
+     */
+    private static boolean round(Path file, int threads, int seconds) throws InterruptedException {
+        RankingSystem ranking = new RankingSystem(file);
+        AtomicLong submitted = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            Thread worker = new Thread(() -> {
+                Random random = new Random(seed);
+                CompletableFuture<Player> last = null;
+                long count = 0;
+                while (System.nanoTime() < end) {
+                    String name = "jogador" + random.nextInt(NAMES);
+                    last = ranking.submitScore(name, random.nextInt(10_000));
+                    if (++count % 10 == 0) {
+                        ranking.getTopPlayers(10);
+                        ranking.getBestRank(name);
+                    }
+                }
+                submitted.addAndGet(count);
+                if (last != null && last.isCompletedExceptionally()) {
+                    failed.incrementAndGet();
+                }
+            }, "stress-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        
+        int inMemory = ranking.getPlayerCount();
+        ranking.close();
+        RankingSystem reopened = new RankingSystem(file);
+        int onDisk = reopened.getPlayerCount();
+        reopened.close();
+        
+        boolean ok = inMemory == submitted.get() && onDisk == submitted.get() && failed.get() == 0;
+        System.out.printf("%2d threads: %,12.0f envios por segundo; %,d enviados, %,d no ranking, %,d no arquivo%s%n",
+                threads, (double) submitted.get() / seconds, submitted.get(), inMemory, onDisk, ok ? "" : " (ERRO)");
+        return ok;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Benchmarks do desenho de um quadro do jogo em uma {@link BufferedImage}
+ * fora da tela.
+ * 
+ * O {@link GamePanel} abre o arquivo de ranking e inicia o próprio timer,
+ * então os benchmarks repetem as chamadas que ele faz a cada quadro: o
+ * {@link BoardRenderer} atualiza o buffer do tabuleiro, o buffer é copiado
+ * para a imagem de destino e a pontuação é escrita por cima.
+ */
+public class RenderBenchmarks {
+    private static final int UNIT_SIZE = 20;
+    private static final Font SCORE_FONT = new Font("Arial", Font.BOLD, 20);
+    
+    /**
+     * Registra os benchmarks de desenho.
+     * 
+     * @param runner Executor dos benchmarks
+     */
+    public void register(BenchmarkRunner runner) {
+        for (int board : runner.intParam("board", 30, 100)) {
+            // Quadro completo: grade, comida e uma cobra ocupando metade do tabuleiro
+            runner.average("GamePanel.fullFrame", BenchmarkRunner.params("board", board), () -> {
+                Serpentine path = new Serpentine(board, board);
+                SnakeBody body = path.build(path.getCells() / 2);
+                FoodSpawner spawner = new FoodSpawner(board, board, new Random(42), body);
+                Snake snake = new Snake(UNIT_SIZE, body);
+                Food food = new Food(UNIT_SIZE, spawner);
+                BoardRenderer renderer = new BoardRenderer(board * UNIT_SIZE, board * UNIT_SIZE, UNIT_SIZE);
+                Frame frame = new Frame(board);
+                return blackhole -> {
+                    renderer.reset(snake, food);
+                    frame.paint(renderer, body.getSize() - 3, 1);
+                    blackhole.consume(frame.image.getRGB(0, 0));
+                };
+            });
+            
+            // Quadro de um passo: só as células que mudaram são redesenhadas
+            runner.average("GamePanel.tickFrame", BenchmarkRunner.params("board", board), () -> tickFrame(board, 1));
+            
+            // Quadro do laço com passo fixo: a cobra desenhada entre duas células
+            runner.average("GamePanel.interpolatedFrame", BenchmarkRunner.params("board", board), () -> tickFrame(board, 0.5));
+        }
+    }
+    
+    /**
+     * Avança uma partida do controlador guloso a cada operação e desenha o quadro.
+     */
+    private static BenchmarkRunner.Operation tickFrame(int board, double alpha) {
+        GreedyController controller = new GreedyController();
+        BoardRenderer renderer = new BoardRenderer(board * UNIT_SIZE, board * UNIT_SIZE, UNIT_SIZE);
+        Frame frame = new Frame(board);
+        GameEngine engine = new GameEngine(board, board, 42);
+        renderer.reset(new Snake(UNIT_SIZE, engine.getState().getSnake()),
+                new Food(UNIT_SIZE, engine.getState().getFood()));
+        return blackhole -> {
+            GameState state = engine.getState();
+            if (engine.step(controller.nextDirection(state)) != GameState.Status.RUNNING) {
+                // Fim de partida: recomeça, como o jogador faria
+                engine.reset(state.getSeed() + 1);
+                renderer.reset(new Snake(UNIT_SIZE, engine.getState().getSnake()),
+                        new Food(UNIT_SIZE, engine.getState().getFood()));
+            } else {
+                renderer.update();
+            }
+            frame.paint(renderer, engine.getState().getScore(), alpha);
+            blackhole.consume(frame.image.getRGB(0, 0));
+        };
+    }
+    
+    /**
+     * Imagem de destino do quadro, no lugar da tela.
+     */
+    private static class Frame {
+        final BufferedImage image;
+        final Graphics2D graphics;
+        
+        Frame(int board) {
+            image = new BufferedImage(board * UNIT_SIZE, board * UNIT_SIZE, BufferedImage.TYPE_INT_RGB);
+            graphics = image.createGraphics();
+        }
+        
+        void paint(BoardRenderer renderer, int score, double alpha) {
+            renderer.paintInterpolated(graphics, alpha);
+            graphics.setColor(Color.WHITE);
+            graphics.setFont(SCORE_FONT);
+            graphics.drawString("Pontuação: " + score, 10, SCORE_FONT.getSize());
+        }
+    }
+}
\ No newline at end of file
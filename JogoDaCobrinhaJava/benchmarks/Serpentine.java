@@ -0,0 +1,109 @@
+/**
+ * Caminho em serpentina que passa uma vez por cada célula do tabuleiro e
+ * volta ao início (ciclo hamiltoniano). Uma cobra que segue este caminho
+ * nunca colide, então serve para montar cobras de qualquer tamanho e
+ * movê-las indefinidamente nos benchmarks.
+ * 
+ * As linhas pares vão para a direita e as ímpares para a esquerda, sempre
+ * a partir da coluna 1; a coluna 0 é usada para voltar ao topo. Por isso o
+ * número de linhas precisa ser par.
+ */
+public final class Serpentine {
+    private final int columns;
+    private final int rows;
+    
+    /**
+     * Construtor da classe Serpentine.
+     * 
+     * @param columns Número de colunas (pelo menos 2)
+     * @param rows Número de linhas (par)
+     */
+    public Serpentine(int columns, int rows) {
+        if (columns < 2 || rows < 2 || rows % 2 != 0) {
+            throw new IllegalArgumentException("Tabuleiro sem serpentina: " + columns + "x" + rows);
+        }
+        this.columns = columns;
+        this.rows = rows;
+    }
+    
+    /**
+     * Cria a serpentina no menor tabuleiro quadrado com pelo menos o número de células informado.
+     * 
+     * @param cells Número mínimo de células
+     * @return Serpentina
+     */
+    public static Serpentine forCells(long cells) {
+        int side = Math.max(4, (int) Math.ceil(Math.sqrt(cells)));
+        return new Serpentine(side, side + (side & 1));
+    }
+    
+    /**
+     * Retorna a direção que segue o caminho a partir de uma célula.
+     * 
+     * @param x Coluna
+     * @param y Linha
+     * @return Direção para a próxima célula do caminho
+     */
+    public Direction directionAt(int x, int y) {
+        if (x == 0) {
+            return y == 0 ? Direction.RIGHT : Direction.UP;
+        }
+        if ((y & 1) == 0) {
+            return x < columns - 1 ? Direction.RIGHT : Direction.DOWN;
+        }
+        if (x > 1) {
+            return Direction.LEFT;
+        }
+        return y == rows - 1 ? Direction.LEFT : Direction.DOWN;
+    }
+    
+    /**
+     * Avança a cobra uma célula ao longo do caminho.
+     * 
+     * @param snake Cobra que está sobre o caminho
+     */
+    public void step(SnakeBody snake) {
+        snake.setDirection(directionAt(snake.getHeadX(), snake.getHeadY()));
+        snake.move();
+    }
+    
+    /**
+     * Monta uma cobra do tamanho informado sobre o caminho.
+     * A cauda fica no canto superior esquerdo.
+     * 
+     * @param length Tamanho da cobra (entre 3 e o número de células - 1)
+     * @return Cobra montada
+     */
+    public SnakeBody build(int length) {
+        if (length < 3 || length >= getCells()) {
+            throw new IllegalArgumentException("Tamanho fora do tabuleiro: " + length);
+        }
+        SnakeBody snake = new SnakeBody(columns, rows, 2, 0);
+        while (snake.getSize() < length) {
+            snake.grow();
+            step(snake);
+        }
+        return snake;
+    }
+    
+    /**
+     * @return Número de colunas
+     */
+    public int getColumns() {
+        return columns;
+    }
+    
+    /**
+     * @return Número de linhas
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * @return Número de células do tabuleiro
+     */
+    public int getCells() {
+        return columns * rows;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Teste de carga do {@link SnakeServer}: abre muitos {@link SnakeClient}
+ * em um único seletor, espalhados pelas salas, e manda mudanças de direção
+ * aleatórias. Ao final mostra quantos passos por segundo cada cliente recebeu, o tráfego
+ * por cliente e por passo e quantos clientes foram desconectados.
+ * 
+ * Uso: ServerLoadTest [--clientes N] [--salas N] [--segundos N] [--host H --porta P]
+ * Sem --host, sobe um servidor no próprio processo.
+ */
+public class ServerLoadTest {
+    private static final int WARMUP_SECONDS = 3;
+    
+    /**
+     * Executa o teste de carga.
+     * 
+     * @param args Argumentos da linha de comando
+     */
+    public static void main(String[] args) throws IOException {
+        int clients = 1000;
+        int rooms = 50;
+        int seconds = 10;
+        String host = null;
+        int port = SnakeServer.DEFAULT_PORT;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--clientes":
+                    clients = Integer.parseInt(args[++i]);
+                    break;
+                case "--salas":
+                    rooms = Integer.parseInt(args[++i]);
+                    break;
+                case "--segundos":
+                    seconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--host":
+                    host = args[++i];
+                    break;
+                case "--porta":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        
+        SnakeServer server = null;
+        if (host == null) {
+            server = new SnakeServer(new InetSocketAddress("127.0.0.1", 0), 100, 8);
+            server.start();
+            host = "127.0.0.1";
+            port = server.getPort();
+        }
+        
+        Selector selector = Selector.open();
+        List<SnakeClient> connected = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            SnakeClient client = new SnakeClient(new InetSocketAddress(host, port), i % rooms);
+            client.getChannel().configureBlocking(false);
+            client.getChannel().register(selector, SelectionKey.OP_READ, client);
+            connected.add(client);
+        }
+        System.out.println(clients + " clientes conectados em " + rooms + " salas");
+        
+        // Esvazia o que acumulou durante as conexões antes de medir
+        Random random = new Random(42);
+        int dropped = pump(selector, random, WARMUP_SECONDS);
+        long ticksBefore = 0;
+        long bytesBefore = 0;
+        for (SnakeClient client : connected) {
+            ticksBefore += client.getTicksReceived();
+            bytesBefore += client.getBytesReceived();
+        }
+        dropped += pump(selector, random, seconds);
+        
+        long ticks = -ticksBefore;
+        long bytes = -bytesBefore;
+        for (SnakeClient client : connected) {
+            ticks += client.getTicksReceived();
+            bytes += client.getBytesReceived();
+            client.close();
+        }
+        selector.close();
+        if (server != null) {
+            server.close();
+        }
+        
+        System.out.printf("Passos recebidos por cliente: %.1f por segundo%n", (double) ticks / clients / seconds);
+        System.out.printf("Tráfego: %.1f bytes por cliente por passo (%.1f KB/s no total)%n",
+                (double) bytes / Math.max(1, ticks), bytes / 1024.0 / seconds);
+        System.out.println("Clientes desconectados: " + dropped);
+    }
+    
+    /**
+     * Atende os clientes durante o tempo informado, mandando mudanças de direção aleatórias.
+     * 
+     * @return Número de clientes desconectados
+     */
+    private static int pump(Selector selector, Random random, int seconds) throws IOException {
+        int dropped = 0;
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            selector.select(100);
+            for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                SelectionKey key = it.next();
+                it.remove();
+                SnakeClient client = (SnakeClient) key.attachment();
+                try {
+                    if (client.readAvailable() > 0) {
+                        ArenaMirror mirror = client.getMirror();
+                        if (mirror.getPlayerId() >= 0 && !mirror.isAlive(mirror.getPlayerId())) {
+                            client.respawn();
+                        } else if (random.nextInt(4) == 0) {
+                            client.turn(Direction.values()[random.nextInt(4)]);
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    key.cancel();
+                    client.close();
+                    dropped++;
+                }
+            }
+        }
+        return dropped;
+    }
+}
\ No newline at end of file
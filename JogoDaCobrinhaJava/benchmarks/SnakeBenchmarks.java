@@ -0,0 +1,53 @@
+/**
+ * Benchmarks da cobra: mover, crescer e verificar a colisão com o próprio
+ * corpo, com a cobra de 3 a 1 milhão de segmentos. A cobra segue uma
+ * {@link Serpentine}, então nunca colide e pode se mover indefinidamente.
+ */
+public class SnakeBenchmarks {
+    private static final int UNIT_SIZE = 20;
+    private static final int GROW_BATCH = 1024; // Crescimentos por execução
+    
+    /**
+     * Registra os benchmarks da cobra.
+     * 
+     * @param runner Executor dos benchmarks
+     */
+    public void register(BenchmarkRunner runner) {
+        for (int length : runner.intParam("length", 3, 1_000, 1_000_000)) {
+            runner.average("Snake.move", BenchmarkRunner.params("length", length), () -> {
+                Serpentine path = Serpentine.forCells(2L * length);
+                SnakeBody body = path.build(length);
+                Snake snake = new Snake(UNIT_SIZE, body);
+                return blackhole -> {
+                    snake.setDirection(path.directionAt(body.getHeadX(), body.getHeadY()));
+                    snake.move();
+                };
+            });
+            
+            runner.singleShot("Snake.grow", BenchmarkRunner.params("length", length), GROW_BATCH, () -> {
+                Serpentine path = Serpentine.forCells(2L * (length + GROW_BATCH));
+                SnakeBody body = path.build(length);
+                Snake snake = new Snake(UNIT_SIZE, body);
+                return blackhole -> {
+                    for (int i = 0; i < GROW_BATCH; i++) {
+                        snake.grow();
+                        snake.setDirection(path.directionAt(body.getHeadX(), body.getHeadY()));
+                        snake.move();
+                    }
+                    blackhole.consume(body.getSize());
+                };
+            });
+            
+            runner.average("Snake.checkSelfCollision", BenchmarkRunner.params("length", length), () -> {
+                Serpentine path = Serpentine.forCells(2L * length);
+                SnakeBody body = path.build(length);
+                Snake snake = new Snake(UNIT_SIZE, body);
+                return blackhole -> {
+                    snake.setDirection(path.directionAt(body.getHeadX(), body.getHeadY()));
+                    snake.move();
+                    blackhole.consume(snake.checkSelfCollision());
+                };
+            });
+        }
+    }
+}
\ No newline at end of file
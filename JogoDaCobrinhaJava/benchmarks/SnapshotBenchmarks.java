@@ -0,0 +1,58 @@
+import java.nio.file.Path;
+
+/**
+ * Benchmarks dos jogos salvos com a cobra de 3 a 1 milhão de segmentos, em
+ * um tabuleiro com o dobro de células: tirar o snapshot e dar o passo
+ * seguinte (que copia as páginas sobrescritas), gravá-lo no disco e
+ * restaurá-lo em um motor do mesmo tamanho.
+ */
+public class SnapshotBenchmarks {
+    /**
+     * Registra os benchmarks dos jogos salvos.
+     * 
+     * @param runner Executor dos benchmarks
+     */
+    public void register(BenchmarkRunner runner) {
+        for (int length : runner.intParam("length", 3, 1_000, 1_000_000)) {
+            runner.average("GameSnapshot.capture", BenchmarkRunner.params("length", length), () -> {
+                Serpentine path = Serpentine.forCells(2L * length);
+                GameRandom random = new GameRandom(42);
+                GameState state = build(path, length, random);
+                return blackhole -> {
+                    GameSnapshot snapshot = GameSnapshot.capture(state, random);
+                    path.step(state.getSnake());
+                    state.advanceTick();
+                    blackhole.consume(snapshot.getLength());
+                    snapshot.release();
+                };
+            });
+            
+            runner.singleShot("GameSnapshot.save", BenchmarkRunner.params("length", length), 1, () -> {
+                Serpentine path = Serpentine.forCells(2L * length);
+                GameRandom random = new GameRandom(42);
+                GameState state = build(path, length, random);
+                Path file = runner.getWorkDirectory().resolve("snapshot-" + length + ".snks");
+                return blackhole -> blackhole.consume(GameSnapshot.capture(state, random).save(file).join());
+            });
+            
+            runner.average("GameEngine.restore", BenchmarkRunner.params("length", length), () -> {
+                Serpentine path = Serpentine.forCells(2L * length);
+                GameRandom random = new GameRandom(42);
+                Path file = runner.getWorkDirectory().resolve("restore-" + length + ".snks");
+                GameSnapshot.capture(build(path, length, random), random).save(file).join();
+                GameSnapshot snapshot = GameSnapshot.load(file);
+                GameEngine engine = new GameEngine(path.getColumns(), path.getRows(), 1);
+                return blackhole -> {
+                    engine.restore(snapshot);
+                    blackhole.consume(engine.getState().getSnake().getSize());
+                };
+            });
+        }
+    }
+    
+    private static GameState build(Serpentine path, int length, GameRandom random) {
+        SnakeBody body = path.build(length);
+        FoodSpawner food = new FoodSpawner(path.getColumns(), path.getRows(), random, body);
+        return new GameState(body, food, 42);
+    }
+}
\ No newline at end of file